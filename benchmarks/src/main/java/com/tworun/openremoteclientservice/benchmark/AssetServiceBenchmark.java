@@ -0,0 +1,179 @@
+package com.tworun.openremoteclientservice.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tworun.openremoteclientservice.cache.AssetCache;
+import com.tworun.openremoteclientservice.cache.LastKnownAsset;
+import com.tworun.openremoteclientservice.client.AssetClient;
+import com.tworun.openremoteclientservice.dto.AssetCreateRequest;
+import com.tworun.openremoteclientservice.dto.AssetMultiGetResponse;
+import com.tworun.openremoteclientservice.dto.AssetQuery;
+import com.tworun.openremoteclientservice.dto.AssetResponse;
+import com.tworun.openremoteclientservice.dto.AttributeEvent;
+import com.tworun.openremoteclientservice.dto.AttributeRef;
+import com.tworun.openremoteclientservice.dto.AttributeWriteResult;
+import com.tworun.openremoteclientservice.dto.TokenResponse;
+import com.tworun.openremoteclientservice.service.AssetRequestCollapser;
+import com.tworun.openremoteclientservice.service.AssetService;
+import com.tworun.openremoteclientservice.service.AttributeWriteCoalescer;
+import com.tworun.openremoteclientservice.service.AuthService;
+import com.tworun.openremoteclientservice.service.HedgedAssetReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Per-call overhead of {@link AssetService} CRUD operations in front of a stubbed {@link AssetClient}.
+ * <p>
+ * The stub answers instantly with prebuilt responses, so the scores cover token lookup, caching, request
+ * collapsing and error mapping, but no network or serialization. {@code getAssetUncached} uses a disabled
+ * cache and a collapser window of 0 so every call reaches the client.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssetServiceBenchmark {
+
+    private static final String ASSET_ID = "7clrHYLZxeyX8QMvTLijI8";
+
+    @Param({"10", "100"})
+    private int attributeCount;
+
+    private AuthService authService;
+    private AssetRequestCollapser cachedCollapser;
+    private AssetRequestCollapser uncachedCollapser;
+    private AttributeWriteCoalescer cachedCoalescer;
+    private AttributeWriteCoalescer uncachedCoalescer;
+    private AssetService cachedAssetService;
+    private AssetService uncachedAssetService;
+    private AssetCreateRequest createRequest;
+    private List<String> multiGetIds;
+
+    @Setup
+    public void setUp() {
+        TokenResponse tokenResponse = new TokenResponse();
+        tokenResponse.setAccessToken("benchmark-token");
+        tokenResponse.setExpiresIn(3600);
+        authService = BenchmarkFixtures.authService(tokenResponse);
+
+        AssetClient assetClient = new StubAssetClient(BenchmarkFixtures.asset(ASSET_ID, attributeCount));
+        Executor callerRuns = Runnable::run;
+
+        AssetCache cache = new AssetCache(Caffeine.newBuilder().maximumSize(10_000).<String, AssetResponse>build(),
+                Caffeine.newBuilder().maximumSize(10_000).<String, LastKnownAsset>build());
+        cachedCollapser = new AssetRequestCollapser(assetClient, callerRuns, new HedgedAssetReader(assetClient, callerRuns));
+        cachedCoalescer = new AttributeWriteCoalescer(assetClient, authService, cache);
+        cachedAssetService = new AssetService(assetClient, authService, cache, callerRuns, callerRuns, callerRuns,
+                cachedCollapser, cachedCoalescer);
+
+        AssetCache disabledCache = new AssetCache(Caffeine.newBuilder().maximumSize(0).executor(Runnable::run)
+                .<String, AssetResponse>build(), Caffeine.newBuilder().maximumSize(0).executor(Runnable::run)
+                .<String, LastKnownAsset>build());
+        uncachedCollapser = new AssetRequestCollapser(assetClient, callerRuns, new HedgedAssetReader(assetClient, callerRuns));
+        BenchmarkFixtures.setField(uncachedCollapser, "window", Duration.ZERO);
+        uncachedCoalescer = new AttributeWriteCoalescer(assetClient, authService, disabledCache);
+        uncachedAssetService = new AssetService(assetClient, authService, disabledCache, callerRuns, callerRuns,
+                callerRuns, uncachedCollapser, uncachedCoalescer);
+
+        createRequest = BenchmarkFixtures.createRequest(attributeCount);
+        multiGetIds = IntStream.range(0, 100).mapToObj(i -> "asset" + i).toList();
+        cachedAssetService.getAsset(ASSET_ID);
+    }
+
+    @TearDown
+    public void tearDown() {
+        cachedCoalescer.shutdown();
+        uncachedCoalescer.shutdown();
+        authService.shutdown();
+    }
+
+    @Benchmark
+    public AssetResponse createAsset() {
+        return cachedAssetService.createAsset(createRequest);
+    }
+
+    @Benchmark
+    public AssetResponse getAssetCached() {
+        return cachedAssetService.getAsset(ASSET_ID);
+    }
+
+    @Benchmark
+    public AssetResponse getAssetUncached() {
+        return uncachedAssetService.getAsset(ASSET_ID);
+    }
+
+    @Benchmark
+    public AssetMultiGetResponse getAssetsUncached() {
+        return uncachedAssetService.getAssets(multiGetIds);
+    }
+
+    @Benchmark
+    public AssetResponse updateAsset() {
+        return cachedAssetService.updateAsset(ASSET_ID, createRequest);
+    }
+
+    @Benchmark
+    public void deleteAssets() {
+        cachedAssetService.deleteAssets(List.of(ASSET_ID));
+    }
+
+    /**
+     * In-memory {@link AssetClient} returning the same prebuilt asset for every id.
+     */
+    private record StubAssetClient(AssetResponse asset) implements AssetClient {
+
+        @Override
+        public AssetResponse createAsset(String accessToken, AssetCreateRequest assetCreateRequest) {
+            return asset;
+        }
+
+        @Override
+        public AssetResponse getAsset(String accessToken, String assetId) {
+            return asset;
+        }
+
+        @Override
+        public List<AssetResponse> queryAssets(String accessToken, AssetQuery query) {
+            return query.getIds().stream().map(id -> BenchmarkFixtures.asset(id, 1)).toList();
+        }
+
+        @Override
+        public AssetResponse updateAsset(String token, String assetId, AssetCreateRequest request) {
+            return asset;
+        }
+
+        @Override
+        public AttributeWriteResult writeAttributeValue(String authHeader, String assetId, String attributeName,
+                                                        JsonNode value) {
+            return new AttributeWriteResult(new AttributeRef(assetId, attributeName), null);
+        }
+
+        @Override
+        public List<AttributeWriteResult> writeAttributeValues(String authHeader, List<AttributeEvent> events) {
+            return events.stream().map(event -> new AttributeWriteResult(event.getRef(), null)).toList();
+        }
+
+        @Override
+        public void deleteAssets(String authHeader, List<String> assetIds) {
+        }
+    }
+}
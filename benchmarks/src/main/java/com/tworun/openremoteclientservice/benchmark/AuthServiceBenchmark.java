@@ -0,0 +1,74 @@
+package com.tworun.openremoteclientservice.benchmark;
+
+import com.tworun.openremoteclientservice.dto.TokenResponse;
+import com.tworun.openremoteclientservice.service.AuthService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link AuthService#getToken()} with a valid cached token, from 1 to 64 threads sharing one service.
+ * <p>
+ * The Auth server is replaced by a stub returning a one hour token, so after the first call every
+ * iteration measures only the cached hot path and its behaviour under contention.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthServiceBenchmark {
+
+    private AuthService authService;
+
+    @Setup
+    public void setUp() {
+        TokenResponse tokenResponse = new TokenResponse();
+        tokenResponse.setAccessToken("eyJhbGciOiJSUzI1NiIsInR5cCIgOiAiSldUIn0.benchmark");
+        tokenResponse.setExpiresIn(3600);
+        authService = BenchmarkFixtures.authService(tokenResponse);
+        authService.getToken();
+    }
+
+    @TearDown
+    public void tearDown() {
+        authService.shutdown();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String getToken_1Thread() {
+        return authService.getToken();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String getToken_4Threads() {
+        return authService.getToken();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public String getToken_16Threads() {
+        return authService.getToken();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public String getToken_64Threads() {
+        return authService.getToken();
+    }
+}
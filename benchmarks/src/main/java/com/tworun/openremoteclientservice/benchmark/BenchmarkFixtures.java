@@ -0,0 +1,122 @@
+package com.tworun.openremoteclientservice.benchmark;
+
+import com.tworun.openremoteclientservice.client.AuthClient;
+import com.tworun.openremoteclientservice.dto.AssetCreateRequest;
+import com.tworun.openremoteclientservice.dto.AssetResponse;
+import com.tworun.openremoteclientservice.dto.AttributeObject;
+import com.tworun.openremoteclientservice.dto.TokenResponse;
+import com.tworun.openremoteclientservice.service.AuthService;
+import com.tworun.openremoteclientservice.service.RealmRegistry;
+import com.tworun.openremoteclientservice.service.TokenFetcher;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.util.MultiValueMap;
+
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test data and wiring helpers shared by the benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Builds an asset shaped like a typical OpenRemote response with the given number of attributes.
+     */
+    static AssetResponse asset(String id, int attributeCount) {
+        AssetResponse asset = new AssetResponse();
+        asset.setId(id);
+        asset.setVersion(3L);
+        asset.setCreatedOn("2025-06-22T15:51:28.071Z");
+        asset.setName("Living Room Thermostat " + id);
+        asset.setAccessPublicRead(false);
+        asset.setParentId("1AbcD2EfG3HiJ4KlM5NoPq");
+        asset.setRealm("master");
+        asset.setType("ThermostatAsset");
+        asset.setPath(List.of("1AbcD2EfG3HiJ4KlM5NoPq", id));
+        asset.setAttributes(attributes(attributeCount));
+        return asset;
+    }
+
+    /**
+     * Builds a valid create/update request with the given number of attributes.
+     */
+    static AssetCreateRequest createRequest(int attributeCount) {
+        AssetCreateRequest request = new AssetCreateRequest();
+        request.setVersion(0L);
+        request.setName("Living Room Thermostat");
+        request.setAccessPublicRead(false);
+        request.setParentId("1AbcD2EfG3HiJ4KlM5NoPq");
+        request.setRealm("master");
+        request.setType("ThermostatAsset");
+        request.setPath(List.of("Energy", "Living Room"));
+        request.setAttributes(attributes(attributeCount));
+        return request;
+    }
+
+    /**
+     * Builds attributes with a mix of numeric, text and boolean values, most of them carrying meta items,
+     * similar to what OpenRemote returns for device assets.
+     */
+    static Map<String, AttributeObject> attributes(int count) {
+        Map<String, AttributeObject> attributes = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String name = "attribute_" + i;
+            Object value = switch (i % 3) {
+                case 0 -> 20.5 + i;
+                case 1 -> "value-" + i;
+                default -> i % 2 == 0;
+            };
+            Object type = switch (i % 3) {
+                case 0 -> "positiveNumber";
+                case 1 -> "text";
+                default -> "boolean";
+            };
+            Map<String, Object> meta = i % 4 == 3
+                    ? Map.of()
+                    : Map.of("storeDataPoints", true, "ruleState", true, "label", "Attribute " + i, "unitType", List.of("celsius"));
+            attributes.put(name, new AttributeObject(name, value, meta, type, 1729688512000L + i));
+        }
+        return attributes;
+    }
+
+    /**
+     * Builds an {@link AuthService} for the default realm only, whose Auth server always answers with the given token.
+     */
+    static AuthService authService(TokenResponse tokenResponse) {
+        AuthClient authClient = new AuthClient() {
+            @Override
+            public TokenResponse getToken(MultiValueMap<String, String> formData) {
+                return tokenResponse;
+            }
+
+            @Override
+            public TokenResponse getToken(URI tokenUrl, MultiValueMap<String, String> formData) {
+                return tokenResponse;
+            }
+        };
+        TokenFetcher tokenFetcher = new TokenFetcher(authClient, RetryRegistry.ofDefaults(),
+                CircuitBreakerRegistry.ofDefaults());
+        return new AuthService(tokenFetcher, new RealmRegistry(new StandardEnvironment()));
+    }
+
+    /**
+     * Sets a private field, standing in for the {@code @Value} injection the Spring context would do.
+     */
+    static void setField(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Cannot set " + fieldName + " on " + target.getClass().getSimpleName(), ex);
+        }
+    }
+}
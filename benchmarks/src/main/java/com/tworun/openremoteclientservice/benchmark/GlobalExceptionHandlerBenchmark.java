@@ -0,0 +1,91 @@
+package com.tworun.openremoteclientservice.benchmark;
+
+import com.tworun.openremoteclientservice.dto.AssetCreateRequest;
+import com.tworun.openremoteclientservice.exception.AssetNotFoundException;
+import com.tworun.openremoteclientservice.exception.AuthException;
+import com.tworun.openremoteclientservice.exception.ErrorResponse;
+import com.tworun.openremoteclientservice.exception.GlobalExceptionHandler;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the {@link GlobalExceptionHandler} error paths, including creating the exception.
+ * <p>
+ * Every failed request constructs its exception (and stack trace) before the handler runs, so both are
+ * measured together. Logging goes to a no-op appender (see {@code logback.xml}), so log events are still
+ * created but not written.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GlobalExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private RateLimiter rateLimiter;
+    private MethodParameter createAssetParameter;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        handler = new GlobalExceptionHandler();
+        rateLimiter = RateLimiter.ofDefaults("assetCreationLimiter");
+        createAssetParameter = new MethodParameter(
+                GlobalExceptionHandlerBenchmark.class.getDeclaredMethod("createAsset", AssetCreateRequest.class), 0);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> assetNotFound() {
+        return handler.handleAssetNotFound(new AssetNotFoundException("Asset not found with id: 7clrHYLZxeyX8QMvTLijI8"));
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> authError() {
+        return handler.handleAuthException(new AuthException("Auth service temporarily unavailable."));
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> validationError() {
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new AssetCreateRequest(), "request");
+        bindingResult.addError(new FieldError("request", "name", "Asset name cannot be blank."));
+        bindingResult.addError(new FieldError("request", "realm", "Realm cannot be blank."));
+        bindingResult.addError(new FieldError("request", "attributes", "Attributes must not be null"));
+        return handler.handleValidationException(new MethodArgumentNotValidException(createAssetParameter, bindingResult));
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> rateLimitExceeded() {
+        return handler.handleRequestNotPermittedException(RequestNotPermitted.createRequestNotPermitted(rateLimiter));
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> unexpectedError() {
+        return handler.handleGlobalException(new IllegalStateException("Failed to retrieve asset: Connection refused"));
+    }
+
+    /**
+     * Signature used to build the {@link MethodParameter} of the validation error.
+     */
+    @SuppressWarnings("unused")
+    private void createAsset(AssetCreateRequest request) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.tworun.openremoteclientservice.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tworun.openremoteclientservice.dto.AssetCreateRequest;
+import com.tworun.openremoteclientservice.dto.AssetResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization and deserialization of the asset DTOs for attribute maps of 10 to 500 entries.
+ * <p>
+ * Uses an {@link ObjectMapper} built like the one Spring Boot configures for MVC and Feign, so the scores
+ * reflect what each request and upstream call pays for (de)serialization.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonBenchmark {
+
+    @Param({"10", "50", "500"})
+    private int attributeCount;
+
+    private ObjectMapper objectMapper;
+    private AssetResponse assetResponse;
+    private AssetCreateRequest createRequest;
+    private byte[] assetResponseJson;
+    private byte[] createRequestJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        assetResponse = BenchmarkFixtures.asset("7clrHYLZxeyX8QMvTLijI8", attributeCount);
+        createRequest = BenchmarkFixtures.createRequest(attributeCount);
+        assetResponseJson = objectMapper.writeValueAsBytes(assetResponse);
+        createRequestJson = objectMapper.writeValueAsBytes(createRequest);
+    }
+
+    @Benchmark
+    public byte[] serializeAssetResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(assetResponse);
+    }
+
+    @Benchmark
+    public AssetResponse deserializeAssetResponse() throws Exception {
+        return objectMapper.readValue(assetResponseJson, AssetResponse.class);
+    }
+
+    @Benchmark
+    public byte[] serializeCreateRequest() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(createRequest);
+    }
+
+    @Benchmark
+    public AssetCreateRequest deserializeCreateRequest() throws Exception {
+        return objectMapper.readValue(createRequestJson, AssetCreateRequest.class);
+    }
+}
@@ -0,0 +1,82 @@
+package com.tworun.openremoteclientservice.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Response latency model of the {@link OpenRemoteStubServer}.
+ * <p>
+ * Parsed from a spec string, durations in Spring Boot notation ({@code 20ms}, {@code 1s}):
+ * </p>
+ * <ul>
+ *     <li>{@code constant:20ms} - every response takes 20 ms</li>
+ *     <li>{@code uniform:10ms:50ms} - uniformly distributed between 10 and 50 ms</li>
+ *     <li>{@code lognormal:20ms:200ms} - log-normal with a median of 20 ms and a 99th percentile of 200 ms,
+ *     the usual long-tailed shape of real server latency</li>
+ * </ul>
+ */
+sealed interface LatencyDistribution {
+
+    /** z-score of the 99th percentile of the standard normal distribution. */
+    double Z_99 = 2.3263;
+
+    /**
+     * Draws the next latency.
+     */
+    Duration sample();
+
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        try {
+            return switch (parts[0]) {
+                case "constant" -> new Constant(duration(parts[1]));
+                case "uniform" -> new Uniform(duration(parts[1]), duration(parts[2]));
+                case "lognormal" -> new LogNormal(duration(parts[1]), duration(parts[2]));
+                default -> throw new IllegalArgumentException("Unknown latency distribution: " + parts[0]);
+            };
+        } catch (ArrayIndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Incomplete latency spec: " + spec, ex);
+        }
+    }
+
+    private static Duration duration(String value) {
+        return DurationStyle.detectAndParse(value);
+    }
+
+    record Constant(Duration latency) implements LatencyDistribution {
+        @Override
+        public Duration sample() {
+            return latency;
+        }
+    }
+
+    record Uniform(Duration min, Duration max) implements LatencyDistribution {
+        public Uniform {
+            if (max.compareTo(min) < 0) {
+                throw new IllegalArgumentException("uniform max must not be lower than min");
+            }
+        }
+
+        @Override
+        public Duration sample() {
+            return Duration.ofNanos(ThreadLocalRandom.current().nextLong(min.toNanos(), max.toNanos() + 1));
+        }
+    }
+
+    record LogNormal(Duration median, Duration p99) implements LatencyDistribution {
+        public LogNormal {
+            if (median.isZero() || p99.compareTo(median) < 0) {
+                throw new IllegalArgumentException("lognormal needs 0 < median <= p99");
+            }
+        }
+
+        @Override
+        public Duration sample() {
+            double mu = Math.log(median.toNanos());
+            double sigma = Math.log((double) p99.toNanos() / median.toNanos()) / Z_99;
+            return Duration.ofNanos((long) Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.tworun.openremoteclientservice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Open-loop load generator for the {@code /api/assets} endpoints of the service.
+ * <p>
+ * Requests are started at a fixed rate regardless of how fast responses come back, and latency is measured from
+ * the moment a request was scheduled to start, so queueing inside the service is not hidden (no coordinated
+ * omission). Reads and updates use the ids seeded by {@link OpenRemoteStubServer}; deletes remove assets created
+ * earlier in the same run. Prints interval progress and a final table of throughput, latency percentiles and
+ * status codes per operation.
+ * </p>
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.tworun.openremoteclientservice.loadtest.LoadDriver \
+ *     --target=http://localhost:8080 --rps=200 --duration=60s --mix=get:80,multiget:10,create:5,update:5
+ * </pre>
+ */
+public final class LoadDriver {
+
+    private static final String USAGE = """
+            Options:
+              --target=http://localhost:8080   service base URL
+              --rps=100                        requests started per second
+              --duration=30s                   test duration
+              --mix=get:70,multiget:10,create:10,update:5,delete:5
+                                               relative weights of get, multiget, create, update, delete,
+                                               attribute (write the seeded "notes" attribute)
+              --asset-ids=1000                 seeded asset ids to read and update (match the stub's --seed-assets)
+              --multiget-size=20               ids per multiget request
+              --timeout=10s                    per-request timeout
+              --max-in-flight=10000            requests beyond this many outstanding are dropped and counted
+              --report-interval=5s             progress output interval
+            """;
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient;
+    private final URI assetsUri;
+    private final Duration timeout;
+    private final int assetIdCount;
+    private final int multiGetSize;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final Map<Operation, Integer> mix;
+    private final int mixTotal;
+    private final String assetBody;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final Queue<String> createdIds = new ConcurrentLinkedQueue<>();
+
+    LoadDriver(URI target, Duration timeout, int assetIdCount, int multiGetSize, int maxInFlight, Map<Operation, Integer> mix) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .executor(Executors.newCachedThreadPool(runnable -> {
+                    Thread thread = new Thread(runnable, "load-driver");
+                    thread.setDaemon(true);
+                    return thread;
+                }))
+                .build();
+        this.assetsUri = target.resolve("/api/assets");
+        this.timeout = timeout;
+        this.assetIdCount = assetIdCount;
+        this.multiGetSize = multiGetSize;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.mix = mix;
+        this.mixTotal = mix.values().stream().mapToInt(Integer::intValue).sum();
+        this.assetBody = assetBody();
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        SimpleCommandLinePropertySource options = new SimpleCommandLinePropertySource(args);
+        if (options.containsProperty("help")) {
+            System.out.print(USAGE);
+            return;
+        }
+        LoadDriver driver = new LoadDriver(
+                URI.create(option(options, "target", "http://localhost:8080")),
+                DurationStyle.detectAndParse(option(options, "timeout", "10s")),
+                Integer.parseInt(option(options, "asset-ids", "1000")),
+                Integer.parseInt(option(options, "multiget-size", "20")),
+                Integer.parseInt(option(options, "max-in-flight", "10000")),
+                parseMix(option(options, "mix", "get:70,multiget:10,create:10,update:5,delete:5")));
+        driver.run(Integer.parseInt(option(options, "rps", "100")),
+                DurationStyle.detectAndParse(option(options, "duration", "30s")),
+                DurationStyle.detectAndParse(option(options, "report-interval", "5s")));
+    }
+
+    void run(int rps, Duration duration, Duration reportInterval) throws InterruptedException {
+        System.out.printf("Sending %d requests/s to %s for %s, mix %s%n", rps, assetsUri, duration, mix);
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        long start = System.nanoTime();
+        reporter.scheduleAtFixedRate(() -> printProgress(start), reportInterval.toNanos(), reportInterval.toNanos(), TimeUnit.NANOSECONDS);
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+        long requests = duration.toNanos() / intervalNanos;
+        for (long i = 0; i < requests; i++) {
+            long intendedStart = start + i * intervalNanos;
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(pickOperation(), intendedStart);
+        }
+
+        if (!inFlight.tryAcquire(maxInFlight, timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            System.out.println("Some requests were still in flight at the end of the run.");
+        }
+        reporter.shutdownNow();
+        printSummary(rps, System.nanoTime() - start);
+    }
+
+    private void send(Operation operation, long intendedStart) {
+        OperationStats operationStats = stats.get(operation);
+        if (operation == Operation.DELETE && createdIds.isEmpty()) {
+            operation = Operation.CREATE;
+            operationStats = stats.get(Operation.CREATE);
+        }
+        if (!inFlight.tryAcquire()) {
+            operationStats.count("DROPPED");
+            return;
+        }
+        Operation sent = operation;
+        OperationStats sentStats = operationStats;
+        httpClient.sendAsync(request(operation), HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, ex) -> {
+                    try {
+                        sentStats.record(System.nanoTime() - intendedStart,
+                                ex == null ? String.valueOf(response.statusCode()) : rootCause(ex).getClass().getSimpleName());
+                        if (sent == Operation.CREATE && ex == null && response.statusCode() == 201) {
+                            rememberCreated(response.body());
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+    }
+
+    private HttpRequest request(Operation operation) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(timeout).header("Content-Type", "application/json");
+        return switch (operation) {
+            case GET -> builder.uri(URI.create(assetsUri + "/" + randomAssetId())).GET().build();
+            case MULTIGET -> builder.uri(URI.create(assetsUri + "?ids=" + IntStream.range(0, multiGetSize)
+                    .mapToObj(i -> randomAssetId()).collect(Collectors.joining(",")))).GET().build();
+            case CREATE -> builder.uri(assetsUri).POST(HttpRequest.BodyPublishers.ofString(assetBody)).build();
+            case UPDATE -> builder.uri(URI.create(assetsUri + "/" + randomAssetId()))
+                    .PUT(HttpRequest.BodyPublishers.ofString(assetBody)).build();
+            case DELETE -> builder.uri(assetsUri)
+                    .method("DELETE", HttpRequest.BodyPublishers.ofString("[\"" + nextCreatedId() + "\"]")).build();
+            case ATTRIBUTE -> builder.uri(URI.create(assetsUri + "/" + randomAssetId() + "/attributes/notes"))
+                    .PUT(HttpRequest.BodyPublishers.ofString("\"load-" + System.nanoTime() + "\"")).build();
+        };
+    }
+
+    private Operation pickOperation() {
+        int pick = ThreadLocalRandom.current().nextInt(mixTotal);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty mix");
+    }
+
+    private String randomAssetId() {
+        return OpenRemoteStubServer.seededAssetId(ThreadLocalRandom.current().nextInt(assetIdCount));
+    }
+
+    private String nextCreatedId() {
+        String id = createdIds.poll();
+        return id == null ? "unknown" : id;
+    }
+
+    private void rememberCreated(String body) {
+        try {
+            JsonNode id = objectMapper.readTree(body).path("id");
+            if (id.isTextual()) {
+                createdIds.add(id.asText());
+            }
+        } catch (Exception ex) {
+            // not an asset, nothing to delete later
+        }
+    }
+
+    private synchronized void printProgress(long start) {
+        Histogram interval = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        stats.values().forEach(operationStats -> interval.add(operationStats.drainInterval()));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "[%6.1fs] completed %7d  p50 %8.1f ms  p99 %8.1f ms  max %8.1f ms  in flight %d%n",
+                seconds, interval.getTotalCount(), millis(interval, 50), millis(interval, 99),
+                interval.getMaxValue() / 1000.0, maxInFlight - inFlight.availablePermits());
+    }
+
+    private synchronized void printSummary(int rps, long elapsedNanos) {
+        stats.values().forEach(OperationStats::drainInterval);
+        double seconds = elapsedNanos / 1e9;
+        Histogram all = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        Map<String, Long> allStatuses = new TreeMap<>();
+
+        System.out.printf(Locale.ROOT, "%nTarget %d req/s, ran %.1f s%n", rps, seconds);
+        System.out.printf("%-9s %8s %9s %9s %9s %9s %9s %9s  %s%n",
+                "operation", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "statuses");
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats operationStats = entry.getValue();
+            Map<String, Long> statuses = operationStats.statuses();
+            if (statuses.isEmpty()) {
+                continue;
+            }
+            all.add(operationStats.total);
+            statuses.forEach((status, count) -> allStatuses.merge(status, count, Long::sum));
+            printRow(entry.getKey().name().toLowerCase(Locale.ROOT), operationStats.total, statuses, seconds);
+        }
+        printRow("all", all, allStatuses, seconds);
+    }
+
+    private static void printRow(String name, Histogram histogram, Map<String, Long> statuses, double seconds) {
+        System.out.printf(Locale.ROOT, "%-9s %8d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f  %s%n",
+                name, histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / 1000.0, statuses);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static Throwable rootCause(Throwable ex) {
+        Throwable cause = ex;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private String assetBody() {
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("name", "Load test asset")
+                .put("realm", "master")
+                .put("type", "ThingAsset")
+                .put("accessPublicRead", false);
+        body.putArray("path").add("Load test");
+        ObjectNode attributes = body.putObject("attributes");
+        attributes.putObject("temperature").put("name", "temperature").put("value", 21.5).put("type", "number");
+        attributes.putObject("notes").put("name", "notes").put("value", "created by LoadDriver").put("type", "text");
+        return body.toString();
+    }
+
+    static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] weight = part.trim().split(":");
+            mix.put(Operation.valueOf(weight[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(weight[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Mix weights must add up to more than 0: " + spec);
+        }
+        return mix;
+    }
+
+    private static String option(SimpleCommandLinePropertySource options, String name, String defaultValue) {
+        String value = options.getProperty(name);
+        return value == null ? defaultValue : value;
+    }
+
+    enum Operation {
+        GET, MULTIGET, CREATE, UPDATE, DELETE, ATTRIBUTE
+    }
+
+    /**
+     * Latencies (in microseconds) and status counts of one operation.
+     */
+    private static final class OperationStats {
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+        private final Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+        private Histogram interval;
+
+        void record(long latencyNanos, String status) {
+            recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+            count(status);
+        }
+
+        void count(String status) {
+            statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        }
+
+        /**
+         * Returns the latencies recorded since the last call and adds them to the total.
+         */
+        Histogram drainInterval() {
+            interval = recorder.getIntervalHistogram(interval);
+            total.add(interval);
+            return interval;
+        }
+
+        Map<String, Long> statuses() {
+            Map<String, Long> snapshot = new TreeMap<>();
+            statuses.forEach((status, count) -> snapshot.put(status, count.sum()));
+            return snapshot;
+        }
+    }
+}
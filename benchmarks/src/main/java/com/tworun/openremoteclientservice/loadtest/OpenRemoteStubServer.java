@@ -0,0 +1,345 @@
+package com.tworun.openremoteclientservice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the OpenRemote token and asset endpoints, for load testing the service without a real
+ * OpenRemote/Keycloak instance.
+ * <p>
+ * Implements {@code POST <token path>} and the {@code /asset} endpoints used by {@code AssetClient}, including the
+ * attribute write endpoints, backed by an in-memory store pre-seeded with assets whose ids are given by
+ * {@link #seededAssetId(int)}. Asset endpoints can be slowed down with a {@link LatencyDistribution} and made to fail with HTTP 500 or 429 at configurable rates.
+ * </p>
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.tworun.openremoteclientservice.loadtest.OpenRemoteStubServer \
+ *     --port=8090 --latency=lognormal:20ms:200ms --error-rate=0.01 --throttle-rate=0.02
+ * </pre>
+ */
+public final class OpenRemoteStubServer {
+
+    static final String TOKEN_PATH = "/auth/realms/master/protocol/openid-connect/token";
+    static final String API_PATH = "/api/master";
+
+    private static final String USAGE = """
+            Options:
+              --port=8090                    listen port
+              --seed-assets=1000             number of assets created at startup
+              --latency=constant:0ms         asset endpoint latency: constant:D | uniform:MIN:MAX | lognormal:MEDIAN:P99
+              --error-rate=0                 share of asset calls answered with 500
+              --throttle-rate=0              share of asset calls answered with 429
+              --token-latency=constant:0ms   token endpoint latency
+              --token-error-rate=0           share of token calls answered with 500
+              --token-expires-in=300         token lifetime in seconds
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, ObjectNode> assets = new ConcurrentHashMap<>();
+    private final AtomicLong tokenCounter = new AtomicLong();
+    private final LatencyDistribution latency;
+    private final LatencyDistribution tokenLatency;
+    private final double errorRate;
+    private final double throttleRate;
+    private final double tokenErrorRate;
+    private final int tokenExpiresIn;
+
+    OpenRemoteStubServer(LatencyDistribution latency, double errorRate, double throttleRate,
+                         LatencyDistribution tokenLatency, double tokenErrorRate, int tokenExpiresIn) {
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.throttleRate = throttleRate;
+        this.tokenLatency = tokenLatency;
+        this.tokenErrorRate = tokenErrorRate;
+        this.tokenExpiresIn = tokenExpiresIn;
+    }
+
+    public static void main(String[] args) throws IOException {
+        SimpleCommandLinePropertySource options = new SimpleCommandLinePropertySource(args);
+        if (options.containsProperty("help")) {
+            System.out.print(USAGE);
+            return;
+        }
+        int port = Integer.parseInt(option(options, "port", "8090"));
+        OpenRemoteStubServer stub = new OpenRemoteStubServer(
+                LatencyDistribution.parse(option(options, "latency", "constant:0ms")),
+                Double.parseDouble(option(options, "error-rate", "0")),
+                Double.parseDouble(option(options, "throttle-rate", "0")),
+                LatencyDistribution.parse(option(options, "token-latency", "constant:0ms")),
+                Double.parseDouble(option(options, "token-error-rate", "0")),
+                Integer.parseInt(option(options, "token-expires-in", "300")));
+        stub.seed(Integer.parseInt(option(options, "seed-assets", "1000")));
+
+        HttpServer server = stub.start(port);
+        System.out.printf("OpenRemote stub listening on port %d with %d assets%n", server.getAddress().getPort(), stub.assets.size());
+        System.out.printf("  OPENREMOTE_AUTH_URL=http://localhost:%d%s%n", port, TOKEN_PATH);
+        System.out.printf("  OPENREMOTE_API_BASEURL=http://localhost:%d%s%n", port, API_PATH);
+    }
+
+    /**
+     * Id of the i-th seeded asset, 22 alphanumeric characters like a real OpenRemote id.
+     */
+    static String seededAssetId(int index) {
+        return String.format("stubAsset%013d", index);
+    }
+
+    HttpServer start(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        // one thread per exchange, so injected latency never queues other requests
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> new Thread(runnable, "openremote-stub"));
+        server.setExecutor(executor);
+        server.createContext(TOKEN_PATH, this::handleToken);
+        server.createContext(API_PATH + "/asset", this::handleAsset);
+        server.start();
+        return server;
+    }
+
+    void seed(int count) {
+        for (int i = 0; i < count; i++) {
+            String id = seededAssetId(i);
+            ObjectNode asset = objectMapper.createObjectNode()
+                    .put("name", "Stub asset " + i)
+                    .put("realm", "master")
+                    .put("type", "ThingAsset")
+                    .put("accessPublicRead", false);
+            asset.putObject("attributes").putObject("notes").put("name", "notes").put("value", "seeded");
+            store(id, asset, 0L, Instant.now().toString());
+        }
+    }
+
+    private void handleToken(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            pause(tokenLatency.sample());
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                send(exchange, 405, null);
+            } else if (chance(tokenErrorRate)) {
+                send(exchange, 500, error("Injected token failure"));
+            } else {
+                ObjectNode token = objectMapper.createObjectNode()
+                        .put("access_token", "stub-token-" + tokenCounter.incrementAndGet())
+                        .put("expires_in", tokenExpiresIn)
+                        .put("refresh_expires_in", 0)
+                        .put("token_type", "Bearer")
+                        .put("scope", "profile email");
+                send(exchange, 200, token);
+            }
+        }
+    }
+
+    private void handleAsset(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            pause(latency.sample());
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            if (authorization == null || !authorization.startsWith("Bearer ")) {
+                send(exchange, 401, error("Missing bearer token"));
+                return;
+            }
+            if (chance(throttleRate)) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                send(exchange, 429, error("Injected throttling"));
+                return;
+            }
+            if (chance(errorRate)) {
+                send(exchange, 500, error("Injected failure"));
+                return;
+            }
+
+            String subPath = exchange.getRequestURI().getPath().substring((API_PATH + "/asset").length());
+            String method = exchange.getRequestMethod();
+            if (subPath.isEmpty() || "/".equals(subPath)) {
+                switch (method) {
+                    case "POST" -> create(exchange);
+                    case "DELETE" -> delete(exchange);
+                    default -> send(exchange, 405, null);
+                }
+            } else if ("/query".equals(subPath) && "POST".equals(method)) {
+                query(exchange);
+            } else if ("/attributes".equals(subPath) && "PUT".equals(method)) {
+                writeAttributes(exchange);
+            } else if (subPath.contains("/attribute/") && "PUT".equals(method)) {
+                String[] ref = subPath.substring(1).split("/attribute/", 2);
+                send(exchange, 200, writeAttribute(ref[0], ref[1], objectMapper.readTree(exchange.getRequestBody())));
+            } else {
+                String assetId = subPath.substring(1);
+                switch (method) {
+                    case "GET" -> get(exchange, assetId);
+                    case "PUT" -> update(exchange, assetId);
+                    default -> send(exchange, 405, null);
+                }
+            }
+        }
+    }
+
+    private void create(HttpExchange exchange) throws IOException {
+        ObjectNode body = readObject(exchange.getRequestBody());
+        send(exchange, 200, store(randomId(), body, 0L, Instant.now().toString()));
+    }
+
+    private void get(HttpExchange exchange, String assetId) throws IOException {
+        ObjectNode asset = assets.get(assetId);
+        send(exchange, asset == null ? 404 : 200, asset);
+    }
+
+    private void update(HttpExchange exchange, String assetId) throws IOException {
+        ObjectNode existing = assets.get(assetId);
+        if (existing == null) {
+            send(exchange, 404, null);
+            return;
+        }
+        ObjectNode body = readObject(exchange.getRequestBody());
+        send(exchange, 200, store(assetId, body, existing.path("version").asLong() + 1, existing.path("createdOn").asText()));
+    }
+
+    private void query(HttpExchange exchange) throws IOException {
+        JsonNode ids = readObject(exchange.getRequestBody()).path("ids");
+        ArrayNode result = objectMapper.createArrayNode();
+        ids.forEach(id -> {
+            ObjectNode asset = assets.get(id.asText());
+            if (asset != null) {
+                result.add(asset);
+            }
+        });
+        send(exchange, 200, result);
+    }
+
+    private void writeAttributes(HttpExchange exchange) throws IOException {
+        ArrayNode results = objectMapper.createArrayNode();
+        for (JsonNode event : objectMapper.readTree(exchange.getRequestBody())) {
+            JsonNode ref = event.path("ref");
+            results.add(writeAttribute(ref.path("id").asText(), ref.path("name").asText(), event.path("value")));
+        }
+        send(exchange, 200, results);
+    }
+
+    /**
+     * Mirrors OpenRemote, which answers 200 with a failure reason when the asset or attribute does not exist.
+     */
+    private ObjectNode writeAttribute(String assetId, String name, JsonNode value) {
+        ObjectNode result = objectMapper.createObjectNode();
+        result.putObject("ref").put("id", assetId).put("name", name);
+        ObjectNode asset = assets.get(assetId);
+        if (asset == null) {
+            result.put("failure", "ASSET_NOT_FOUND");
+        } else if (!asset.path("attributes").has(name)) {
+            result.put("failure", "ATTRIBUTE_NOT_FOUND");
+        } else {
+            ObjectNode updated = asset.deepCopy();
+            ObjectNode attribute = (ObjectNode) updated.path("attributes").path(name);
+            attribute.set("value", value);
+            attribute.put("timestamp", System.currentTimeMillis());
+            assets.put(assetId, updated);
+            result.putNull("failure");
+        }
+        return result;
+    }
+
+    /**
+     * Mirrors OpenRemote, which answers 400 when any of the given ids does not exist.
+     */
+    private void delete(HttpExchange exchange) throws IOException {
+        List<String> ids = queryParams(exchange.getRequestURI().getRawQuery(), "assetId");
+        if (ids.isEmpty() || !ids.stream().allMatch(assets::containsKey)) {
+            send(exchange, 400, error("Some asset(s) not found"));
+            return;
+        }
+        ids.forEach(assets::remove);
+        send(exchange, 204, null);
+    }
+
+    private ObjectNode store(String assetId, ObjectNode body, long version, String createdOn) {
+        ObjectNode asset = body.deepCopy();
+        asset.put("id", assetId);
+        asset.put("version", version);
+        asset.put("createdOn", createdOn);
+        asset.putArray("path").add(assetId);
+        assets.put(assetId, asset);
+        return asset;
+    }
+
+    private ObjectNode readObject(InputStream body) throws IOException {
+        JsonNode node = objectMapper.readTree(body);
+        return node instanceof ObjectNode object ? object : objectMapper.createObjectNode();
+    }
+
+    private ObjectNode error(String message) {
+        return objectMapper.createObjectNode().put("error", message);
+    }
+
+    private void send(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        if (body == null || status == 204) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static List<String> queryParams(String rawQuery, String name) {
+        List<String> values = new ArrayList<>();
+        if (rawQuery == null) {
+            return values;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0 && name.equals(pair.substring(0, separator))) {
+                values.add(URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return values;
+    }
+
+    private static String randomId() {
+        String alphabet = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+        StringBuilder id = new StringBuilder(22);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 22; i++) {
+            id.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return id.toString();
+    }
+
+    private static boolean chance(double rate) {
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    private static void pause(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration.toMillis(), duration.toNanosPart() % 1_000_000);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String option(SimpleCommandLinePropertySource options, String name, String defaultValue) {
+        String value = options.getProperty(name);
+        return value == null ? defaultValue : value;
+    }
+}
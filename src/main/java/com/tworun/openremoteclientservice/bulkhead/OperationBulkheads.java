@@ -0,0 +1,175 @@
+package com.tworun.openremoteclientservice.bulkhead;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Isolates the asset operations of {@code AssetService} from each other with bulkheads.
+ * <p>
+ * With {@code openremote.bulkhead.enabled}, every create, read, update and delete call holds a slot of the
+ * bulkhead of its operation, so a burst of slow deletes can use up the delete slots but not the threads and
+ * connections left for reads. Bulkheads listed in {@code openremote.bulkhead.thread-pool} run their calls on
+ * their own pool, sized and queued under {@code resilience4j.thread-pool-bulkhead.instances}; the caller waits for
+ * the result. The others are semaphores limiting concurrent calls, configured under
+ * {@code resilience4j.bulkhead.instances}, where {@code maxWaitDuration} bounds the time a call waits for a slot.
+ * </p>
+ * <p>
+ * A call finding its bulkhead full fails with {@link BulkheadFullException} (503). Rejections are counted in
+ * {@code openremote.bulkhead.rejected}, tagged by {@code name} and {@code type}; Resilience4j publishes the free
+ * slots and queue depth under {@code resilience4j.bulkhead.*}.
+ * </p>
+ */
+@Slf4j
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class OperationBulkheads {
+
+    /**
+     * Bulkhead isolating each {@code AssetService} method.
+     */
+    static final Map<String, String> BULKHEAD_BY_SERVICE_METHOD = Map.of(
+            "createAsset", "assetCreateBulkhead",
+            "createAssets", "assetCreateBulkhead",
+            "getAsset", "assetReadBulkhead",
+            "readAsset", "assetReadBulkhead",
+            "getAssets", "assetReadBulkhead",
+            "updateAsset", "assetUpdateBulkhead",
+            "deleteAssets", "assetDeleteBulkhead",
+            "deleteSubtree", "assetDeleteBulkhead");
+
+    private final BulkheadRegistry bulkheadRegistry;
+    private final ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${openremote.bulkhead.enabled:false}")
+    private boolean enabled;
+
+    @Value("${openremote.bulkhead.thread-pool:}")
+    private List<String> threadPoolBulkheads = List.of();
+
+    private final Map<String, OperationBulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        BULKHEAD_BY_SERVICE_METHOD.values().stream().distinct().forEach(name -> bulkheads.put(name,
+                threadPoolBulkheads.contains(name)
+                        ? new PoolBulkhead(threadPoolBulkheadRegistry.bulkhead(name))
+                        : new SemaphoreBulkhead(bulkheadRegistry.bulkhead(name))));
+        log.info("Bulkheads enabled for asset operations, thread pools for {}", threadPoolBulkheads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bulkheads.values().forEach(OperationBulkhead::close);
+    }
+
+    /**
+     * Runs an asset operation within the bulkhead of its operation.
+     */
+    @Around("execution(public * com.tworun.openremoteclientservice.service.AssetService.*(..))")
+    public Object isolate(ProceedingJoinPoint joinPoint) throws Throwable {
+        String name = BULKHEAD_BY_SERVICE_METHOD.get(joinPoint.getSignature().getName());
+        OperationBulkhead bulkhead = Objects.isNull(name) ? null : bulkheads.get(name);
+        return Objects.isNull(bulkhead) ? joinPoint.proceed() : bulkhead.execute(joinPoint);
+    }
+
+    private Counter rejectedCounter(String name, String type) {
+        return Counter.builder("openremote.bulkhead.rejected")
+                .description("Asset operations rejected because their bulkhead was full")
+                .tag("name", name)
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private interface OperationBulkhead {
+
+        Object execute(ProceedingJoinPoint joinPoint) throws Throwable;
+
+        default void close() {
+        }
+    }
+
+    /**
+     * Limits concurrent calls on the calling threads.
+     */
+    private final class SemaphoreBulkhead implements OperationBulkhead {
+        private final Bulkhead bulkhead;
+
+        private SemaphoreBulkhead(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+            Counter rejected = rejectedCounter(bulkhead.getName(), "semaphore");
+            bulkhead.getEventPublisher().onCallRejected(event -> rejected.increment());
+        }
+
+        @Override
+        public Object execute(ProceedingJoinPoint joinPoint) throws Throwable {
+            bulkhead.acquirePermission();
+            try {
+                return joinPoint.proceed();
+            } finally {
+                bulkhead.onComplete();
+            }
+        }
+    }
+
+    /**
+     * Runs calls on a dedicated pool while the caller waits for the result.
+     */
+    private final class PoolBulkhead implements OperationBulkhead {
+        private final ThreadPoolBulkhead bulkhead;
+
+        private PoolBulkhead(ThreadPoolBulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+            Counter rejected = rejectedCounter(bulkhead.getName(), "thread-pool");
+            bulkhead.getEventPublisher().onCallRejected(event -> rejected.increment());
+        }
+
+        @Override
+        public Object execute(ProceedingJoinPoint joinPoint) throws Throwable {
+            try {
+                return bulkhead.executeSupplier(() -> {
+                    try {
+                        return joinPoint.proceed();
+                    } catch (Throwable ex) {
+                        throw new CompletionException(ex);
+                    }
+                }).toCompletableFuture().join();
+            } catch (CompletionException ex) {
+                throw Objects.requireNonNullElse(ex.getCause(), ex);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                bulkhead.close();
+            } catch (Exception ex) {
+                log.warn("Failed to close bulkhead {}: {}", bulkhead.getName(), ex.getMessage());
+            }
+        }
+    }
+}
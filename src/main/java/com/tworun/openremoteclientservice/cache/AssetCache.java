@@ -0,0 +1,342 @@
+package com.tworun.openremoteclientservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.tworun.openremoteclientservice.dto.AssetResponse;
+import com.tworun.openremoteclientservice.dto.AttributeObject;
+import com.tworun.openremoteclientservice.dto.AttributeRef;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Read-through cache of {@link AssetResponse} objects keyed by asset id.
+ * <p>
+ * Writes are version-aware: a response never replaces a cached entry with a higher {@code version}, or of the
+ * same version with newer attribute values, so a slow read that completes after an update cannot roll the cache
+ * back to an older asset.
+ * </p>
+ * <p>
+ * Changes pushed by OpenRemote ({@link #applyChange}, {@link #applyDelete}, {@link #applyAttributeValue}) are
+ * remembered for {@link #PUSHED_CHANGE_WINDOW}, also for assets that are not cached. A read that started before
+ * such a change and completes after it is not cached, so it cannot be served for a long event-driven TTL.
+ * </p>
+ * <p>
+ * Every cached asset is also kept as {@link LastKnownAsset} after it expires or is invalidated, to be served
+ * while OpenRemote is unavailable. Only {@link #remove} drops it, for assets that no longer exist.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AssetCache {
+
+    /**
+     * How long a pushed change is remembered; longer than any upstream read, including its retries.
+     */
+    static final Duration PUSHED_CHANGE_WINDOW = Duration.ofMinutes(1);
+
+    private final Cache<String, AssetResponse> assetResponseCache;
+    private final Cache<String, LastKnownAsset> lastKnownAssetCache;
+
+    private final Cache<String, PushedChange> pushedChanges = Caffeine.newBuilder()
+            .expireAfterWrite(PUSHED_CHANGE_WINDOW)
+            .maximumSize(100_000)
+            .build();
+
+    /**
+     * Returns the cached asset for the given id.
+     *
+     * @param assetId Asset's unique identifier.
+     * @return the cached AssetResponse, or {@code null} if not cached.
+     */
+    public AssetResponse get(String assetId) {
+        return assetResponseCache.getIfPresent(assetId);
+    }
+
+    /**
+     * Caches the given asset unless a newer version is already cached, or a change pushed since makes it outdated.
+     *
+     * @param asset Asset returned by the OpenRemote API.
+     * @return the AssetResponse that is cached after the call, or the given asset if it was not cached.
+     */
+    public AssetResponse put(AssetResponse asset) {
+        if (Objects.isNull(asset) || Objects.isNull(asset.getId())) {
+            return asset;
+        }
+        boolean[] outdated = new boolean[1];
+        AssetResponse cached = assetResponseCache.asMap().compute(asset.getId(), (id, current) -> {
+            PushedChange pushed = pushedChanges.getIfPresent(id);
+            if (Objects.nonNull(pushed) && pushed.supersedes(asset)) {
+                log.debug("Not caching asset {}, it was read before a pushed change", id);
+                outdated[0] = true;
+                return current;
+            }
+            return Objects.nonNull(current) && isOlder(asset, current) ? current : asset;
+        });
+        if (outdated[0]) {
+            return Objects.requireNonNullElse(cached, asset);
+        }
+        if (cached == asset) {
+            putLastKnown(new LastKnownAsset(asset, Instant.now()));
+        }
+        return cached;
+    }
+
+    /**
+     * Restores an asset kept by an earlier run as its last known copy, unless a newer version is known.
+     *
+     * @param lastKnown Asset and the time it was read.
+     * @param cache Whether to cache it as well, to be served as current until it expires or is replaced.
+     */
+    public void restore(LastKnownAsset lastKnown, boolean cache) {
+        AssetResponse asset = lastKnown.asset();
+        if (Objects.isNull(asset) || Objects.isNull(asset.getId())) {
+            return;
+        }
+        putLastKnown(lastKnown);
+        if (cache) {
+            assetResponseCache.asMap().merge(asset.getId(), asset,
+                    (current, incoming) -> isOlder(incoming, current) ? current : incoming);
+        }
+    }
+
+    /**
+     * Returns the latest copy of the given asset, even if it expired or was invalidated.
+     *
+     * @param assetId Asset's unique identifier.
+     * @return the last known asset, or {@code null} if it was never cached or was removed.
+     */
+    public LastKnownAsset getLastKnown(String assetId) {
+        return lastKnownAssetCache.getIfPresent(assetId);
+    }
+
+    /**
+     * Applies an asset created or updated in OpenRemote to its cached and last known copies, if there are any.
+     *
+     * @param asset The asset as pushed by OpenRemote.
+     */
+    public void applyChange(AssetResponse asset) {
+        if (Objects.isNull(asset) || Objects.isNull(asset.getId())) {
+            return;
+        }
+        assetResponseCache.asMap().compute(asset.getId(), (id, cached) -> {
+            pushedChanges.asMap().merge(id, PushedChange.version(asset.getVersion()), PushedChange::merge);
+            return Objects.isNull(cached) || isOlder(asset, cached) ? cached : asset;
+        });
+        lastKnownAssetCache.asMap().computeIfPresent(asset.getId(), (id, lastKnown) ->
+                isOlder(asset, lastKnown.asset()) ? lastKnown : new LastKnownAsset(asset, Instant.now()));
+    }
+
+    /**
+     * Removes an asset deleted in OpenRemote, and keeps reads still in flight from caching it again.
+     *
+     * @param assetId Asset's unique identifier.
+     */
+    public void applyDelete(String assetId) {
+        assetResponseCache.asMap().compute(assetId, (id, cached) -> {
+            pushedChanges.asMap().merge(id, PushedChange.DELETED, PushedChange::merge);
+            return null;
+        });
+        lastKnownAssetCache.invalidate(assetId);
+    }
+
+    /**
+     * Applies a new attribute value to the cached and last known asset, if there are any. The asset is replaced by
+     * a copy, so readers holding the previous one are not affected. Values older than the cached one are ignored;
+     * a value for an attribute the cached asset does not have evicts the asset, since its attributes changed.
+     *
+     * @param ref Asset and attribute the value is for.
+     * @param value New value, as read from JSON.
+     * @param timestamp Time of the value (epoch millis), or {@code null} if unknown.
+     */
+    public void applyAttributeValue(AttributeRef ref, Object value, Long timestamp) {
+        assetResponseCache.asMap().compute(ref.getId(), (id, cached) -> {
+            if (Objects.nonNull(timestamp)) {
+                pushedChanges.asMap().merge(id, PushedChange.attribute(ref.getName(), timestamp),
+                        PushedChange::merge);
+            }
+            return Objects.isNull(cached) ? null : withAttributeValue(cached, ref.getName(), value, timestamp);
+        });
+        lastKnownAssetCache.asMap().computeIfPresent(ref.getId(), (id, lastKnown) -> {
+            AssetResponse updated = withAttributeValue(lastKnown.asset(), ref.getName(), value, timestamp);
+            return updated == lastKnown.asset() ? lastKnown
+                    : Objects.isNull(updated) ? null : new LastKnownAsset(updated, Instant.now());
+        });
+    }
+
+    /**
+     * Removes all assets from the cache, keeping their last known copies.
+     */
+    public void invalidateAll() {
+        assetResponseCache.invalidateAll();
+    }
+
+    /**
+     * Changes how long assets stay cached after they were written, for entries already cached as well.
+     *
+     * @param ttl New time to live.
+     */
+    public void setTtl(Duration ttl) {
+        assetResponseCache.policy().expireAfterWrite().ifPresent(expiration -> expiration.setExpiresAfter(ttl));
+    }
+
+    /**
+     * Returns the last known copies of all assets, e.g. to persist them.
+     */
+    public List<LastKnownAsset> lastKnownAssets() {
+        return List.copyOf(lastKnownAssetCache.asMap().values());
+    }
+
+    /**
+     * Removes the given asset from the cache.
+     *
+     * @param assetId Asset's unique identifier.
+     */
+    public void invalidate(String assetId) {
+        assetResponseCache.invalidate(assetId);
+    }
+
+    /**
+     * Removes the given assets from the cache.
+     *
+     * @param assetIds Asset ids to remove.
+     */
+    public void invalidateAll(Collection<String> assetIds) {
+        assetResponseCache.invalidateAll(assetIds);
+    }
+
+    /**
+     * Removes the given assets from the cache and drops their last known copies, for deleted assets.
+     *
+     * @param assetIds Asset ids to remove.
+     */
+    public void remove(Collection<String> assetIds) {
+        assetResponseCache.invalidateAll(assetIds);
+        lastKnownAssetCache.invalidateAll(assetIds);
+    }
+
+    /**
+     * Returns hit, miss and eviction statistics of the cache.
+     */
+    public CacheStats stats() {
+        return assetResponseCache.stats();
+    }
+
+    private void putLastKnown(LastKnownAsset lastKnown) {
+        lastKnownAssetCache.asMap().merge(lastKnown.asset().getId(), lastKnown,
+                (current, incoming) -> isOlder(incoming.asset(), current.asset()) ? current : incoming);
+    }
+
+    /**
+     * Returns the asset with the new attribute value, the asset itself if its value is newer, or {@code null} if it
+     * does not have the attribute.
+     */
+    private static AssetResponse withAttributeValue(AssetResponse asset, String name, Object value, Long timestamp) {
+        AttributeObject attribute = Objects.isNull(asset.getAttributes()) ? null : asset.getAttributes().get(name);
+        if (Objects.isNull(attribute)) {
+            return null;
+        }
+        if (Objects.nonNull(attribute.getTimestamp()) && Objects.nonNull(timestamp)
+                && timestamp < attribute.getTimestamp()) {
+            return asset;
+        }
+        return withAttribute(asset, new AttributeObject(name, value, attribute.getMeta(), attribute.getType(),
+                timestamp));
+    }
+
+    private static AssetResponse withAttribute(AssetResponse asset, AttributeObject attribute) {
+        AssetResponse copy = new AssetResponse();
+        copy.setId(asset.getId());
+        copy.setVersion(asset.getVersion());
+        copy.setCreatedOn(asset.getCreatedOn());
+        copy.setName(asset.getName());
+        copy.setAccessPublicRead(asset.getAccessPublicRead());
+        copy.setParentId(asset.getParentId());
+        copy.setRealm(asset.getRealm());
+        copy.setType(asset.getType());
+        copy.setPath(asset.getPath());
+        Map<String, AttributeObject> attributes = new LinkedHashMap<>(asset.getAttributes());
+        attributes.put(attribute.getName(), attribute);
+        copy.setAttributes(attributes);
+        return copy;
+    }
+
+    private static boolean isOlder(AssetResponse incoming, AssetResponse cached) {
+        if (Objects.isNull(incoming.getVersion()) || Objects.isNull(cached.getVersion())) {
+            return false;
+        }
+        boolean older = incoming.getVersion() < cached.getVersion()
+                || incoming.getVersion().equals(cached.getVersion()) && hasOlderAttribute(incoming, cached);
+        if (older) {
+            log.debug("Ignoring asset {} version {}, cached version is {} or has newer attribute values",
+                    incoming.getId(), incoming.getVersion(), cached.getVersion());
+        }
+        return older;
+    }
+
+    /**
+     * Attribute writes do not raise the asset version, so assets of the same version are compared by the
+     * timestamps of their attribute values.
+     */
+    private static boolean hasOlderAttribute(AssetResponse incoming, AssetResponse cached) {
+        if (Objects.isNull(incoming.getAttributes()) || Objects.isNull(cached.getAttributes())) {
+            return false;
+        }
+        return cached.getAttributes().values().stream().anyMatch(attribute ->
+                isOlder(incoming.getAttributes().get(attribute.getName()), attribute.getTimestamp()));
+    }
+
+    private static boolean isOlder(AttributeObject attribute, Long timestamp) {
+        return Objects.nonNull(attribute) && Objects.nonNull(attribute.getTimestamp()) && Objects.nonNull(timestamp)
+                && attribute.getTimestamp() < timestamp;
+    }
+
+    /**
+     * A change pushed by OpenRemote: the asset version it created, the attribute value timestamps it set, or its
+     * deletion. Assets read before it are outdated.
+     */
+    private record PushedChange(Long version, Map<String, Long> attributeTimestamps, boolean deleted) {
+
+        private static final PushedChange DELETED = new PushedChange(null, Map.of(), true);
+
+        private static PushedChange version(Long version) {
+            return new PushedChange(version, Map.of(), false);
+        }
+
+        private static PushedChange attribute(String name, long timestamp) {
+            return new PushedChange(null, Map.of(name, timestamp), false);
+        }
+
+        private static PushedChange merge(PushedChange first, PushedChange second) {
+            Long version = Objects.isNull(first.version) ? second.version
+                    : Objects.isNull(second.version) ? first.version : Math.max(first.version, second.version);
+            Map<String, Long> attributeTimestamps = new HashMap<>(first.attributeTimestamps);
+            second.attributeTimestamps.forEach((name, timestamp) -> attributeTimestamps.merge(name, timestamp, Math::max));
+            // A later create or update of the same id supersedes its deletion
+            boolean deleted = second.deleted || first.deleted && Objects.isNull(second.version);
+            return new PushedChange(version, attributeTimestamps, deleted);
+        }
+
+        private boolean supersedes(AssetResponse asset) {
+            if (deleted) {
+                return true;
+            }
+            if (Objects.nonNull(version) && Objects.nonNull(asset.getVersion()) && asset.getVersion() < version) {
+                return true;
+            }
+            return Objects.nonNull(asset.getAttributes()) && attributeTimestamps.entrySet().stream().anyMatch(
+                    pushed -> isOlder(asset.getAttributes().get(pushed.getKey()), pushed.getValue()));
+        }
+    }
+}
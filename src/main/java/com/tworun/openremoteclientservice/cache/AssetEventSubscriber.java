@@ -0,0 +1,336 @@
+package com.tworun.openremoteclientservice.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.tworun.openremoteclientservice.dto.AssetResponse;
+import com.tworun.openremoteclientservice.dto.AttributeRef;
+import com.tworun.openremoteclientservice.service.AuthService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the {@link AssetCache} up to date with asset and attribute events from the OpenRemote websocket API.
+ * <p>
+ * With {@code openremote.events.enabled}, a websocket to {@code openremote.events.url} subscribes to asset and
+ * attribute events. Updated assets replace their cached and last known copies, deleted assets are removed, and
+ * attribute values are applied to both. Assets that are not cached are not added, but their changes keep reads
+ * that were already in flight from caching an outdated copy (see {@link AssetCache}).
+ * </p>
+ * <p>
+ * While subscribed, cached assets live for {@code openremote.events.cache-ttl} instead of
+ * {@code openremote.cache.assets.ttl}, since changes are pushed. When the websocket closes, fails, or stays silent
+ * for two {@code ping-interval}s, the cache falls back to its normal TTL and the subscriber reconnects with
+ * exponential backoff. Events missed in between are not replayed; the cache is cleared once subscribed again.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "openremote.events.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class AssetEventSubscriber implements MeterBinder {
+
+    private static final String SUBSCRIBE = "SUBSCRIBE:";
+    private static final String SUBSCRIBED = "SUBSCRIBED:";
+    private static final String TRIGGERED = "TRIGGERED:";
+    private static final String ASSET_EVENTS = "asset";
+    private static final String ATTRIBUTE_EVENTS = "attribute";
+    private static final String SUBSCRIPTION_PREFIX = "asset-cache-";
+
+    private final AssetCache assetCache;
+    private final AuthService authService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${openremote.events.url:}")
+    private String url = "";
+
+    @Value("${openremote.events.cache-ttl:10m}")
+    private Duration subscribedTtl = Duration.ofMinutes(10);
+
+    @Value("${openremote.cache.assets.ttl:30s}")
+    private Duration ttl = Duration.ofSeconds(30);
+
+    @Value("${openremote.events.ping-interval:30s}")
+    private Duration pingInterval = Duration.ofSeconds(30);
+
+    @Value("${openremote.events.reconnect-initial-backoff:1s}")
+    private Duration reconnectInitialBackoff = Duration.ofSeconds(1);
+
+    @Value("${openremote.events.reconnect-max-backoff:30s}")
+    private Duration reconnectMaxBackoff = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final Set<String> confirmedSubscriptions = ConcurrentHashMap.newKeySet();
+    private final LongAdder appliedEvents = new LongAdder();
+    private final LongAdder subscriptions = new LongAdder();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "asset-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Connection connection;
+    private volatile boolean subscribed;
+    private volatile boolean running;
+    private volatile Duration reconnectBackoff;
+
+    /**
+     * Connects to the event stream and starts checking that it is alive.
+     */
+    @PostConstruct
+    public void start() {
+        if (url.isBlank()) {
+            log.warn("Asset events enabled but openremote.events.url is not set, not subscribing");
+            return;
+        }
+        running = true;
+        reconnectBackoff = reconnectInitialBackoff;
+        scheduler.execute(this::connect);
+        scheduler.scheduleWithFixedDelay(this::checkAlive, pingInterval.toNanos(), pingInterval.toNanos(),
+                TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Closes the event stream.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        scheduler.shutdownNow();
+        Connection current = connection;
+        if (Objects.nonNull(current)) {
+            current.webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "shutdown");
+        }
+    }
+
+    /**
+     * Returns whether events are currently received for all subscriptions.
+     */
+    public boolean isSubscribed() {
+        return subscribed;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("openremote.events.applied", appliedEvents, LongAdder::doubleValue)
+                .description("Asset and attribute events applied to the asset cache")
+                .register(registry);
+        FunctionCounter.builder("openremote.events.subscriptions", subscriptions, LongAdder::doubleValue)
+                .description("Times the asset event stream was subscribed, including resubscriptions")
+                .register(registry);
+        Gauge.builder("openremote.events.subscribed", this, subscriber -> subscriber.subscribed ? 1 : 0)
+                .description("Whether the asset cache is kept up to date by events (1) or by TTL only (0)")
+                .register(registry);
+    }
+
+    /**
+     * Handles one websocket message of the OpenRemote event protocol.
+     *
+     * @param message Message text, e.g. {@code TRIGGERED:{"subscriptionId": ..., "events": [...]}}.
+     */
+    void handleMessage(String message) throws IOException {
+        if (message.startsWith(TRIGGERED)) {
+            for (JsonNode event : objectMapper.readTree(message.substring(TRIGGERED.length())).path("events")) {
+                applyEvent(event);
+            }
+        } else if (message.startsWith(SUBSCRIBED)) {
+            JsonNode subscription = objectMapper.readTree(message.substring(SUBSCRIBED.length()));
+            confirmedSubscriptions.add(subscription.path("subscriptionId").asText());
+            if (confirmedSubscriptions.size() == 2 && !subscribed) {
+                onSubscribed();
+            }
+        } else {
+            log.warn("Unexpected asset event message: {}", message);
+        }
+    }
+
+    private void applyEvent(JsonNode event) throws IOException {
+        switch (event.path("eventType").asText()) {
+            case ASSET_EVENTS -> {
+                JsonNode asset = event.path("asset");
+                String assetId = asset.path("id").asText(null);
+                if (Objects.isNull(assetId)) {
+                    return;
+                }
+                if ("DELETE".equals(event.path("cause").asText())) {
+                    assetCache.applyDelete(assetId);
+                } else {
+                    assetCache.applyChange(objectMapper.treeToValue(asset, AssetResponse.class));
+                }
+            }
+            case ATTRIBUTE_EVENTS -> {
+                AttributeRef ref = objectMapper.treeToValue(event.path("ref"), AttributeRef.class);
+                Object value = objectMapper.treeToValue(event.path("value"), Object.class);
+                Long timestamp = event.hasNonNull("timestamp") ? event.get("timestamp").asLong() : null;
+                assetCache.applyAttributeValue(ref, value, timestamp);
+            }
+            default -> {
+                return;
+            }
+        }
+        appliedEvents.increment();
+    }
+
+    private void connect() {
+        if (!running) {
+            return;
+        }
+        try {
+            String authHeader = "Bearer " + authService.getToken();
+            Connection next = new Connection();
+            httpClient.newWebSocketBuilder()
+                    .header(HttpHeaders.AUTHORIZATION, authHeader)
+                    .buildAsync(URI.create(url), next)
+                    .thenCompose(webSocket -> {
+                        next.webSocket = webSocket;
+                        connection = next;
+                        return webSocket.sendText(subscribe(ASSET_EVENTS), true);
+                    })
+                    .thenCompose(webSocket -> webSocket.sendText(subscribe(ATTRIBUTE_EVENTS), true))
+                    .whenComplete((webSocket, ex) -> {
+                        if (Objects.nonNull(ex)) {
+                            next.disconnected("connect failed: " + ex.getMessage());
+                        }
+                    });
+        } catch (RuntimeException ex) {
+            log.warn("Failed to connect to asset events: {}", ex.getMessage());
+            scheduleReconnect();
+        }
+    }
+
+    private String subscribe(String eventType) {
+        ObjectNode subscription = objectMapper.createObjectNode()
+                .put("eventType", eventType)
+                .put("subscriptionId", SUBSCRIPTION_PREFIX + eventType);
+        return SUBSCRIBE + subscription;
+    }
+
+    private void onSubscribed() {
+        assetCache.invalidateAll();
+        assetCache.setTtl(subscribedTtl);
+        subscribed = true;
+        subscriptions.increment();
+        reconnectBackoff = reconnectInitialBackoff;
+        log.info("Subscribed to asset events at {}, caching assets for {}", url, subscribedTtl);
+    }
+
+    private void onDisconnected(String reason) {
+        subscribed = false;
+        confirmedSubscriptions.clear();
+        assetCache.setTtl(ttl);
+        log.warn("Asset events disconnected ({}), caching assets for {} until resubscribed", reason, ttl);
+        scheduleReconnect();
+    }
+
+    private void scheduleReconnect() {
+        if (!running) {
+            return;
+        }
+        Duration delay = reconnectBackoff;
+        reconnectBackoff = reconnectBackoff.multipliedBy(2).compareTo(reconnectMaxBackoff) > 0
+                ? reconnectMaxBackoff : reconnectBackoff.multipliedBy(2);
+        try {
+            scheduler.schedule(this::connect, delay.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (RuntimeException ex) {
+            log.debug("Not reconnecting to asset events: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Pings the event stream, and drops it if nothing was received for two ping intervals.
+     */
+    private void checkAlive() {
+        Connection current = connection;
+        if (Objects.isNull(current) || current.closed.get()) {
+            return;
+        }
+        if (System.nanoTime() - current.lastReceivedNanos > 2 * pingInterval.toNanos()) {
+            current.webSocket.abort();
+            current.disconnected("no answer to pings");
+        } else {
+            current.webSocket.sendPing(ByteBuffer.allocate(0));
+        }
+    }
+
+    /**
+     * One websocket connection; reports its end exactly once.
+     */
+    private final class Connection implements WebSocket.Listener {
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final StringBuilder text = new StringBuilder();
+        private volatile WebSocket webSocket;
+        private volatile long lastReceivedNanos = System.nanoTime();
+
+        @Override
+        public void onOpen(WebSocket webSocket) {
+            webSocket.request(1);
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            lastReceivedNanos = System.nanoTime();
+            text.append(data);
+            if (last) {
+                try {
+                    handleMessage(text.toString());
+                } catch (IOException | RuntimeException ex) {
+                    log.warn("Failed to apply asset event message: {}", ex.getMessage());
+                }
+                text.setLength(0);
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onPong(WebSocket webSocket, ByteBuffer message) {
+            lastReceivedNanos = System.nanoTime();
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            disconnected("closed with " + statusCode + " " + reason);
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            disconnected(error.getMessage());
+        }
+
+        private void disconnected(String reason) {
+            if (closed.compareAndSet(false, true)) {
+                onDisconnected(reason);
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.tworun.openremoteclientservice.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tworun.openremoteclientservice.client.AssetClient;
+import com.tworun.openremoteclientservice.dto.AssetQuery;
+import com.tworun.openremoteclientservice.dto.AssetResponse;
+import com.tworun.openremoteclientservice.service.AuthService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+/**
+ * Persists the last known assets of the {@link AssetCache} across restarts, so a new instance does not start cold.
+ * <p>
+ * Every {@code openremote.cache.snapshot.interval}, and on shutdown, the last known assets are written to
+ * {@code openremote.cache.snapshot.path}: a header {@code int magic, int format, int count}, then per asset
+ * {@code long readAt, int length, int crc32, payload} with the asset as JSON. The file is written next to the
+ * snapshot and moved over it, so a crash never leaves a half written snapshot.
+ * </p>
+ * <p>
+ * On startup, before the application reports ready, the snapshot is memory-mapped and restored. Assets read less
+ * than {@code max-age} ago are cached again; older ones are only kept as last known copies. Once the application is
+ * ready, cached assets are revalidated in the background with asset queries of {@code revalidate-batch-size} ids:
+ * newer versions replace them, and assets the query does not return are evicted to be read again on demand.
+ * A snapshot record that fails its checksum ends the restore.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "openremote.cache.snapshot.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class AssetSnapshot implements MeterBinder {
+
+    private static final int MAGIC = 0x4F524153;                              // "ORAS"
+    private static final int FORMAT = 1;
+    private static final int HEADER_BYTES = 12;
+    private static final int RECORD_HEADER_BYTES = 16;
+
+    private final AssetCache assetCache;
+    private final AssetClient assetClient;
+    private final AuthService authService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${openremote.cache.snapshot.path:cache/assets.snapshot}")
+    private Path path = Path.of("cache/assets.snapshot");
+
+    @Value("${openremote.cache.snapshot.interval:1m}")
+    private Duration interval = Duration.ofMinutes(1);
+
+    @Value("${openremote.cache.snapshot.max-age:10m}")
+    private Duration maxAge = Duration.ofMinutes(10);
+
+    @Value("${openremote.cache.snapshot.revalidate-batch-size:100}")
+    private int revalidateBatchSize = 100;
+
+    private final ConcurrentLinkedQueue<String> pendingRevalidation = new ConcurrentLinkedQueue<>();
+    private final LongAdder restoredAssets = new LongAdder();
+    private final LongAdder revalidatedAssets = new LongAdder();
+    private final LongAdder evictedAssets = new LongAdder();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "asset-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Restores the snapshot of the previous run while the application starts.
+     */
+    @PostConstruct
+    public void start() {
+        load();
+    }
+
+    /**
+     * Starts revalidating the restored assets and writing new snapshots once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!pendingRevalidation.isEmpty()) {
+            scheduler.execute(this::revalidate);
+        }
+        scheduler.scheduleWithFixedDelay(this::writeQuietly, interval.toNanos(), interval.toNanos(),
+                TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops revalidating and writes a final snapshot.
+     */
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        writeQuietly();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("openremote.cache.snapshot.assets", restoredAssets, LongAdder::doubleValue)
+                .description("Assets handled by the cache snapshot")
+                .tag("outcome", "restored")
+                .register(registry);
+        FunctionCounter.builder("openremote.cache.snapshot.assets", revalidatedAssets, LongAdder::doubleValue)
+                .description("Assets handled by the cache snapshot")
+                .tag("outcome", "revalidated")
+                .register(registry);
+        FunctionCounter.builder("openremote.cache.snapshot.assets", evictedAssets, LongAdder::doubleValue)
+                .description("Assets handled by the cache snapshot")
+                .tag("outcome", "evicted")
+                .register(registry);
+        Gauge.builder("openremote.cache.snapshot.revalidation.pending", pendingRevalidation,
+                        ConcurrentLinkedQueue::size)
+                .description("Restored assets waiting to be revalidated")
+                .register(registry);
+    }
+
+    /**
+     * Writes the last known assets to the snapshot file.
+     *
+     * @return number of assets written.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    int write() throws IOException {
+        List<LastKnownAsset> assets = assetCache.lastKnownAssets();
+        Path directory = path.toAbsolutePath().getParent();
+        if (Objects.nonNull(directory)) {
+            Files.createDirectories(directory);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeInt(assets.size());
+            for (LastKnownAsset asset : assets) {
+                byte[] payload = objectMapper.writeValueAsBytes(asset.asset());
+                crc.reset();
+                crc.update(payload);
+                out.writeLong(asset.readAt().toEpochMilli());
+                out.writeInt(payload.length);
+                out.writeInt((int) crc.getValue());
+                out.write(payload);
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.debug("Wrote {} assets to cache snapshot {}", assets.size(), path);
+        return assets.size();
+    }
+
+    /**
+     * Restores the assets of the snapshot file, if there is one, and queues the cached ones for revalidation.
+     */
+    void load() {
+        if (!Files.isRegularFile(path)) {
+            log.info("No cache snapshot at {}, starting cold", path.toAbsolutePath());
+            return;
+        }
+        Instant cachedSince = Instant.now().minus(maxAge);
+        int restored = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+                log.warn("Ignoring cache snapshot {} of unknown format", path);
+                return;
+            }
+            int count = buffer.getInt();
+            CRC32 crc = new CRC32();
+            for (int i = 0; i < count && buffer.remaining() >= RECORD_HEADER_BYTES; i++) {
+                Instant readAt = Instant.ofEpochMilli(buffer.getLong());
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    log.warn("Cache snapshot record {} of {} is corrupt, restoring only the records before it",
+                            i + 1, count);
+                    break;
+                }
+                AssetResponse asset = objectMapper.readValue(payload, AssetResponse.class);
+                boolean cache = readAt.isAfter(cachedSince);
+                assetCache.restore(new LastKnownAsset(asset, readAt), cache);
+                if (cache) {
+                    pendingRevalidation.add(asset.getId());
+                }
+                restored++;
+            }
+        } catch (IOException ex) {
+            log.warn("Failed to read cache snapshot {}: {}", path, ex.getMessage());
+        }
+        restoredAssets.add(restored);
+        log.info("Restored {} assets from cache snapshot {}, {} to revalidate", restored, path.toAbsolutePath(),
+                pendingRevalidation.size());
+    }
+
+    /**
+     * Revalidates the restored assets against OpenRemote, one asset query after the other.
+     */
+    void revalidate() {
+        while (!pendingRevalidation.isEmpty() && !Thread.currentThread().isInterrupted()) {
+            List<String> batch = new ArrayList<>(revalidateBatchSize);
+            for (String id; batch.size() < revalidateBatchSize && (id = pendingRevalidation.poll()) != null; ) {
+                batch.add(id);
+            }
+            revalidateBatch(batch);
+        }
+        log.info("Revalidated {} restored assets, evicted {}", revalidatedAssets.sum(), evictedAssets.sum());
+    }
+
+    private void revalidateBatch(List<String> ids) {
+        Set<String> missing = new HashSet<>(ids);
+        try {
+            String authHeader = "Bearer " + authService.getToken();
+            for (AssetResponse asset : assetClient.queryAssets(authHeader, AssetQuery.byIds(ids))) {
+                assetCache.put(asset);
+                missing.remove(asset.getId());
+            }
+            revalidatedAssets.add(ids.size() - missing.size());
+        } catch (RuntimeException ex) {
+            log.warn("Failed to revalidate {} restored assets, evicting them: {}", ids.size(), ex.getMessage());
+        }
+        assetCache.invalidateAll(missing);
+        evictedAssets.add(missing.size());
+    }
+
+    private void writeQuietly() {
+        try {
+            write();
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Failed to write cache snapshot {}: {}", path, ex.getMessage());
+        }
+    }
+}
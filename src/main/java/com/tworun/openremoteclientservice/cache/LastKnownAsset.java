@@ -0,0 +1,22 @@
+package com.tworun.openremoteclientservice.cache;
+
+import com.tworun.openremoteclientservice.dto.AssetResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * The latest copy of an asset read from OpenRemote, kept for serving while OpenRemote is unavailable.
+ *
+ * @param asset The asset as last read.
+ * @param readAt When it was read.
+ */
+public record LastKnownAsset(AssetResponse asset, Instant readAt) {
+
+    /**
+     * Returns how long ago the asset was read.
+     */
+    public Duration age() {
+        return Duration.between(readAt, Instant.now());
+    }
+}
@@ -1,7 +1,11 @@
 package com.tworun.openremoteclientservice.client;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.tworun.openremoteclientservice.dto.AssetCreateRequest;
+import com.tworun.openremoteclientservice.dto.AssetQuery;
 import com.tworun.openremoteclientservice.dto.AssetResponse;
+import com.tworun.openremoteclientservice.dto.AttributeEvent;
+import com.tworun.openremoteclientservice.dto.AttributeWriteResult;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
@@ -10,7 +14,8 @@ import java.util.List;
 
 /**
  * FeignClient for interacting with the OpenRemote Asset REST API.
- * Handles CRUD operations on IoT assets.
+ * Handles CRUD operations on IoT assets and attribute value writes.
+ * Shares the pooled transport from {@link com.tworun.openremoteclientservice.config.FeignConfig}.
  */
 @FeignClient(name = "assetClient", url = "${openremote.api.baseurl}")
 public interface AssetClient {
@@ -46,6 +51,23 @@ public interface AssetClient {
             @PathVariable("assetId") String assetId
     );
 
+    /**
+     * Retrieves all assets matching the given query.
+     *
+     * @param accessToken Bearer access token.
+     * @param query Asset query; only matching assets are returned.
+     * @return List of matching assets, empty if none match.
+     */
+    @PostMapping(
+            value = "/asset/query",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    List<AssetResponse> queryAssets(
+            @RequestHeader("Authorization") String accessToken,
+            @RequestBody AssetQuery query
+    );
+
     /**
      * Updates an existing asset with the given id.
      *
@@ -61,6 +83,44 @@ public interface AssetClient {
             @RequestBody AssetCreateRequest request
     );
 
+    /**
+     * Writes the value of a single attribute, without sending the rest of the asset.
+     *
+     * @param accessToken Bearer access token.
+     * @param assetId Asset's unique identifier.
+     * @param attributeName Name of the attribute to write.
+     * @param value New attribute value as JSON.
+     * @return Result of the write; {@code failure} is set if OpenRemote rejected it.
+     */
+    @PutMapping(
+            value = "/asset/{assetId}/attribute/{attributeName}",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    AttributeWriteResult writeAttributeValue(
+            @RequestHeader("Authorization") String accessToken,
+            @PathVariable("assetId") String assetId,
+            @PathVariable("attributeName") String attributeName,
+            @RequestBody JsonNode value
+    );
+
+    /**
+     * Writes the values of many attributes in one call.
+     *
+     * @param accessToken Bearer access token.
+     * @param events Attribute values to write.
+     * @return One result per event, in request order.
+     */
+    @PutMapping(
+            value = "/asset/attributes",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    List<AttributeWriteResult> writeAttributeValues(
+            @RequestHeader("Authorization") String accessToken,
+            @RequestBody List<AttributeEvent> events
+    );
+
     /**
      * Deletes one or more assets by id.
      *
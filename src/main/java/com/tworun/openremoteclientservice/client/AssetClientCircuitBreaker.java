@@ -0,0 +1,39 @@
+package com.tworun.openremoteclientservice.client;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs all {@link AssetClient} calls through the {@code assetClient} circuit breaker.
+ * <p>
+ * While OpenRemote fails or answers slowly, as configured under
+ * {@code resilience4j.circuitbreaker.instances.assetClient}, the circuit opens and calls fail at once with
+ * {@link CallNotPermittedException} (503) instead of each waiting for its timeout. Asset reads then serve the last
+ * known copy of the asset where there is one. 4xx answers other than 429 are ignored by the circuit breaker, see
+ * {@link AssetClientIgnoredErrors}.
+ * </p>
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class AssetClientCircuitBreaker {
+
+    static final String ASSET_CLIENT = "assetClient";
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    /**
+     * Runs an {@code AssetClient} call if the circuit breaker permits it.
+     */
+    @Around("execution(* com.tworun.openremoteclientservice.client.AssetClient.*(..))")
+    public Object protect(ProceedingJoinPoint joinPoint) throws Throwable {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(ASSET_CLIENT);
+        return circuitBreaker.executeCheckedSupplier(joinPoint::proceed);
+    }
+}
@@ -0,0 +1,23 @@
+package com.tworun.openremoteclientservice.client;
+
+import feign.FeignException;
+import org.springframework.http.HttpStatus;
+
+import java.util.function.Predicate;
+
+/**
+ * Errors of {@link AssetClient} calls that the {@code assetClient} circuit breaker does not count as failures.
+ * <p>
+ * A 4xx answer means the request was wrong, not that OpenRemote is unhealthy, so it is ignored. 429 is the
+ * exception: OpenRemote answers it when overloaded, and the circuit breaker should open on it like on a 5xx.
+ * Set as {@code ignoreExceptionPredicate} of {@code resilience4j.circuitbreaker.instances.assetClient}.
+ * </p>
+ */
+public class AssetClientIgnoredErrors implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable throwable) {
+        return throwable instanceof FeignException.FeignClientException ex
+                && ex.status() != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+}
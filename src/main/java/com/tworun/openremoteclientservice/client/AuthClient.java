@@ -1,21 +1,19 @@
 package com.tworun.openremoteclientservice.client;
 
-import com.tworun.openremoteclientservice.config.FeignConfig;
 import com.tworun.openremoteclientservice.dto.TokenResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import java.net.URI;
+
 /**
  * FeignClient for obtaining OAuth2 tokens from OpenRemote Keycloak Auth server.
  * Used to authenticate and retrieve a Bearer access token for further API requests.
+ * Shares the pooled transport from {@link com.tworun.openremoteclientservice.config.FeignConfig}.
  */
-@FeignClient(
-        name = "authClient",
-        url = "${openremote.auth.url}",
-        configuration = FeignConfig.class
-)
+@FeignClient(name = "authClient", url = "${openremote.auth.url}")
 public interface AuthClient {
 
     /**
@@ -26,4 +24,14 @@ public interface AuthClient {
      */
     @PostMapping
     TokenResponse getToken(@RequestBody MultiValueMap<String, String> formData);
+
+    /**
+     * Requests an access token from the token endpoint of another realm.
+     *
+     * @param tokenUrl Token endpoint of the realm, used instead of {@code openremote.auth.url}.
+     * @param formData form-encoded data including grant_type, client_id, client_secret, etc.
+     * @return TokenResponse containing the access token and token details.
+     */
+    @PostMapping
+    TokenResponse getToken(URI tokenUrl, @RequestBody MultiValueMap<String, String> formData);
 }
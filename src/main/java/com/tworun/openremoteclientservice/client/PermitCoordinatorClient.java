@@ -0,0 +1,34 @@
+package com.tworun.openremoteclientservice.client;
+
+import com.tworun.openremoteclientservice.constants.AuthConstants;
+import com.tworun.openremoteclientservice.dto.PermitLeaseRequest;
+import com.tworun.openremoteclientservice.dto.PermitLeaseResponse;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+
+/**
+ * FeignClient for leasing rate limiter permits from the replica that serves the permit coordinator.
+ * Shares the pooled transport from {@link com.tworun.openremoteclientservice.config.FeignConfig}.
+ */
+@FeignClient(name = "permitCoordinatorClient", url = "${openremote.ratelimiter.cluster.coordinator-url:http://localhost:8080}")
+public interface PermitCoordinatorClient {
+
+    /**
+     * Leases a block of permits from the cluster-wide budget of a rate limiter.
+     *
+     * @param request Rate limiter name and number of permits wanted.
+     * @param secret Shared secret of the replicas, {@code openremote.ratelimiter.cluster.secret}.
+     * @return the number of permits granted.
+     * @throws feign.FeignException if the coordinator cannot be reached or rejects the request.
+     */
+    @PostMapping(
+            value = "/internal/ratelimit/leases",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    PermitLeaseResponse lease(@RequestBody PermitLeaseRequest request,
+                              @RequestHeader(AuthConstants.COORDINATOR_SECRET_HEADER) String secret);
+}
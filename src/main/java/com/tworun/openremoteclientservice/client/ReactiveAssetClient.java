@@ -0,0 +1,115 @@
+package com.tworun.openremoteclientservice.client;
+
+import com.tworun.openremoteclientservice.dto.AssetCreateRequest;
+import com.tworun.openremoteclientservice.dto.AssetQuery;
+import com.tworun.openremoteclientservice.dto.AssetResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking client for the OpenRemote Asset REST API, the reactive counterpart of {@link AssetClient}.
+ * Active with the {@code reactive} profile.
+ * <p>
+ * Errors are signalled as {@link org.springframework.web.reactive.function.client.WebClientResponseException}
+ * for HTTP error statuses and {@link org.springframework.web.reactive.function.client.WebClientRequestException}
+ * for transport failures.
+ * </p>
+ */
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveAssetClient {
+
+    private final WebClient assetWebClient;
+
+    /**
+     * Creates a new asset in OpenRemote.
+     *
+     * @param accessToken Bearer access token for authorization (e.g., "Bearer eyJ...").
+     * @param assetCreateRequest Asset creation request payload.
+     * @return AssetResponse with created asset details.
+     */
+    public Mono<AssetResponse> createAsset(String accessToken, AssetCreateRequest assetCreateRequest) {
+        return assetWebClient.post()
+                .uri("/asset")
+                .header(HttpHeaders.AUTHORIZATION, accessToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(assetCreateRequest)
+                .retrieve()
+                .bodyToMono(AssetResponse.class);
+    }
+
+    /**
+     * Retrieves an asset by its unique id.
+     *
+     * @param accessToken Bearer access token.
+     * @param assetId Asset's unique identifier.
+     * @return AssetResponse with asset details.
+     */
+    public Mono<AssetResponse> getAsset(String accessToken, String assetId) {
+        return assetWebClient.get()
+                .uri("/asset/{assetId}", assetId)
+                .header(HttpHeaders.AUTHORIZATION, accessToken)
+                .retrieve()
+                .bodyToMono(AssetResponse.class);
+    }
+
+    /**
+     * Retrieves all assets matching the given query.
+     *
+     * @param accessToken Bearer access token.
+     * @param query Asset query; only matching assets are returned.
+     * @return Matching assets.
+     */
+    public Flux<AssetResponse> queryAssets(String accessToken, AssetQuery query) {
+        return assetWebClient.post()
+                .uri("/asset/query")
+                .header(HttpHeaders.AUTHORIZATION, accessToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(query)
+                .retrieve()
+                .bodyToFlux(AssetResponse.class);
+    }
+
+    /**
+     * Updates an existing asset with the given id.
+     *
+     * @param accessToken Bearer access token.
+     * @param assetId Id of the asset to update.
+     * @param request Asset update payload (same as creation payload).
+     * @return Updated asset's details.
+     */
+    public Mono<AssetResponse> updateAsset(String accessToken, String assetId, AssetCreateRequest request) {
+        return assetWebClient.put()
+                .uri("/asset/{assetId}", assetId)
+                .header(HttpHeaders.AUTHORIZATION, accessToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(AssetResponse.class);
+    }
+
+    /**
+     * Deletes one or more assets by id.
+     *
+     * @param accessToken Bearer access token.
+     * @param assetIds List of asset ids to delete.
+     * @return completes when the assets are deleted.
+     */
+    public Mono<Void> deleteAssets(String accessToken, List<String> assetIds) {
+        return assetWebClient.delete()
+                .uri(uriBuilder -> uriBuilder.path("/asset").queryParam("assetId", assetIds.toArray()).build())
+                .header(HttpHeaders.AUTHORIZATION, accessToken)
+                .retrieve()
+                .toBodilessEntity()
+                .then();
+    }
+}
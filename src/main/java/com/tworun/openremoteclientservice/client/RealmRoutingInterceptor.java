@@ -0,0 +1,42 @@
+package com.tworun.openremoteclientservice.client;
+
+import com.tworun.openremoteclientservice.service.RealmRegistry;
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Sends {@link AssetClient} calls to the API of the realm that issued their access token.
+ * <p>
+ * Calls made with a token of the default realm, or of no known realm, keep {@code openremote.api.baseurl}.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class RealmRoutingInterceptor implements RequestInterceptor {
+
+    private static final String ASSET_CLIENT = "assetClient";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final RealmRegistry realmRegistry;
+
+    @Override
+    public void apply(RequestTemplate template) {
+        if (Objects.isNull(template.feignTarget()) || !ASSET_CLIENT.equals(template.feignTarget().name())) {
+            return;
+        }
+        Collection<String> authorization = template.headers().get(HttpHeaders.AUTHORIZATION);
+        if (Objects.isNull(authorization) || authorization.isEmpty()) {
+            return;
+        }
+        String header = authorization.iterator().next();
+        if (header.startsWith(BEARER_PREFIX)) {
+            realmRegistry.apiBaseUrlOf(header.substring(BEARER_PREFIX.length())).ifPresent(template::target);
+        }
+    }
+}
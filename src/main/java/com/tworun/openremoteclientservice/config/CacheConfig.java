@@ -0,0 +1,82 @@
+package com.tworun.openremoteclientservice.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tworun.openremoteclientservice.cache.LastKnownAsset;
+import com.tworun.openremoteclientservice.dto.AssetResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the in-process asset cache used by {@link com.tworun.openremoteclientservice.cache.AssetCache}.
+ * <p>
+ * The cache is bounded by entry count and expires entries a fixed time after they were written.
+ * Hit, miss and eviction counts are published as {@code cache.*} metrics with {@code cache=assets}.
+ * Setting {@code openremote.cache.assets.maximum-size} to 0 effectively disables caching.
+ * </p>
+ * <p>
+ * Last known copies of assets, served while OpenRemote is unavailable, are kept in a second cache bounded by
+ * {@code last-known-maximum-size} and {@code last-known-ttl}, published with {@code cache=assets-last-known}.
+ * </p>
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String ASSET_CACHE_NAME = "assets";
+    public static final String LAST_KNOWN_ASSET_CACHE_NAME = "assets-last-known";
+
+    @Value("${openremote.cache.assets.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${openremote.cache.assets.ttl:30s}")
+    private Duration ttl;
+
+    @Value("${openremote.cache.assets.last-known-maximum-size:10000}")
+    private long lastKnownMaximumSize;
+
+    @Value("${openremote.cache.assets.last-known-ttl:24h}")
+    private Duration lastKnownTtl;
+
+    /**
+     * Creates the asset cache keyed by asset id.
+     *
+     * @param meterRegistry registry the cache statistics are bound to
+     * @return a size and TTL bounded cache recording statistics
+     */
+    @Bean
+    public Cache<String, AssetResponse> assetResponseCache(MeterRegistry meterRegistry) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats();
+        if (maximumSize == 0) {
+            builder.executor(Runnable::run);                                        // Evict synchronously when disabled
+        }
+        Cache<String, AssetResponse> cache = builder.build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, ASSET_CACHE_NAME);
+    }
+
+    /**
+     * Creates the cache of last known assets keyed by asset id.
+     *
+     * @param meterRegistry registry the cache statistics are bound to
+     * @return a size and TTL bounded cache recording statistics
+     */
+    @Bean
+    public Cache<String, LastKnownAsset> lastKnownAssetCache(MeterRegistry meterRegistry) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(lastKnownMaximumSize)
+                .expireAfterWrite(lastKnownTtl)
+                .recordStats();
+        if (lastKnownMaximumSize == 0) {
+            builder.executor(Runnable::run);
+        }
+        Cache<String, LastKnownAsset> cache = builder.build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, LAST_KNOWN_ASSET_CACHE_NAME);
+    }
+}
@@ -0,0 +1,158 @@
+package com.tworun.openremoteclientservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executors used to fan out bulk asset operations to the OpenRemote API.
+ * <p>
+ * Reads, creates and deletes each get their own executor, so a burst of one operation cannot queue up the upstream
+ * calls of another: a flood of subtree deletes fills only the delete executor while cache-miss reads keep running.
+ * {@code openremote.bulk.read-parallelism}, {@code create-parallelism} and {@code delete-parallelism} bound the
+ * concurrent upstream calls of each operation and default to {@code openremote.bulk.parallelism}. On platform
+ * threads each executor queues at most {@code openremote.bulk.queue-capacity} tasks; beyond that the submitting
+ * request thread runs the task itself, which slows down the request that caused the backlog. With
+ * {@code spring.threads.virtual.enabled} on Java 21+ each task runs on its own virtual thread and the bound is
+ * enforced by a concurrency throttle per executor instead of a pool.
+ * </p>
+ */
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${openremote.bulk.read-parallelism:${openremote.bulk.parallelism:8}}")
+    private int readParallelism;
+
+    @Value("${openremote.bulk.create-parallelism:${openremote.bulk.parallelism:8}}")
+    private int createParallelism;
+
+    @Value("${openremote.bulk.delete-parallelism:${openremote.bulk.parallelism:8}}")
+    private int deleteParallelism;
+
+    @Value("${openremote.bulk.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${openremote.hedging.max-concurrent-reads:64}")
+    private int hedgingMaxConcurrentReads;
+
+    /**
+     * Creates the executor for cache-miss reads on platform threads.
+     *
+     * @return a bounded executor of {@code openremote.bulk.read-parallelism} threads
+     */
+    @Bean("assetReadExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor platformAssetReadExecutor() {
+        return platformExecutor("asset-read-", readParallelism);
+    }
+
+    /**
+     * Creates the executor for batch creates on platform threads.
+     *
+     * @return a bounded executor of {@code openremote.bulk.create-parallelism} threads
+     */
+    @Bean("assetCreateExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor platformAssetCreateExecutor() {
+        return platformExecutor("asset-create-", createParallelism);
+    }
+
+    /**
+     * Creates the executor for chunked deletes on platform threads.
+     *
+     * @return a bounded executor of {@code openremote.bulk.delete-parallelism} threads
+     */
+    @Bean("assetDeleteExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor platformAssetDeleteExecutor() {
+        return platformExecutor("asset-delete-", deleteParallelism);
+    }
+
+    /**
+     * Creates the executor for cache-miss reads on virtual threads.
+     *
+     * @return a virtual thread executor throttled to {@code openremote.bulk.read-parallelism} concurrent tasks
+     */
+    @Bean("assetReadExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualAssetReadExecutor() {
+        return virtualExecutor("asset-read-", readParallelism);
+    }
+
+    /**
+     * Creates the executor for batch creates on virtual threads.
+     *
+     * @return a virtual thread executor throttled to {@code openremote.bulk.create-parallelism} concurrent tasks
+     */
+    @Bean("assetCreateExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualAssetCreateExecutor() {
+        return virtualExecutor("asset-create-", createParallelism);
+    }
+
+    /**
+     * Creates the executor for chunked deletes on virtual threads.
+     *
+     * @return a virtual thread executor throttled to {@code openremote.bulk.delete-parallelism} concurrent tasks
+     */
+    @Bean("assetDeleteExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualAssetDeleteExecutor() {
+        return virtualExecutor("asset-delete-", deleteParallelism);
+    }
+
+    /**
+     * Creates the executor for hedged single-asset reads on platform threads. It does not queue: a read finding
+     * all threads busy is rejected, so the {@code HedgedAssetReader} reads on the caller thread or skips the hedge.
+     *
+     * @return an executor of at most {@code openremote.hedging.max-concurrent-reads} threads
+     */
+    @Bean("assetHedgeExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor platformAssetHedgeExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hedgingMaxConcurrentReads);
+        executor.setMaxPoolSize(hedgingMaxConcurrentReads);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("asset-hedged-read-");
+        return executor;
+    }
+
+    /**
+     * Creates the executor for hedged single-asset reads on virtual threads.
+     *
+     * @return a virtual thread executor rejecting reads beyond {@code openremote.hedging.max-concurrent-reads}
+     */
+    @Bean("assetHedgeExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualAssetHedgeExecutor() {
+        SimpleAsyncTaskExecutor executor = virtualExecutor("asset-hedged-read-", hedgingMaxConcurrentReads);
+        executor.setRejectTasksWhenLimitReached(true);
+        return executor;
+    }
+
+    private ThreadPoolTaskExecutor platformExecutor(String threadNamePrefix, int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    private static SimpleAsyncTaskExecutor virtualExecutor(String threadNamePrefix, int parallelism) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(parallelism);
+        return executor;
+    }
+}
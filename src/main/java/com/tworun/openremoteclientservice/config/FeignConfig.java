@@ -1,16 +1,38 @@
 package com.tworun.openremoteclientservice.config;
 
 import feign.Client;
-import org.apache.http.conn.ssl.NoopHostnameVerifier;
-import org.apache.http.ssl.SSLContextBuilder;
+import feign.Request;
+import feign.hc5.ApacheHttp5Client;
+import feign.http2client.Http2Client;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.DefaultClientTlsStrategy;
+import org.apache.hc.client5.http.ssl.HostnameVerificationPolicy;
+import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
+import org.apache.hc.core5.ssl.SSLContextBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import javax.net.ssl.SSLContext;
+import java.net.http.HttpClient;
+import java.time.Duration;
 
 /**
- * Custom Feign configuration that disables SSL certificate and hostname verification.
+ * Shared HTTP transport for all Feign clients ({@code AssetClient} and {@code AuthClient}).
  * <p>
+ * Connections are pooled and kept alive per route, idle connections are evicted in the background and a single
+ * {@link SSLContext} is shared so TLS sessions are resumed instead of fully renegotiated. With
+ * {@code openremote.http.http2-enabled} the JDK {@link HttpClient} is used instead, which negotiates HTTP/2 via ALPN
+ * and multiplexes requests over one connection per host (the JDK client keeps its own hostname verification).
+ * Connect and read timeouts are configured per client under {@code spring.cloud.openfeign.client.config}.
+ * </p>
+ * <p>
+ * The SSL context disables SSL certificate and hostname verification.
  * Only use this in development or test environments where you need to trust self-signed certificates
  * (for example, when running OpenRemote with a self-signed SSL cert).
  * <br/>
@@ -20,21 +42,104 @@ import javax.net.ssl.SSLContext;
 @Configuration
 public class FeignConfig {
 
+    @Value("${openremote.http.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${openremote.http.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${openremote.http.idle-eviction:30s}")
+    private Duration idleEviction;
+
+    @Value("${openremote.http.time-to-live:5m}")
+    private Duration timeToLive;
+
+    @Value("${openremote.http.validate-after-inactivity:2s}")
+    private Duration validateAfterInactivity;
+
+    @Value("${openremote.http.tls-session-cache-size:1000}")
+    private int tlsSessionCacheSize;
+
+    @Value("${openremote.http.tls-session-timeout:1h}")
+    private Duration tlsSessionTimeout;
+
+    @Value("${openremote.http.http2-enabled:false}")
+    private boolean http2Enabled;
+
+    @Value("${openremote.http.http2-connect-timeout:10s}")
+    private Duration http2ConnectTimeout;
+
     /**
-     * Creates a Feign Client that trusts all SSL certificates and disables hostname verification.
+     * Creates an SSL context that trusts all certificates.
+     * Shared by every connection so the client-side TLS session cache can resume sessions.
      *
-     * @return a custom Feign Client for use with self-signed or invalid SSL certificates
+     * @return the shared SSL context
      * @throws Exception if SSL context cannot be created
      */
     @Bean
-    public Client feignClient() throws Exception {
-        SSLContext sslContext = new SSLContextBuilder()
+    public SSLContext feignSslContext() throws Exception {
+        SSLContext sslContext = SSLContextBuilder.create()
                 .loadTrustMaterial(null, (certificate, authType) -> true)   // Trust all certificates
                 .build();
+        sslContext.getClientSessionContext().setSessionCacheSize(tlsSessionCacheSize);
+        sslContext.getClientSessionContext().setSessionTimeout((int) tlsSessionTimeout.toSeconds());
+        return sslContext;
+    }
+
+    /**
+     * Creates the pooled, keep-alive Apache HttpClient used by the default (HTTP/1.1) transport.
+     *
+     * @param feignSslContext shared SSL context
+     * @return a pooled HttpClient that evicts idle and expired connections
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient feignHttpClient(SSLContext feignSslContext) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setTlsSocketStrategy(new DefaultClientTlsStrategy(
+                        feignSslContext,
+                        HostnameVerificationPolicy.CLIENT,
+                        NoopHostnameVerifier.INSTANCE                               // Also turn off hostname verification
+                ))
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setTimeToLive(TimeValue.ofMilliseconds(timeToLive.toMillis()))
+                        .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivity.toMillis()))
+                        .build())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEviction.toMillis()))
+                .disableAutomaticRetries()                                          // Retries are handled by Resilience4j
+                .build();
+    }
+
+    /**
+     * Creates the Feign Client shared by all OpenRemote Feign clients.
+     *
+     * @param feignSslContext shared SSL context
+     * @param feignHttpClient pooled HttpClient for the HTTP/1.1 transport
+     * @return an HTTP/2 capable client when enabled, otherwise a pooled Apache HttpClient
+     */
+    @Bean
+    public Client feignClient(SSLContext feignSslContext, CloseableHttpClient feignHttpClient) {
+        if (!http2Enabled) {
+            return new ApacheHttp5Client(feignHttpClient);
+        }
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .sslContext(feignSslContext)
+                .connectTimeout(http2ConnectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        Http2Client http2Client = new Http2Client(httpClient);
 
-        return new Client.Default(
-                sslContext.getSocketFactory(),
-                new NoopHostnameVerifier()                                          // Also turn off hostname verification
-        );
+        // Http2Client builds a new JDK client (without our SSL context) whenever the connect timeout differs,
+        // so the connect timeout is pinned to the shared client's; read timeouts still apply per Feign client.
+        return (request, options) -> http2Client.execute(request, new Request.Options(
+                http2ConnectTimeout, Duration.ofMillis(options.readTimeoutMillis()), true));
     }
 }
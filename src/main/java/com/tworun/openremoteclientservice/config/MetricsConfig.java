@@ -0,0 +1,32 @@
+package com.tworun.openremoteclientservice.config;
+
+import com.tworun.openremoteclientservice.metrics.FeignClientObservationConvention;
+import feign.micrometer.MicrometerObservationCapability;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics wiring that Spring Boot does not provide out of the box.
+ * <p>
+ * Controller timers ({@code http.server.requests}), Resilience4j meters and the Prometheus endpoint are
+ * auto-configured; histogram buckets are enabled in {@code application.yml}. This class only replaces the
+ * Feign instrumentation so that {@code AssetClient} and {@code AuthClient} calls are timed with the same tags
+ * as other HTTP client calls.
+ * </p>
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Times every Feign client call as {@code http.client.requests}.
+     * Picked up by all Feign clients in place of the default capability.
+     *
+     * @param observationRegistry registry the Feign observations are reported to
+     * @return the Feign capability creating an observation per call
+     */
+    @Bean
+    public MicrometerObservationCapability micrometerObservationCapability(ObservationRegistry observationRegistry) {
+        return new MicrometerObservationCapability(observationRegistry, new FeignClientObservationConvention());
+    }
+}
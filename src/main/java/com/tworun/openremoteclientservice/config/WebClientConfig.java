@@ -0,0 +1,100 @@
+package com.tworun.openremoteclientservice.config;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import javax.net.ssl.SSLException;
+import java.time.Duration;
+
+/**
+ * Non-blocking HTTP transport for the reactive asset stack, active with the {@code reactive} profile.
+ * <p>
+ * Uses Reactor Netty with a bounded connection pool sized by the same {@code openremote.http.*} properties as the
+ * Feign transport, so thousands of upstream calls can be in flight on a few event loop threads.
+ * </p>
+ * <p>
+ * Like {@link FeignConfig}, the SSL context trusts all certificates and is only meant for development or test
+ * environments with self-signed certificates. Do NOT use this configuration in production!
+ * </p>
+ */
+@Configuration
+@Profile("reactive")
+public class WebClientConfig {
+
+    @Value("${openremote.http.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${openremote.http.reactive-pending-acquire-max-count:10000}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${openremote.http.idle-eviction:30s}")
+    private Duration idleEviction;
+
+    @Value("${openremote.http.time-to-live:5m}")
+    private Duration timeToLive;
+
+    @Value("${openremote.http.reactive-connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${openremote.http.reactive-response-timeout:10s}")
+    private Duration responseTimeout;
+
+    /**
+     * Creates the Reactor Netty HTTP client shared by all reactive OpenRemote clients.
+     *
+     * @return a pooled HTTP client that trusts all certificates
+     * @throws SSLException if SSL context cannot be created
+     */
+    @Bean
+    public HttpClient openRemoteReactorHttpClient() throws SSLException {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("openremote")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .maxIdleTime(idleEviction)
+                .maxLifeTime(timeToLive)
+                .evictInBackground(idleEviction)
+                .build();
+        SslContext sslContext = SslContextBuilder.forClient()
+                .trustManager(InsecureTrustManagerFactory.INSTANCE)                 // Trust all certificates
+                .build();
+
+        return HttpClient.create(connectionProvider)
+                .secure(ssl -> ssl.sslContext(sslContext))
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+    }
+
+    /**
+     * Creates the WebClient for the OpenRemote asset API.
+     */
+    @Bean
+    public WebClient assetWebClient(WebClient.Builder builder, HttpClient openRemoteReactorHttpClient,
+                                    @Value("${openremote.api.baseurl}") String baseUrl) {
+        return builder.clone()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(openRemoteReactorHttpClient))
+                .build();
+    }
+
+    /**
+     * Creates the WebClient for the OpenRemote (Keycloak) token endpoint.
+     */
+    @Bean
+    public WebClient authWebClient(WebClient.Builder builder, HttpClient openRemoteReactorHttpClient,
+                                   @Value("${openremote.auth.url}") String authUrl) {
+        return builder.clone()
+                .baseUrl(authUrl)
+                .clientConnector(new ReactorClientHttpConnector(openRemoteReactorHttpClient))
+                .build();
+    }
+}
@@ -20,4 +20,6 @@ public final class AuthConstants {
 
     public static final String GRANT_TYPE_CLIENT_CREDENTIALS = "client_credentials";
     public static final String GRANT_TYPE_KEY = "grant_type";
+
+    public static final String COORDINATOR_SECRET_HEADER = "X-Coordinator-Secret";
 }
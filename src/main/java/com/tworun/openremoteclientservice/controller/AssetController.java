@@ -1,20 +1,36 @@
 package com.tworun.openremoteclientservice.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.tworun.openremoteclientservice.dto.AssetBatchCreateRequest;
+import com.tworun.openremoteclientservice.dto.AssetBatchResponse;
 import com.tworun.openremoteclientservice.dto.AssetCreateRequest;
+import com.tworun.openremoteclientservice.dto.AssetIdsRequest;
+import com.tworun.openremoteclientservice.dto.AssetMultiGetResponse;
 import com.tworun.openremoteclientservice.dto.AssetResponse;
+import com.tworun.openremoteclientservice.dto.AssetSubtreeDeleteRequest;
+import com.tworun.openremoteclientservice.dto.AssetSubtreeDeleteResponse;
+import com.tworun.openremoteclientservice.dto.AttributeWriteResult;
+import com.tworun.openremoteclientservice.service.AssetETags;
+import com.tworun.openremoteclientservice.service.AssetRead;
 import com.tworun.openremoteclientservice.service.AssetService;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST controller for managing IoT assets via OpenRemote.
@@ -30,6 +46,11 @@ import java.util.List;
 @Slf4j
 public class AssetController {
 
+    static final int MAX_ATTRIBUTE_WRITES = 1000;
+    static final String STALE_HEADER = "X-Asset-Stale";
+    private static final String ATTRIBUTE_NAME_PATTERN = "^\\w+$";
+    private static final String ATTRIBUTE_NAME_MESSAGE = "Name must contain only letters, digits, and underscores.";
+
     private final AssetService assetService;
 
     /**
@@ -49,22 +70,86 @@ public class AssetController {
         return new ResponseEntity<>(assetService.createAsset(request), HttpStatus.CREATED);
     }
 
+    /**
+     * Creates many assets in one call.
+     *
+     * @param request Bulk creation request; all assets are validated before any is created.
+     * @return Per-asset creation results.
+     */
+    @Operation(
+            summary = "Create assets in batch",
+            description = "Validates all assets, then creates them concurrently and returns a result per asset."
+    )
+    @ApiResponse(responseCode = "200", description = "Batch processed, see per-asset results")
+    @ApiResponse(responseCode = "400", description = "One or more assets are invalid, nothing was created")
+    @RateLimiter(name = "assetBatchCreationLimiter")
+    @PostMapping("/batch")
+    public ResponseEntity<AssetBatchResponse> createAssets(@RequestBody @Valid AssetBatchCreateRequest request) {
+        return ResponseEntity.ok(assetService.createAssets(request.getAssets()));
+    }
+
     /**
      * Retrieves an asset by its ID.
      *
      * @param assetId The ID of the asset to retrieve.
-     * @return The AssetResponse for the given asset ID.
+     * @return The AssetResponse for the given asset ID with its ETag, or 304 Not Modified if it matches
+     * {@code If-None-Match}. A last known copy served while OpenRemote is unavailable carries its age in
+     * {@code Age} and {@code X-Asset-Stale: true}.
      */
     @Operation(
             summary = "Get asset by ID",
-            description = "Retrieves an asset by its unique identifier."
+            description = "Retrieves an asset by its unique identifier. Answers If-None-Match with 304 if the asset is unchanged. "
+                    + "While OpenRemote is unavailable, returns the last known asset with X-Asset-Stale and Age headers."
     )
     @ApiResponse(responseCode = "200", description = "Asset found and returned")
+    @ApiResponse(responseCode = "304", description = "Asset unchanged since the given ETag")
     @ApiResponse(responseCode = "404", description = "Asset not found")
+    @ApiResponse(responseCode = "503", description = "OpenRemote unavailable and the asset not known")
     @RateLimiter(name = "assetRetrievalLimiter")
     @GetMapping("/{assetId}")
     public ResponseEntity<AssetResponse> getAsset(@PathVariable String assetId) {
-        return ResponseEntity.ok(assetService.getAsset(assetId));
+        AssetRead read = assetService.readAsset(assetId);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(AssetETags.of(read.asset()));
+        if (read.isStale()) {
+            response.header(HttpHeaders.AGE, String.valueOf(read.staleFor().toSeconds()))
+                    .header(STALE_HEADER, "true");
+        }
+        return response.body(read.asset());
+    }
+
+    /**
+     * Retrieves many assets by their IDs.
+     *
+     * @param ids Comma separated or repeated asset IDs.
+     * @return Found assets and missing IDs.
+     */
+    @Operation(
+            summary = "Get assets by IDs",
+            description = "Retrieves many assets in one call and lists the IDs that were not found."
+    )
+    @ApiResponse(responseCode = "200", description = "Found assets and missing IDs returned")
+    @RateLimiter(name = "assetRetrievalLimiter")
+    @GetMapping
+    public ResponseEntity<AssetMultiGetResponse> getAssets(
+            @RequestParam @NotEmpty @Size(max = AssetIdsRequest.MAX_IDS) List<String> ids) {
+        return ResponseEntity.ok(assetService.getAssets(ids));
+    }
+
+    /**
+     * Retrieves many assets by their IDs, for ID lists too long for a query string.
+     *
+     * @param request Asset IDs to retrieve.
+     * @return Found assets and missing IDs.
+     */
+    @Operation(
+            summary = "Get assets by IDs (body)",
+            description = "Same as GET /api/assets?ids=..., with the IDs passed in the request body."
+    )
+    @ApiResponse(responseCode = "200", description = "Found assets and missing IDs returned")
+    @RateLimiter(name = "assetRetrievalLimiter")
+    @PostMapping("/query")
+    public ResponseEntity<AssetMultiGetResponse> queryAssets(@RequestBody @Valid AssetIdsRequest request) {
+        return ResponseEntity.ok(assetService.getAssets(request.getIds()));
     }
 
     /**
@@ -72,27 +157,86 @@ public class AssetController {
      *
      * @param assetId The ID of the asset to update.
      * @param request Updated asset data.
-     * @return The updated AssetResponse.
+     * @param ifMatch Optional ETags the asset must still match to be updated.
+     * @return The updated AssetResponse with its new ETag.
      */
     @Operation(
             summary = "Update asset",
-            description = "Updates an existing asset with the given ID."
+            description = "Updates an existing asset with the given ID. With If-Match, only if the asset is unchanged."
     )
     @ApiResponse(responseCode = "200", description = "Asset updated successfully")
     @ApiResponse(responseCode = "404", description = "Asset not found")
+    @ApiResponse(responseCode = "412", description = "Asset changed since the ETag in If-Match")
     @RateLimiter(name = "assetUpdateLimiter")
     @PutMapping("/{assetId}")
     public ResponseEntity<AssetResponse> updateAsset(
             @PathVariable String assetId,
-            @RequestBody @Valid AssetCreateRequest request) {
-        AssetResponse updated = assetService.updateAsset(assetId, request);
-        return ResponseEntity.ok(updated);
+            @RequestBody @Valid AssetCreateRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        AssetResponse updated = assetService.updateAsset(assetId, request, ifMatch);
+        return ResponseEntity.ok().eTag(AssetETags.of(updated)).body(updated);
+    }
+
+    /**
+     * Writes the value of a single attribute of an asset.
+     *
+     * @param assetId The ID of the asset.
+     * @param attributeName The name of the attribute to write.
+     * @param value The new value, any JSON value (e.g. {@code 21.5}, {@code "on"}, {@code {"x": 1}}).
+     * @return 204 No Content if written, 202 Accepted if buffered by the write coalescer.
+     */
+    @Operation(
+            summary = "Write attribute value",
+            description = "Writes one attribute value without sending the whole asset."
+    )
+    @ApiResponse(responseCode = "204", description = "Attribute value written")
+    @ApiResponse(responseCode = "202", description = "Attribute value accepted, written with the next coalescer flush")
+    @ApiResponse(responseCode = "400", description = "Value rejected by OpenRemote")
+    @ApiResponse(responseCode = "404", description = "Asset or attribute not found")
+    @RateLimiter(name = "assetAttributeWriteLimiter")
+    @PutMapping("/{assetId}/attributes/{attributeName}")
+    public ResponseEntity<Void> writeAttribute(
+            @PathVariable String assetId,
+            @PathVariable @Pattern(regexp = ATTRIBUTE_NAME_PATTERN, message = ATTRIBUTE_NAME_MESSAGE) String attributeName,
+            @RequestBody @NotNull JsonNode value) {
+        assetService.writeAttribute(assetId, attributeName, value);
+        if (assetService.isAttributeWriteDeferred()) {
+            return ResponseEntity.accepted().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Writes the values of many attributes of an asset in one call.
+     *
+     * @param assetId The ID of the asset.
+     * @param values New values by attribute name, e.g. {@code {"temperature": 21.5, "status": "on"}}.
+     * @return One write result per attribute; 202 Accepted instead of 200 if buffered by the write coalescer.
+     */
+    @Operation(
+            summary = "Write attribute values",
+            description = "Writes many attribute values of an asset in one call and returns a result per attribute."
+    )
+    @ApiResponse(responseCode = "200", description = "Writes processed, see per-attribute results")
+    @ApiResponse(responseCode = "202", description = "Writes accepted, written with the next coalescer flush")
+    @ApiResponse(responseCode = "404", description = "Asset not found")
+    @RateLimiter(name = "assetAttributeWriteLimiter")
+    @PutMapping("/{assetId}/attributes")
+    public ResponseEntity<List<AttributeWriteResult>> writeAttributes(
+            @PathVariable String assetId,
+            @RequestBody @NotEmpty @Size(max = MAX_ATTRIBUTE_WRITES)
+            Map<@Pattern(regexp = ATTRIBUTE_NAME_PATTERN, message = ATTRIBUTE_NAME_MESSAGE) String, JsonNode> values) {
+        List<AttributeWriteResult> results = assetService.writeAttributes(assetId, values);
+        if (assetService.isAttributeWriteDeferred()) {
+            return ResponseEntity.accepted().body(results);
+        }
+        return ResponseEntity.ok(results);
     }
 
     /**
      * Deletes one or more assets by their IDs.
      *
-     * @param assetIds List of asset IDs to delete.
+     * @param assetIds List of asset IDs to delete; long lists are deleted in chunks.
      * @return 204 No Content if successful.
      */
     @Operation(
@@ -108,4 +252,23 @@ public class AssetController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Deletes all assets under a parent or in a realm, optionally limited to some asset types.
+     *
+     * @param request Parent, realm and types of the assets to delete.
+     * @return Number of matched and deleted assets, and the IDs that could not be deleted.
+     */
+    @Operation(
+            summary = "Delete asset subtree",
+            description = "Deletes all descendants of a parent asset, or all assets of a realm, optionally only of some types. "
+                    + "Deepest assets are deleted first."
+    )
+    @ApiResponse(responseCode = "200", description = "Delete processed, see counts and failed IDs")
+    @ApiResponse(responseCode = "400", description = "Neither parentId nor realm given")
+    @RateLimiter(name = "assetDeleteLimiter")
+    @DeleteMapping("/subtree")
+    public ResponseEntity<AssetSubtreeDeleteResponse> deleteSubtree(@RequestBody @Valid AssetSubtreeDeleteRequest request) {
+        return ResponseEntity.ok(assetService.deleteSubtree(request));
+    }
+
 }
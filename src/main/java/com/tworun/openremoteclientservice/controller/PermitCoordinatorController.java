@@ -0,0 +1,81 @@
+package com.tworun.openremoteclientservice.controller;
+
+import com.tworun.openremoteclientservice.constants.AuthConstants;
+import com.tworun.openremoteclientservice.dto.PermitLeaseRequest;
+import com.tworun.openremoteclientservice.dto.PermitLeaseResponse;
+import com.tworun.openremoteclientservice.exception.AuthException;
+import com.tworun.openremoteclientservice.ratelimit.LocalPermitCoordinator;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Objects;
+
+/**
+ * REST controller through which other replicas lease rate limiter permits from this one.
+ * <p>
+ * Active with {@code openremote.ratelimiter.cluster.serve-coordinator=true} on exactly one replica. Every request
+ * must carry {@code openremote.ratelimiter.cluster.secret} in the {@code X-Coordinator-Secret} header, so clients
+ * reaching the public port cannot drain the budget; the replica does not start without a secret. It is not rate
+ * limited itself.
+ * </p>
+ */
+@Tag(name = "Rate limit coordination", description = "Cluster-wide rate limiter permits for replicas")
+@RestController
+@RequestMapping("/internal/ratelimit")
+@ConditionalOnProperty(name = "openremote.ratelimiter.cluster.serve-coordinator", havingValue = "true")
+@RequiredArgsConstructor
+public class PermitCoordinatorController {
+
+    private final LocalPermitCoordinator localPermitCoordinator;
+
+    @Value("${openremote.ratelimiter.cluster.secret:}")
+    private String secret = "";
+
+    @PostConstruct
+    void checkSecret() {
+        if (secret.isBlank()) {
+            throw new IllegalStateException(
+                    "openremote.ratelimiter.cluster.secret must be set to serve the permit coordinator");
+        }
+    }
+
+    /**
+     * Leases a block of permits from the cluster-wide budget of a rate limiter.
+     *
+     * @param request Rate limiter name and number of permits wanted.
+     * @param requestSecret Shared secret of the replicas.
+     * @return the number of permits granted, 0 if the budget is used up.
+     * @throws AuthException if the secret is missing or wrong.
+     */
+    @Operation(
+            summary = "Lease rate limiter permits",
+            description = "Grants up to the requested number of permits from the cluster-wide budget of a rate limiter."
+    )
+    @ApiResponse(responseCode = "200", description = "Permits granted, possibly none")
+    @ApiResponse(responseCode = "401", description = "Missing or wrong coordinator secret")
+    @PostMapping("/leases")
+    public ResponseEntity<PermitLeaseResponse> lease(
+            @RequestBody @Valid PermitLeaseRequest request,
+            @RequestHeader(name = AuthConstants.COORDINATOR_SECRET_HEADER, required = false) String requestSecret) {
+        if (Objects.isNull(requestSecret) || !MessageDigest.isEqual(
+                secret.getBytes(StandardCharsets.UTF_8), requestSecret.getBytes(StandardCharsets.UTF_8))) {
+            throw new AuthException("Missing or invalid coordinator secret.");
+        }
+        int granted = localPermitCoordinator.lease(request.getLimiter(), request.getPermits());
+        return ResponseEntity.ok(new PermitLeaseResponse(request.getLimiter(), granted));
+    }
+}
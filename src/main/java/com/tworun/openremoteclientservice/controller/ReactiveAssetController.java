@@ -0,0 +1,133 @@
+package com.tworun.openremoteclientservice.controller;
+
+import com.tworun.openremoteclientservice.dto.AssetCreateRequest;
+import com.tworun.openremoteclientservice.dto.AssetIdsRequest;
+import com.tworun.openremoteclientservice.dto.AssetMultiGetResponse;
+import com.tworun.openremoteclientservice.dto.AssetResponse;
+import com.tworun.openremoteclientservice.service.ReactiveAssetService;
+import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking REST controller for managing IoT assets via OpenRemote, active with the {@code reactive} profile.
+ * <p>
+ * Mirrors {@link AssetController} under {@code /api/reactive/assets}. Handlers return {@link Mono} so the
+ * request thread is released while the OpenRemote API call is in flight.
+ * </p>
+ */
+@Tag(name = "Asset (reactive)", description = "Non-blocking API for managing assets")
+@RestController
+@RequestMapping("/api/reactive/assets")
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveAssetController {
+
+    private final ReactiveAssetService reactiveAssetService;
+
+    /**
+     * Creates a new asset.
+     *
+     * @param request Asset creation request payload.
+     * @return The created AssetResponse.
+     */
+    @Operation(
+            summary = "Create asset",
+            description = "Creates a new asset and returns the created asset info."
+    )
+    @ApiResponse(responseCode = "201", description = "Asset successfully created")
+    @RateLimiter(name = "assetCreationLimiter")
+    @PostMapping
+    public Mono<ResponseEntity<AssetResponse>> createAsset(@RequestBody @Valid AssetCreateRequest request) {
+        return reactiveAssetService.createAsset(request)
+                .map(created -> new ResponseEntity<>(created, HttpStatus.CREATED));
+    }
+
+    /**
+     * Retrieves an asset by its ID.
+     *
+     * @param assetId The ID of the asset to retrieve.
+     * @return The AssetResponse for the given asset ID.
+     */
+    @Operation(
+            summary = "Get asset by ID",
+            description = "Retrieves an asset by its unique identifier."
+    )
+    @ApiResponse(responseCode = "200", description = "Asset found and returned")
+    @ApiResponse(responseCode = "404", description = "Asset not found")
+    @RateLimiter(name = "assetRetrievalLimiter")
+    @GetMapping("/{assetId}")
+    public Mono<ResponseEntity<AssetResponse>> getAsset(@PathVariable String assetId) {
+        return reactiveAssetService.getAsset(assetId).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Retrieves many assets by their IDs.
+     *
+     * @param ids Comma separated or repeated asset IDs.
+     * @return Found assets and missing IDs.
+     */
+    @Operation(
+            summary = "Get assets by IDs",
+            description = "Retrieves many assets in one call and lists the IDs that were not found."
+    )
+    @ApiResponse(responseCode = "200", description = "Found assets and missing IDs returned")
+    @RateLimiter(name = "assetRetrievalLimiter")
+    @GetMapping
+    public Mono<ResponseEntity<AssetMultiGetResponse>> getAssets(
+            @RequestParam @NotEmpty @Size(max = AssetIdsRequest.MAX_IDS) List<String> ids) {
+        return reactiveAssetService.getAssets(ids).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Updates an existing asset.
+     *
+     * @param assetId The ID of the asset to update.
+     * @param request Updated asset data.
+     * @return The updated AssetResponse.
+     */
+    @Operation(
+            summary = "Update asset",
+            description = "Updates an existing asset with the given ID."
+    )
+    @ApiResponse(responseCode = "200", description = "Asset updated successfully")
+    @ApiResponse(responseCode = "404", description = "Asset not found")
+    @RateLimiter(name = "assetUpdateLimiter")
+    @PutMapping("/{assetId}")
+    public Mono<ResponseEntity<AssetResponse>> updateAsset(
+            @PathVariable String assetId,
+            @RequestBody @Valid AssetCreateRequest request) {
+        return reactiveAssetService.updateAsset(assetId, request).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Deletes one or more assets by their IDs.
+     *
+     * @param assetIds List of asset IDs to delete.
+     * @return 204 No Content if successful.
+     */
+    @Operation(
+            summary = "Delete assets",
+            description = "Deletes one or more assets by their IDs. Returns 204 No Content if deletion is successful."
+    )
+    @ApiResponse(responseCode = "204", description = "Assets deleted successfully")
+    @ApiResponse(responseCode = "404", description = "One or more assets not found")
+    @RateLimiter(name = "assetDeleteLimiter")
+    @DeleteMapping
+    public Mono<ResponseEntity<Void>> deleteAssets(@RequestBody List<String> assetIds) {
+        return reactiveAssetService.deleteAssets(assetIds)
+                .then(Mono.fromSupplier(() -> ResponseEntity.noContent().<Void>build()));
+    }
+}
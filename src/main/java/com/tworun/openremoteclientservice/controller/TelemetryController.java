@@ -0,0 +1,59 @@
+package com.tworun.openremoteclientservice.controller;
+
+import com.tworun.openremoteclientservice.dto.AttributeEvent;
+import com.tworun.openremoteclientservice.spool.AttributeWriteSpool;
+import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller for ingesting attribute writes through the durable {@link AttributeWriteSpool}.
+ * <p>
+ * Active with {@code openremote.spool.enabled=true}. Writes are acknowledged once they are on disk and sent to
+ * OpenRemote in the background, so they are not lost while OpenRemote or Keycloak is unavailable.
+ * </p>
+ */
+@Tag(name = "Telemetry", description = "Durable ingest of attribute writes")
+@RestController
+@RequestMapping("/api/telemetry")
+@ConditionalOnProperty(name = "openremote.spool.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class TelemetryController {
+
+    static final int MAX_EVENTS = 1000;
+
+    private final AttributeWriteSpool attributeWriteSpool;
+
+    /**
+     * Spools attribute writes for delivery to OpenRemote.
+     *
+     * @param events Attribute writes, e.g. {@code [{"ref": {"id": "...", "name": "temperature"}, "value": 21.5}]}.
+     * @return 202 Accepted once the writes are spooled.
+     */
+    @Operation(
+            summary = "Ingest attribute writes",
+            description = "Stores attribute writes in the local spool and returns; they are written to OpenRemote "
+                    + "in order in the background."
+    )
+    @ApiResponse(responseCode = "202", description = "Writes spooled")
+    @ApiResponse(responseCode = "503", description = "Spool is full, retry later")
+    @RateLimiter(name = "telemetryIngestLimiter")
+    @PostMapping
+    public ResponseEntity<Void> ingest(@RequestBody @NotEmpty @Size(max = MAX_EVENTS) List<@Valid AttributeEvent> events) {
+        attributeWriteSpool.append(events);
+        return ResponseEntity.accepted().build();
+    }
+}
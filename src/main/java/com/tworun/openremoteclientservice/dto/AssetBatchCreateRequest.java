@@ -0,0 +1,27 @@
+package com.tworun.openremoteclientservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for bulk asset creation requests.
+ * <p>
+ * Every asset in the list is validated before any asset is created.
+ * </p>
+ */
+@Data
+@Schema(name = "AssetBatchCreateRequest", description = "Request model for creating many assets in one call.")
+public class AssetBatchCreateRequest {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    @Schema(description = "Assets to create.", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotEmpty(message = "At least one asset is required.")
+    @Size(max = MAX_BATCH_SIZE, message = "At most " + MAX_BATCH_SIZE + " assets can be created in one batch.")
+    private List<@Valid AssetCreateRequest> assets;
+}
@@ -0,0 +1,40 @@
+package com.tworun.openremoteclientservice.dto;
+
+import com.tworun.openremoteclientservice.exception.ErrorResponse;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO representing the outcome of a single asset within a bulk creation request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "AssetBatchItemResult", description = "Result for one asset of a bulk creation request.")
+public class AssetBatchItemResult {
+
+    public static final String STATUS_CREATED = "CREATED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Schema(description = "Position of the asset in the request list.", example = "0")
+    private int index;
+
+    @Schema(description = "Outcome of the asset creation.", example = "CREATED")
+    private String status;
+
+    @Schema(description = "Created asset, if successful.")
+    private AssetResponse asset;
+
+    @Schema(description = "Error details, if creation failed.")
+    private ErrorResponse error;
+
+    public static AssetBatchItemResult created(int index, AssetResponse asset) {
+        return new AssetBatchItemResult(index, STATUS_CREATED, asset, null);
+    }
+
+    public static AssetBatchItemResult failed(int index, ErrorResponse error) {
+        return new AssetBatchItemResult(index, STATUS_FAILED, null, error);
+    }
+}
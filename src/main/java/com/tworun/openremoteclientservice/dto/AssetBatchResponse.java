@@ -0,0 +1,38 @@
+package com.tworun.openremoteclientservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO representing the response of a bulk asset creation request.
+ * <p>
+ * Contains one result per requested asset, in request order.
+ * </p>
+ */
+@Data
+@Schema(name = "AssetBatchResponse", description = "Response model for bulk asset creation.")
+public class AssetBatchResponse {
+
+    @Schema(description = "Number of assets in the request.", example = "3")
+    private int total;
+
+    @Schema(description = "Number of assets created successfully.", example = "2")
+    private int succeeded;
+
+    @Schema(description = "Number of assets that failed.", example = "1")
+    private int failed;
+
+    @Schema(description = "Per-asset results, in request order.")
+    private List<AssetBatchItemResult> results;
+
+    public AssetBatchResponse(List<AssetBatchItemResult> results) {
+        this.results = results;
+        this.total = results.size();
+        this.succeeded = (int) results.stream()
+                .filter(result -> AssetBatchItemResult.STATUS_CREATED.equals(result.getStatus()))
+                .count();
+        this.failed = total - succeeded;
+    }
+}
@@ -0,0 +1,25 @@
+package com.tworun.openremoteclientservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object carrying a list of asset ids, for requests too long to fit in a query string.
+ */
+@Data
+@Schema(name = "AssetIdsRequest", description = "Request model holding a list of asset ids.")
+public class AssetIdsRequest {
+
+    public static final int MAX_IDS = 1000;
+
+    @Schema(description = "Asset ids.", example = "[\"7clrHYLZxeyX8QMvTLijI8\",\"1AbcD2EfG3HiJ4KlM5NoPq\"]",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotEmpty(message = "At least one asset id is required.")
+    @Size(max = MAX_IDS, message = "At most " + MAX_IDS + " asset ids are allowed.")
+    private List<@NotBlank(message = "Asset id cannot be blank.") String> ids;
+}
@@ -0,0 +1,27 @@
+package com.tworun.openremoteclientservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO representing the response of a multi-get request.
+ * <p>
+ * Found assets and missing ids are returned separately, both in request order.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "AssetMultiGetResponse", description = "Response model for fetching many assets by id.")
+public class AssetMultiGetResponse {
+
+    @Schema(description = "Assets that were found.")
+    private List<AssetResponse> assets;
+
+    @Schema(description = "Requested ids for which no asset exists.", example = "[\"1AbcD2EfG3HiJ4KlM5NoPq\"]")
+    private List<String> missingIds;
+}
@@ -0,0 +1,84 @@
+package com.tworun.openremoteclientservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Subset of the OpenRemote {@code AssetQuery} model sent to the {@code /asset/query} endpoint.
+ * <p>
+ * Only the predicates used by this service are modelled; unset predicates are omitted from the request.
+ * </p>
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(name = "AssetQuery", description = "Query model for the OpenRemote asset query API.")
+public class AssetQuery {
+
+    @Schema(description = "Asset ids to match.", example = "[\"7clrHYLZxeyX8QMvTLijI8\"]")
+    private List<String> ids;
+
+    @Schema(description = "Parents whose children match.")
+    private List<ParentPredicate> parents;
+
+    @Schema(description = "With parents, match all descendants instead of direct children only.", example = "true")
+    private Boolean recursive;
+
+    @Schema(description = "Realm to match.")
+    private RealmPredicate realm;
+
+    @Schema(description = "Asset types to match.", example = "[\"ThingAsset\"]")
+    private List<String> types;
+
+    public static AssetQuery byIds(List<String> ids) {
+        AssetQuery query = new AssetQuery();
+        query.setIds(ids);
+        return query;
+    }
+
+    /**
+     * Builds a query for all descendants of a parent, or all assets of a realm, optionally limited to some types.
+     *
+     * @param parentId Id of the parent asset, null for any parent.
+     * @param realm Realm name, null for any realm.
+     * @param types Asset types, null or empty for any type.
+     */
+    public static AssetQuery subtree(String parentId, String realm, List<String> types) {
+        AssetQuery query = new AssetQuery();
+        if (parentId != null) {
+            query.setParents(List.of(new ParentPredicate(parentId)));
+            query.setRecursive(true);
+        }
+        if (realm != null) {
+            query.setRealm(new RealmPredicate(realm));
+        }
+        if (types != null && !types.isEmpty()) {
+            query.setTypes(types);
+        }
+        return query;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "ParentPredicate", description = "Matches the children of an asset.")
+    public static class ParentPredicate {
+
+        @Schema(description = "Id of the parent asset.", example = "1AbcD2EfG3HiJ4KlM5NoPq")
+        private String id;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "RealmPredicate", description = "Matches the assets of a realm.")
+    public static class RealmPredicate {
+
+        @Schema(description = "Realm name.", example = "master")
+        private String name;
+    }
+}
@@ -0,0 +1,41 @@
+package com.tworun.openremoteclientservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object selecting the assets to delete with a subtree delete.
+ * <p>
+ * A parent or a realm is required, so a request can never match every asset.
+ * </p>
+ */
+@Data
+@Schema(name = "AssetSubtreeDeleteRequest", description = "Request model for deleting the assets under a parent or in a realm.")
+public class AssetSubtreeDeleteRequest {
+
+    @Schema(description = "Delete all descendants of this asset (22 alphanumeric chars); the asset itself is kept.",
+            example = "1AbcD2EfG3HiJ4KlM5NoPq")
+    @Pattern(regexp = "^[0-9A-Za-z]{22}$", message = "ParentId must be 22 alphanumeric characters (A-Z, a-z, 0-9).")
+    private String parentId;
+
+    @Schema(description = "Delete only assets of this realm.", example = "master")
+    @Size(max = 255, message = "realm must be at most 255 characters.")
+    private String realm;
+
+    @Schema(description = "Delete only assets of these types.", example = "[\"ThingAsset\"]")
+    private List<@NotBlank(message = "Asset type cannot be blank.") String> types;
+
+    @JsonIgnore
+    @Schema(hidden = true)
+    @AssertTrue(message = "parentId or realm is required.")
+    public boolean isScoped() {
+        return parentId != null || realm != null;
+    }
+}
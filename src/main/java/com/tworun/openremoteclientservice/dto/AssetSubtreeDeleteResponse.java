@@ -0,0 +1,27 @@
+package com.tworun.openremoteclientservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO representing the outcome of a subtree delete.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "AssetSubtreeDeleteResponse", description = "Response model for deleting the assets under a parent or in a realm.")
+public class AssetSubtreeDeleteResponse {
+
+    @Schema(description = "Number of assets matching the request.", example = "250")
+    private int matched;
+
+    @Schema(description = "Number of assets deleted.", example = "248")
+    private int deleted;
+
+    @Schema(description = "Ids of matching assets that could not be deleted, including ancestors kept because their descendants could not be deleted.", example = "[\"7clrHYLZxeyX8QMvTLijI8\"]")
+    private List<String> failedIds;
+}
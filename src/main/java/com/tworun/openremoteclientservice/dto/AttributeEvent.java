@@ -0,0 +1,40 @@
+package com.tworun.openremoteclientservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * New value for one attribute, sent to the OpenRemote {@code /asset/attributes} endpoint.
+ * <p>
+ * Only the attribute reference and value travel over the wire, not the whole asset.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(name = "AttributeEvent", description = "New value for an attribute of an asset.")
+public class AttributeEvent {
+
+    @Schema(description = "Attribute to write.")
+    @NotNull(message = "Attribute reference must not be null")
+    @Valid
+    private AttributeRef ref;
+
+    @Schema(description = "New attribute value. Can be of any JSON type.", example = "21.5")
+    private JsonNode value;
+
+    @Schema(description = "Timestamp of the value (epoch millis); OpenRemote uses the current time if not set.",
+            example = "1729688512000")
+    private Long timestamp;
+
+    public AttributeEvent(String assetId, String attributeName, JsonNode value) {
+        this(new AttributeRef(assetId, attributeName), value, null);
+    }
+}
@@ -0,0 +1,27 @@
+package com.tworun.openremoteclientservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reference to a single attribute of an asset, as used by the OpenRemote attribute API.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "AttributeRef", description = "Reference to an attribute of an asset.")
+public class AttributeRef {
+
+    @Schema(description = "Asset ID.", example = "7clrHYLZxeyX8QMvTLijI8")
+    @NotBlank(message = "Asset ID cannot be blank.")
+    private String id;
+
+    @Schema(description = "Attribute name.", example = "temperature")
+    @NotBlank(message = "Attribute name cannot be blank.")
+    @Pattern(regexp = "^\\w+$", message = "Name must contain only letters, digits, and underscores.")
+    private String name;
+}
@@ -0,0 +1,23 @@
+package com.tworun.openremoteclientservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of writing one attribute value, as returned by the OpenRemote attribute API.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "AttributeWriteResult", description = "Result of writing an attribute value.")
+public class AttributeWriteResult {
+
+    @Schema(description = "Attribute that was written.")
+    private AttributeRef ref;
+
+    @Schema(description = "Failure reason reported by OpenRemote, null if the write succeeded.",
+            example = "ATTRIBUTE_NOT_FOUND")
+    private String failure;
+}
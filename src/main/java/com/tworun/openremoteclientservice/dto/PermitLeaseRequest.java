@@ -0,0 +1,30 @@
+package com.tworun.openremoteclientservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request of a replica for a block of rate limiter permits from the cluster-wide budget.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "PermitLeaseRequest", description = "Request for a block of rate limiter permits.")
+public class PermitLeaseRequest {
+
+    public static final int MAX_PERMITS = 1000;
+
+    @Schema(description = "Rate limiter name.", example = "assetRetrievalLimiter")
+    @NotBlank(message = "Rate limiter name cannot be blank.")
+    private String limiter;
+
+    @Schema(description = "Number of permits wanted.", example = "10")
+    @Min(value = 1, message = "At least one permit must be requested.")
+    @Max(value = MAX_PERMITS, message = "At most " + MAX_PERMITS + " permits can be requested.")
+    private int permits;
+}
@@ -0,0 +1,22 @@
+package com.tworun.openremoteclientservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Block of rate limiter permits granted to a replica.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "PermitLeaseResponse", description = "Block of rate limiter permits granted to a replica.")
+public class PermitLeaseResponse {
+
+    @Schema(description = "Rate limiter name.", example = "assetRetrievalLimiter")
+    private String limiter;
+
+    @Schema(description = "Number of permits granted, 0 if the cluster-wide budget is used up.", example = "10")
+    private int granted;
+}
@@ -0,0 +1,11 @@
+package com.tworun.openremoteclientservice.exception;
+
+/**
+ * Exception thrown when a conditional asset update finds the asset changed since the caller read it.
+ */
+public class AssetPreconditionFailedException extends RuntimeException {
+
+    public AssetPreconditionFailedException(String message) {
+        super(message);
+    }
+}
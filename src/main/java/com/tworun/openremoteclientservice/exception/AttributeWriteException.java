@@ -0,0 +1,27 @@
+package com.tworun.openremoteclientservice.exception;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when OpenRemote rejects an attribute write.
+ */
+@Getter
+public class AttributeWriteException extends RuntimeException {
+
+    /**
+     * Failure reason reported by OpenRemote (e.g. {@code ATTRIBUTE_NOT_FOUND}, {@code INVALID_VALUE}).
+     */
+    private final String failure;
+
+    public AttributeWriteException(String message, String failure) {
+        super(message);
+        this.failure = failure;
+    }
+
+    /**
+     * Whether the write failed because the attribute does not exist.
+     */
+    public boolean isNotFound() {
+        return failure != null && failure.endsWith("_NOT_FOUND");
+    }
+}
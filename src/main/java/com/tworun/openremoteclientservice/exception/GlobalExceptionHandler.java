@@ -1,13 +1,17 @@
 package com.tworun.openremoteclientservice.exception;
 
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.ratelimiter.RequestNotPermitted;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import java.util.List;
 
@@ -23,6 +27,9 @@ import java.util.List;
  *     <li>AUTH_TOKEN_NOT_FOUND</li>
  *     <li>VALIDATION_ERROR</li>
  *     <li>ASSET_NOT_FOUND</li>
+ *     <li>ATTRIBUTE_WRITE_FAILED</li>
+ *     <li>SPOOL_FULL</li>
+ *     <li>BULKHEAD_FULL</li>
  *     <li>INTERNAL_ERROR</li>
  * </ul>
  */
@@ -69,6 +76,26 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(errorResponse);
     }
 
+    /**
+     * Handles validation errors on request parameters (e.g. @RequestParam constraints).
+     */
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ErrorResponse> handleMethodValidationException(HandlerMethodValidationException ex) {
+        List<String> errors = ex.getParameterValidationResults().stream()
+                .flatMap(result -> result.getResolvableErrors().stream()
+                        .map(err -> result.getMethodParameter().getParameterName() + ": " + err.getDefaultMessage()))
+                .toList();
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                "VALIDATION_ERROR",
+                "Validation failed",
+                errors
+        );
+
+        log.warn("Validation error: {}", errors);
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
     /**
      * Handles cases where an asset could not be found.
      */
@@ -79,6 +106,57 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    /**
+     * Handles conditional updates of assets that were changed in the meantime.
+     */
+    @ExceptionHandler(AssetPreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handleAssetPreconditionFailed(AssetPreconditionFailedException ex) {
+        ErrorResponse error = new ErrorResponse("ASSET_MODIFIED", ex.getMessage());
+        log.warn("AssetPreconditionFailedException: {}", error);
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(error);
+    }
+
+    /**
+     * Handles attribute writes rejected by OpenRemote; 404 if the attribute does not exist, else 400.
+     */
+    @ExceptionHandler(AttributeWriteException.class)
+    public ResponseEntity<ErrorResponse> handleAttributeWriteException(AttributeWriteException ex) {
+        ErrorResponse error = new ErrorResponse("ATTRIBUTE_WRITE_FAILED", ex.getMessage());
+        log.warn("AttributeWriteException: {}", error);
+        HttpStatus status = ex.isNotFound() ? HttpStatus.NOT_FOUND : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(error);
+    }
+
+    /**
+     * Handles telemetry writes that cannot be spooled because the spool is full.
+     */
+    @ExceptionHandler(SpoolFullException.class)
+    public ResponseEntity<ErrorResponse> handleSpoolFullException(SpoolFullException ex) {
+        ErrorResponse error = new ErrorResponse("SPOOL_FULL", ex.getMessage());
+        log.warn("SpoolFullException: {}", error);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").body(error);
+    }
+
+    /**
+     * Handles asset operations rejected because the bulkhead of their operation is full.
+     */
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ErrorResponse> handleBulkheadFullException(BulkheadFullException ex) {
+        ErrorResponse error = new ErrorResponse("BULKHEAD_FULL", "Too many concurrent requests of this kind. Please try again later.");
+        log.warn("BulkheadFullException: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(error);
+    }
+
+    /**
+     * Handles OpenRemote calls rejected because the asset client circuit breaker is open.
+     */
+    @ExceptionHandler(CallNotPermittedException.class)
+    public ResponseEntity<ErrorResponse> handleCallNotPermittedException(CallNotPermittedException ex) {
+        ErrorResponse error = new ErrorResponse("UPSTREAM_UNAVAILABLE", "OpenRemote is unavailable. Please try again later.");
+        log.warn("CallNotPermittedException: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "10").body(error);
+    }
+
     @ExceptionHandler(RequestNotPermitted.class)
     @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
     public ResponseEntity<ErrorResponse> handleRequestNotPermittedException(RequestNotPermitted ex) {
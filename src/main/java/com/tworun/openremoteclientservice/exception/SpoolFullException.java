@@ -0,0 +1,11 @@
+package com.tworun.openremoteclientservice.exception;
+
+/**
+ * Exception thrown when the attribute write spool has no room left for new writes.
+ */
+public class SpoolFullException extends RuntimeException {
+
+    public SpoolFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,70 @@
+package com.tworun.openremoteclientservice.metrics;
+
+import feign.MethodMetadata;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.micrometer.FeignContext;
+import feign.micrometer.FeignObservationConvention;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Observation convention for Feign client calls, producing the {@code http.client.requests} timer.
+ * <p>
+ * Uses the same tag keys as Spring's own HTTP client instrumentation ({@code client.name}, {@code method},
+ * {@code uri}, {@code status}, {@code outcome}, {@code exception}), so Feign and WebClient calls end up in one
+ * Prometheus metric family. {@code uri} is the request template of the Feign method (e.g. {@code /asset/{assetId}}),
+ * so together with {@code client.name} and {@code method} it identifies each {@code AssetClient}/{@code AuthClient}
+ * method without high-cardinality ids.
+ * </p>
+ */
+public class FeignClientObservationConvention implements FeignObservationConvention {
+
+    private static final String NONE = "none";
+
+    @Override
+    public String getName() {
+        return "http.client.requests";
+    }
+
+    @Override
+    public String getContextualName(FeignContext context) {
+        return "http " + context.getCarrier().httpMethod().name().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(FeignContext context) {
+        Request request = context.getCarrier();
+        Response response = context.getResponse();
+        Throwable error = context.getError();
+        return KeyValues.of(
+                KeyValue.of("client.name", clientName(request.requestTemplate())),
+                KeyValue.of("method", request.httpMethod().name()),
+                KeyValue.of("uri", uri(request.requestTemplate())),
+                KeyValue.of("status", Objects.isNull(response) ? "CLIENT_ERROR" : String.valueOf(response.status())),
+                KeyValue.of("outcome", Objects.isNull(response) ? Outcome.UNKNOWN.name() : Outcome.forStatus(response.status()).name()),
+                KeyValue.of("exception", Objects.isNull(error) ? NONE : error.getClass().getSimpleName())
+        );
+    }
+
+    private static String clientName(RequestTemplate template) {
+        if (Objects.isNull(template) || Objects.isNull(template.feignTarget())) {
+            return NONE;
+        }
+        return template.feignTarget().name();
+    }
+
+    private static String uri(RequestTemplate template) {
+        MethodMetadata metadata = Objects.isNull(template) ? null : template.methodMetadata();
+        if (Objects.isNull(metadata)) {
+            return NONE;
+        }
+        String uri = metadata.template().url();
+        return uri.isEmpty() ? "/" : uri;
+    }
+}
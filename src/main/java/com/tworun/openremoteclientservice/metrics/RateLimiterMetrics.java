@@ -0,0 +1,104 @@
+package com.tworun.openremoteclientservice.metrics;
+
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long requests wait for a Resilience4j rate limiter permit, and how many are rejected.
+ * <p>
+ * Resilience4j itself only publishes available permissions and waiting threads. This aspect runs outside the
+ * {@code @RateLimiter} aspect and notes when a call enters it; the rate limiter's success and failure events,
+ * which are published on the calling thread once the permit is granted or the timeout expires, then record:
+ * </p>
+ * <ul>
+ *     <li>{@code openremote.ratelimiter.calls} - permitted and rejected calls, tagged by {@code name} and {@code outcome}</li>
+ *     <li>{@code openremote.ratelimiter.wait} - time spent waiting for a permit, tagged the same way</li>
+ * </ul>
+ * <p>
+ * Endpoints returning {@code Mono} acquire the permit on subscription, after this aspect returns, so only their
+ * calls are counted and no wait time is recorded.
+ * </p>
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class RateLimiterMetrics {
+
+    private static final ThreadLocal<Long> WAIT_START = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final RateLimiterRegistry rateLimiterRegistry;
+
+    @PostConstruct
+    void subscribe() {
+        rateLimiterRegistry.getAllRateLimiters().forEach(this::subscribe);
+        rateLimiterRegistry.getEventPublisher().onEntryAdded(event -> subscribe(event.getAddedEntry()));
+    }
+
+    /**
+     * Notes when a rate limited call starts waiting for its permit.
+     */
+    @Around("@annotation(io.github.resilience4j.ratelimiter.annotation.RateLimiter)"
+            + " || @within(io.github.resilience4j.ratelimiter.annotation.RateLimiter)")
+    public Object markWaitStart(ProceedingJoinPoint joinPoint) throws Throwable {
+        WAIT_START.set(System.nanoTime());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WAIT_START.remove();
+        }
+    }
+
+    private void subscribe(RateLimiter rateLimiter) {
+        OutcomeMeters permitted = new OutcomeMeters(rateLimiter.getName(), "permitted");
+        OutcomeMeters rejected = new OutcomeMeters(rateLimiter.getName(), "rejected");
+        rateLimiter.getEventPublisher()
+                .onSuccess(event -> permitted.record())
+                .onFailure(event -> rejected.record());
+    }
+
+    /**
+     * Meters of one rate limiter and outcome.
+     */
+    private final class OutcomeMeters {
+        private final Counter calls;
+        private final Timer wait;
+
+        private OutcomeMeters(String name, String outcome) {
+            calls = Counter.builder("openremote.ratelimiter.calls")
+                    .description("Calls that asked a rate limiter for a permit")
+                    .tag("name", name)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+            wait = Timer.builder("openremote.ratelimiter.wait")
+                    .description("Time spent waiting for a rate limiter permit")
+                    .tag("name", name)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+
+        private void record() {
+            calls.increment();
+            Long start = WAIT_START.get();
+            if (start != null) {
+                wait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                WAIT_START.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.tworun.openremoteclientservice.ratelimit;
+
+import feign.FeignException;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adjusts the asset endpoint rate limits to the health of the OpenRemote manager (AIMD).
+ * <p>
+ * Every {@code AssetClient} call is recorded against the rate limiter of the endpoints issuing it. Every
+ * {@code openremote.ratelimiter.adaptive.interval} the limit of each limiter in
+ * {@code openremote.ratelimiter.adaptive.limiters} that saw calls is:
+ * </p>
+ * <ul>
+ *     <li>multiplied by {@code decrease-factor} if any call was answered with 429, more than
+ *     {@code error-rate-threshold} of the calls failed with 5xx or an I/O error, or their mean latency exceeded
+ *     {@code latency-threshold};</li>
+ *     <li>raised by {@code increase-step} otherwise, if the limit was in use: a request was rejected, or at least
+ *     {@value #SATURATION} of the permits of the interval were granted;</li>
+ * </ul>
+ * <p>
+ * always staying within {@code min-limit} and {@code max-limit}. Limiters start from their configured
+ * {@code limitForPeriod}. The live limit of every rate limiter is published as {@code openremote.ratelimiter.limit}.
+ * Only limits change; the adaptation is off unless {@code openremote.ratelimiter.adaptive.enabled} is set.
+ * </p>
+ */
+@Slf4j
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class AdaptiveRateLimiter {
+
+    /**
+     * Rate limiter guarding the endpoints that issue each {@code AssetClient} method.
+     */
+    static final Map<String, String> LIMITER_BY_CLIENT_METHOD = Map.of(
+            "createAsset", "assetCreationLimiter",
+            "getAsset", "assetRetrievalLimiter",
+            "queryAssets", "assetRetrievalLimiter",
+            "updateAsset", "assetUpdateLimiter",
+            "deleteAssets", "assetDeleteLimiter",
+            "writeAttributeValue", "assetAttributeWriteLimiter",
+            "writeAttributeValues", "assetAttributeWriteLimiter");
+
+    /**
+     * Share of an interval's permits that must be granted before the limit is raised.
+     */
+    static final double SATURATION = 0.8;
+
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${openremote.ratelimiter.adaptive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${openremote.ratelimiter.adaptive.limiters:assetCreationLimiter,assetRetrievalLimiter,assetUpdateLimiter,assetDeleteLimiter}")
+    private List<String> limiterNames = List.of();
+
+    @Value("${openremote.ratelimiter.adaptive.interval:1s}")
+    private Duration interval = Duration.ofSeconds(1);
+
+    @Value("${openremote.ratelimiter.adaptive.min-limit:1}")
+    private int minLimit = 1;
+
+    @Value("${openremote.ratelimiter.adaptive.max-limit:100}")
+    private int maxLimit = 100;
+
+    @Value("${openremote.ratelimiter.adaptive.increase-step:1}")
+    private int increaseStep = 1;
+
+    @Value("${openremote.ratelimiter.adaptive.decrease-factor:0.5}")
+    private double decreaseFactor = 0.5;
+
+    @Value("${openremote.ratelimiter.adaptive.latency-threshold:1s}")
+    private Duration latencyThreshold = Duration.ofSeconds(1);
+
+    @Value("${openremote.ratelimiter.adaptive.error-rate-threshold:0.1}")
+    private double errorRateThreshold = 0.1;
+
+    private final Map<String, UpstreamWindow> windows = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService adjustScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "adaptive-rate-limiter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        rateLimiterRegistry.getAllRateLimiters().forEach(this::registerLimitGauge);
+        rateLimiterRegistry.getEventPublisher().onEntryAdded(event -> registerLimitGauge(event.getAddedEntry()));
+        if (enabled) {
+            limiterNames.forEach(name -> {
+                UpstreamWindow window = new UpstreamWindow(name);
+                windows.put(name, window);
+                rateLimiterRegistry.rateLimiter(name).getEventPublisher()
+                        .onSuccess(event -> window.permitted.increment())
+                        .onFailure(event -> window.rejected.increment());
+            });
+            adjustScheduler.scheduleWithFixedDelay(this::adjust, interval.toNanos(), interval.toNanos(),
+                    TimeUnit.NANOSECONDS);
+            log.info("Adaptive rate limiting enabled for {}", limiterNames);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        adjustScheduler.shutdownNow();
+    }
+
+    /**
+     * Records the latency and outcome of an {@code AssetClient} call for the limiter of its endpoints.
+     */
+    @Around("execution(* com.tworun.openremoteclientservice.client.AssetClient.*(..))")
+    public Object recordUpstreamCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        UpstreamWindow window = enabled ? windowFor(joinPoint.getSignature().getName()) : null;
+        if (Objects.isNull(window)) {
+            return joinPoint.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            window.record(System.nanoTime() - start, Outcome.SUCCESS);
+            return result;
+        } catch (FeignException ex) {
+            window.record(System.nanoTime() - start, Outcome.of(ex));
+            throw ex;
+        }
+    }
+
+    /**
+     * Applies one AIMD step to every adaptive limiter that saw upstream calls since the previous step.
+     */
+    void adjust() {
+        windows.values().forEach(window -> {
+            try {
+                window.adjust();
+            } catch (RuntimeException ex) {
+                log.warn("Failed to adjust rate limiter {}: {}", window.limiterName, ex.getMessage());
+            }
+        });
+    }
+
+    private UpstreamWindow windowFor(String clientMethod) {
+        String limiterName = LIMITER_BY_CLIENT_METHOD.get(clientMethod);
+        return Objects.isNull(limiterName) ? null : windows.get(limiterName);
+    }
+
+    private void registerLimitGauge(RateLimiter rateLimiter) {
+        Gauge.builder("openremote.ratelimiter.limit", rateLimiter,
+                        limiter -> limiter.getRateLimiterConfig().getLimitForPeriod())
+                .description("Permits per refresh period currently granted by a rate limiter")
+                .tag("name", rateLimiter.getName())
+                .register(meterRegistry);
+    }
+
+    enum Outcome {
+        SUCCESS, THROTTLED, ERROR;
+
+        /**
+         * 429 means OpenRemote is shedding load, 5xx and I/O errors ({@code status() == -1}) that it is
+         * unhealthy. Other 4xx are answers to the request itself and count as success.
+         */
+        static Outcome of(FeignException ex) {
+            if (ex.status() == 429) {
+                return THROTTLED;
+            }
+            return ex.status() >= 500 || ex.status() < 0 ? ERROR : SUCCESS;
+        }
+    }
+
+    /**
+     * Upstream calls of one rate limiter since the last adjustment.
+     */
+    private final class UpstreamWindow {
+        private final String limiterName;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder throttled = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+        private final LongAdder permitted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final Counter increases;
+        private final Counter decreases;
+
+        private UpstreamWindow(String limiterName) {
+            this.limiterName = limiterName;
+            increases = adjustmentCounter("increase");
+            decreases = adjustmentCounter("decrease");
+        }
+
+        private void record(long nanos, Outcome outcome) {
+            calls.increment();
+            latencyNanos.add(nanos);
+            switch (outcome) {
+                case THROTTLED -> throttled.increment();
+                case ERROR -> errors.increment();
+                default -> {
+                }
+            }
+        }
+
+        private void adjust() {
+            long windowCalls = calls.sumThenReset();
+            long windowThrottled = throttled.sumThenReset();
+            long windowErrors = errors.sumThenReset();
+            long windowLatencyNanos = latencyNanos.sumThenReset();
+            long windowPermitted = permitted.sumThenReset();
+            long windowRejected = rejected.sumThenReset();
+            if (windowCalls == 0) {
+                return;
+            }
+
+            RateLimiter rateLimiter = rateLimiterRegistry.rateLimiter(limiterName);
+            int limit = rateLimiter.getRateLimiterConfig().getLimitForPeriod();
+            boolean overloaded = windowThrottled > 0
+                    || (double) windowErrors / windowCalls > errorRateThreshold
+                    || windowLatencyNanos / windowCalls > latencyThreshold.toNanos();
+            double periods = (double) interval.toNanos() / rateLimiter.getRateLimiterConfig().getLimitRefreshPeriod().toNanos();
+            boolean saturated = windowRejected > 0 || windowPermitted >= SATURATION * limit * periods;
+            int next;
+            if (overloaded) {
+                next = Math.max(minLimit, (int) (limit * decreaseFactor));
+            } else if (saturated) {
+                next = Math.min(maxLimit, limit + increaseStep);
+            } else {
+                return;
+            }
+            if (next == limit) {
+                return;
+            }
+            rateLimiter.changeLimitForPeriod(next);
+            (overloaded ? decreases : increases).increment();
+            if (overloaded) {
+                log.info("Rate limiter {} lowered from {} to {}: {} calls, {} throttled, {} errors, mean {} ms",
+                        limiterName, limit, next, windowCalls, windowThrottled, windowErrors,
+                        TimeUnit.NANOSECONDS.toMillis(windowLatencyNanos / windowCalls));
+            } else {
+                log.debug("Rate limiter {} raised from {} to {}", limiterName, limit, next);
+            }
+        }
+
+        private Counter adjustmentCounter(String direction) {
+            return Counter.builder("openremote.ratelimiter.adjustments")
+                    .description("Limit changes made by adaptive rate limiting")
+                    .tag("name", limiterName)
+                    .tag("direction", direction)
+                    .register(meterRegistry);
+        }
+    }
+}
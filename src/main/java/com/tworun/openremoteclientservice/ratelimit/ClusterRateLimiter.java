@@ -0,0 +1,293 @@
+package com.tworun.openremoteclientservice.ratelimit;
+
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounds the asset endpoint rates across all replicas of the service.
+ * <p>
+ * With {@code openremote.ratelimiter.cluster.enabled}, the limits of the rate limiters in
+ * {@code openremote.ratelimiter.cluster.limiters} are cluster-wide budgets held by a {@link PermitCoordinator}.
+ * Each replica leases blocks of {@code block-size} permits and hands them out locally; a new block is leased in
+ * the background once half of the current one is used, so most requests never wait for the coordinator. Leased
+ * permits expire after {@code lease-ttl} so an idle replica cannot save them up for a burst. A request that finds
+ * no permit leases one itself and waits up to {@code max-wait} for the budget to refill, then is rejected with
+ * 429 like a rejection of the local rate limiter, which keeps applying on top. While the budget is used up, the
+ * coordinator is asked again only after the time one permit takes to refill, doubled after each empty lease up to
+ * one refresh period; waiting requests sleep until then instead of asking it themselves.
+ * </p>
+ * <p>
+ * While the coordinator cannot be reached, it is not asked again for {@code coordinator-retry-interval}, and
+ * requests are rejected, or only limited locally with {@code fail-open}. Endpoints returning a {@link Publisher}
+ * are not affected.
+ * </p>
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@RequiredArgsConstructor
+public class ClusterRateLimiter {
+
+    private final PermitCoordinator permitCoordinator;
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${openremote.ratelimiter.cluster.enabled:false}")
+    private boolean enabled;
+
+    @Value("${openremote.ratelimiter.cluster.limiters:assetCreationLimiter,assetBatchCreationLimiter,assetRetrievalLimiter,assetUpdateLimiter,assetDeleteLimiter,assetAttributeWriteLimiter}")
+    private List<String> limiterNames = List.of();
+
+    @Value("${openremote.ratelimiter.cluster.block-size:10}")
+    private int blockSize = 10;
+
+    @Value("${openremote.ratelimiter.cluster.lease-ttl:1s}")
+    private Duration leaseTtl = Duration.ofSeconds(1);
+
+    @Value("${openremote.ratelimiter.cluster.max-wait:500ms}")
+    private Duration maxWait = Duration.ofMillis(500);
+
+    @Value("${openremote.ratelimiter.cluster.coordinator-retry-interval:1s}")
+    private Duration coordinatorRetryInterval = Duration.ofSeconds(1);
+
+    @Value("${openremote.ratelimiter.cluster.fail-open:false}")
+    private boolean failOpen;
+
+    private final Map<String, LeasedPermits> leases = new ConcurrentHashMap<>();
+
+    private final ExecutorService prefetchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cluster-permit-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile long coordinatorDownUntil = System.nanoTime();
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        limiterNames.forEach(name -> leases.put(name, new LeasedPermits(rateLimiterRegistry.rateLimiter(name))));
+        log.info("Cluster-wide rate limiting enabled for {} with {}", limiterNames,
+                permitCoordinator.getClass().getSimpleName());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prefetchExecutor.shutdownNow();
+    }
+
+    /**
+     * Takes a leased cluster-wide permit for a rate limited controller call.
+     */
+    @Around(value = "@annotation(rateLimited) && within(com.tworun.openremoteclientservice.controller..*)",
+            argNames = "joinPoint,rateLimited")
+    public Object limit(ProceedingJoinPoint joinPoint,
+                        io.github.resilience4j.ratelimiter.annotation.RateLimiter rateLimited) throws Throwable {
+        LeasedPermits permits = leases.get(rateLimited.name());
+        if (Objects.nonNull(permits) && !returnsPublisher(joinPoint)) {
+            permits.acquire();
+        }
+        return joinPoint.proceed();
+    }
+
+    private static boolean returnsPublisher(ProceedingJoinPoint joinPoint) {
+        return joinPoint.getSignature() instanceof MethodSignature signature
+                && Publisher.class.isAssignableFrom(signature.getReturnType());
+    }
+
+    /**
+     * Permits of one rate limiter leased by this replica.
+     */
+    private final class LeasedPermits {
+        private final RateLimiter rateLimiter;
+        private final ReentrantLock leaseLock = new ReentrantLock();
+        private final Counter leased;
+        private final Counter rejected;
+        private final Counter coordinatorFailures;
+        private final long refillNanos;
+        private final long maxBackoffNanos;
+        private int available;                                            // Guarded by this
+        private long expiresAt;
+        private boolean prefetching;
+        private volatile long retryAt = System.nanoTime();                // Written under leaseLock
+        private long backoffNanos;                                        // Guarded by leaseLock
+
+        private LeasedPermits(RateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            String name = rateLimiter.getName();
+            RateLimiterConfig config = rateLimiter.getRateLimiterConfig();
+            maxBackoffNanos = config.getLimitRefreshPeriod().toNanos();
+            refillNanos = Math.max(1, maxBackoffNanos / Math.max(1, config.getLimitForPeriod()));
+            leased = Counter.builder("openremote.ratelimiter.cluster.leased")
+                    .description("Permits leased from the cluster-wide budget")
+                    .tag("name", name)
+                    .register(meterRegistry);
+            rejected = Counter.builder("openremote.ratelimiter.cluster.rejected")
+                    .description("Requests rejected because the cluster-wide budget was used up")
+                    .tag("name", name)
+                    .register(meterRegistry);
+            coordinatorFailures = Counter.builder("openremote.ratelimiter.cluster.coordinator.failures")
+                    .description("Failed attempts to lease permits from the coordinator")
+                    .tag("name", name)
+                    .register(meterRegistry);
+            Gauge.builder("openremote.ratelimiter.cluster.available", this, LeasedPermits::availablePermits)
+                    .description("Leased permits not used yet")
+                    .tag("name", name)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Returns once a leased permit is taken.
+         *
+         * @throws RequestNotPermitted if no permit was leased within {@code max-wait}.
+         */
+        private void acquire() {
+            long deadline = System.nanoTime() + maxWait.toNanos();
+            while (!tryTake()) {
+                if (System.nanoTime() - coordinatorDownUntil < 0 || !lease(blockSize)) {
+                    if (failOpen) {
+                        return;
+                    }
+                    throw reject();
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw reject();
+                }
+                long untilRetry = retryAt - System.nanoTime();
+                if (availablePermits() == 0 && untilRetry > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.sleep(Math.min(remaining, untilRetry));
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw reject();
+                    }
+                }
+            }
+        }
+
+        private synchronized boolean tryTake() {
+            if (availablePermits() == 0) {
+                return false;
+            }
+            available--;
+            if (available <= blockSize / 2 && !prefetching) {
+                prefetching = true;
+                try {
+                    prefetchExecutor.execute(this::prefetch);
+                } catch (RejectedExecutionException ex) {
+                    prefetching = false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Leases permits unless another thread has just done so or the budget was used up too recently to have
+         * refilled.
+         *
+         * @return false if the coordinator could not be reached.
+         */
+        private boolean lease(int permits) {
+            leaseLock.lock();
+            try {
+                return availablePermits() > 0 || System.nanoTime() - retryAt < 0 || leaseFromCoordinator(permits);
+            } finally {
+                leaseLock.unlock();
+            }
+        }
+
+        /**
+         * Tops the current block up to {@code block-size} permits before it runs out.
+         */
+        private void prefetch() {
+            leaseLock.lock();
+            try {
+                int permits = blockSize - availablePermits();
+                long now = System.nanoTime();
+                if (permits > 0 && now - coordinatorDownUntil >= 0 && now - retryAt >= 0) {
+                    leaseFromCoordinator(permits);
+                }
+            } finally {
+                leaseLock.unlock();
+                synchronized (this) {
+                    prefetching = false;
+                }
+            }
+        }
+
+        private boolean leaseFromCoordinator(int permits) {
+            try {
+                int granted = permitCoordinator.lease(rateLimiter.getName(), permits);
+                synchronized (this) {
+                    available = availablePermits() + granted;
+                    expiresAt = System.nanoTime() + leaseTtl.toNanos();
+                }
+                leased.increment(granted);
+                backOff(granted);
+                return true;
+            } catch (RuntimeException ex) {
+                coordinatorFailures.increment();
+                coordinatorDownUntil = System.nanoTime() + coordinatorRetryInterval.toNanos();
+                log.warn("Failed to lease {} permits from the coordinator, {} for {}: {}", rateLimiter.getName(),
+                        failOpen ? "limiting locally only" : "rejecting requests", coordinatorRetryInterval,
+                        ex.getMessage());
+                return false;
+            }
+        }
+
+        /**
+         * Sets when the coordinator may be asked again after a lease, called under {@code leaseLock}.
+         */
+        private void backOff(int granted) {
+            if (granted > 0) {
+                backoffNanos = 0;
+                return;
+            }
+            backoffNanos = backoffNanos == 0 ? Math.min(refillNanos, maxBackoffNanos)
+                    : Math.min(backoffNanos * 2, maxBackoffNanos);
+            retryAt = System.nanoTime() + backoffNanos;
+        }
+
+        private RequestNotPermitted reject() {
+            rejected.increment();
+            return RequestNotPermitted.createRequestNotPermitted(rateLimiter);
+        }
+
+        private synchronized int availablePermits() {
+            return System.nanoTime() - expiresAt >= 0 ? 0 : available;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.tworun.openremoteclientservice.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.github.resilience4j.ratelimiter.internal.AtomicRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shares the asset endpoint rate limits fairly between callers.
+ * <p>
+ * A caller is identified by the {@code openremote.ratelimiter.keyed.key-header} request header (an API key), or
+ * by its IP address if the header is missing. For every rate limiter in
+ * {@code openremote.ratelimiter.keyed.limiters}, a request must pass two stages before the {@code @RateLimiter}
+ * aspect takes its permit:
+ * </p>
+ * <ul>
+ *     <li>the caller's own token bucket, refilled at {@code key-share} times the limiter's current
+ *     {@code limitForPeriod} (times the caller's weight). An empty bucket rejects the request at once, so one
+ *     caller cannot use up the limit of everyone else;</li>
+ *     <li>a weighted fair queue in front of the limiter. While the limiter has no permits left, waiting requests
+ *     are admitted in start-time fair queueing order, so each caller gets a share of the permits proportional
+ *     to its weight, and wait up to {@code max-wait} instead of the limiter's own {@code timeoutDuration}.</li>
+ * </ul>
+ * <p>
+ * The limiter itself stays the global cap. Callers are kept in a map bounded by {@code max-keys} and evicted
+ * after {@code idle-eviction} without requests. Rejections are answered with 429 like those of the limiter.
+ * Endpoints returning a {@link Publisher} are not affected. Off unless {@code openremote.ratelimiter.keyed.enabled}
+ * is set.
+ * </p>
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class KeyedRateLimiter {
+
+    private static final String API_KEY_PREFIX = "key:";
+    private static final String IP_PREFIX = "ip:";
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Limiter whose permit was granted to the current thread by the fair queue and not yet taken.
+     */
+    private static final ThreadLocal<CallerLimiter> RESERVATION = new ThreadLocal<>();
+
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${openremote.ratelimiter.keyed.enabled:false}")
+    private boolean enabled;
+
+    @Value("${openremote.ratelimiter.keyed.limiters:assetCreationLimiter,assetBatchCreationLimiter,assetRetrievalLimiter,assetUpdateLimiter,assetDeleteLimiter,assetAttributeWriteLimiter}")
+    private List<String> limiterNames = List.of();
+
+    @Value("${openremote.ratelimiter.keyed.key-header:X-API-Key}")
+    private String keyHeader = "X-API-Key";
+
+    @Value("${openremote.ratelimiter.keyed.key-share:0.5}")
+    private double keyShare = 0.5;
+
+    @Value("${openremote.ratelimiter.keyed.weights:}")
+    private List<String> weights = List.of();
+
+    @Value("${openremote.ratelimiter.keyed.max-keys:10000}")
+    private long maxKeys = 10000;
+
+    @Value("${openremote.ratelimiter.keyed.idle-eviction:10m}")
+    private Duration idleEviction = Duration.ofMinutes(10);
+
+    @Value("${openremote.ratelimiter.keyed.max-wait:1s}")
+    private Duration maxWait = Duration.ofSeconds(1);
+
+    private final Map<String, CallerLimiter> limiters = new ConcurrentHashMap<>();
+    private Map<String, Double> weightByApiKey = Map.of();
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        weightByApiKey = parseWeights(weights);
+        limiterNames.forEach(name -> limiters.put(name, new CallerLimiter(rateLimiterRegistry.rateLimiter(name))));
+        log.info("Per-caller rate limiting enabled for {}, callers identified by {} or IP", limiterNames, keyHeader);
+    }
+
+    /**
+     * Admits a rate limited controller call through its caller's bucket and the fair queue.
+     */
+    @Around(value = "@annotation(rateLimited) && within(com.tworun.openremoteclientservice.controller..*)",
+            argNames = "joinPoint,rateLimited")
+    public Object limit(ProceedingJoinPoint joinPoint,
+                        io.github.resilience4j.ratelimiter.annotation.RateLimiter rateLimited) throws Throwable {
+        CallerLimiter limiter = limiters.get(rateLimited.name());
+        HttpServletRequest request = Objects.isNull(limiter) || returnsPublisher(joinPoint) ? null : currentRequest();
+        if (Objects.isNull(request)) {
+            return joinPoint.proceed();
+        }
+        String apiKey = request.getHeader(keyHeader);
+        if (StringUtils.hasText(apiKey)) {
+            limiter.admit(API_KEY_PREFIX + apiKey, weightByApiKey.getOrDefault(apiKey, 1.0));
+        } else {
+            limiter.admit(IP_PREFIX + request.getRemoteAddr(), 1.0);
+        }
+        try {
+            return joinPoint.proceed();
+        } finally {
+            limiter.releaseReservation();
+        }
+    }
+
+    private static boolean returnsPublisher(ProceedingJoinPoint joinPoint) {
+        return joinPoint.getSignature() instanceof MethodSignature signature
+                && Publisher.class.isAssignableFrom(signature.getReturnType());
+    }
+
+    private static HttpServletRequest currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest() : null;
+    }
+
+    /**
+     * Parses {@code apiKey=weight} entries.
+     */
+    static Map<String, Double> parseWeights(List<String> entries) {
+        Map<String, Double> parsed = new HashMap<>();
+        for (String entry : entries) {
+            if (!StringUtils.hasText(entry)) {
+                continue;
+            }
+            int separator = entry.lastIndexOf('=');
+            double weight = separator > 0 ? Double.parseDouble(entry.substring(separator + 1).trim()) : 0;
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Invalid caller weight '" + entry + "', expected apiKey=weight");
+            }
+            parsed.put(entry.substring(0, separator).trim(), weight);
+        }
+        return Map.copyOf(parsed);
+    }
+
+    /**
+     * Callers and fair queue of one rate limiter.
+     */
+    private final class CallerLimiter {
+        private final RateLimiter rateLimiter;
+        private final Cache<String, Caller> callers;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition dispatched = lock.newCondition();
+        private final PriorityQueue<Waiter> queue = new PriorityQueue<>(
+                Comparator.comparingDouble(Waiter::finish).thenComparingLong(Waiter::sequence));
+        private final Counter callerRejections;
+        private final Counter queueTimeouts;
+        private double virtualTime;
+        private long sequence;
+        private int reserved;
+
+        private CallerLimiter(RateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            callers = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(idleEviction)
+                    .build();
+            rateLimiter.getEventPublisher()
+                    .onSuccess(event -> releaseReservation())
+                    .onFailure(event -> releaseReservation());
+            callerRejections = rejectionCounter("caller-limit");
+            queueTimeouts = rejectionCounter("queue-timeout");
+            Gauge.builder("openremote.ratelimiter.keyed.callers", callers, Cache::estimatedSize)
+                    .description("Callers tracked by per-caller rate limiting")
+                    .tag("name", rateLimiter.getName())
+                    .register(meterRegistry);
+            Gauge.builder("openremote.ratelimiter.keyed.queued", queue, PriorityQueue::size)
+                    .description("Requests waiting in the fair queue for a rate limiter permit")
+                    .tag("name", rateLimiter.getName())
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Returns once the caller may take a permit from the rate limiter.
+         *
+         * @throws RequestNotPermitted if the caller's bucket is empty or no permit was free within {@code max-wait}.
+         */
+        private void admit(String key, double weight) {
+            Caller caller = callers.get(key, ignored -> new Caller());
+            RateLimiterConfig config = rateLimiter.getRateLimiterConfig();
+            double callerLimit = Math.max(1, config.getLimitForPeriod() * keyShare * weight);
+            if (!caller.tryAcquire(callerLimit, config.getLimitRefreshPeriod().toNanos())) {
+                callerRejections.increment();
+                throw RequestNotPermitted.createRequestNotPermitted(rateLimiter);
+            }
+
+            long deadline = System.nanoTime() + maxWait.toNanos();
+            lock.lock();
+            try {
+                double start = Math.max(virtualTime, caller.lastFinish);
+                Waiter waiter = new Waiter(start, start + 1 / weight, sequence++);
+                caller.lastFinish = waiter.finish();
+                queue.add(waiter);
+                while (true) {
+                    if (queue.peek() == waiter && rateLimiter.getMetrics().getAvailablePermissions() > reserved) {
+                        queue.poll();
+                        virtualTime = waiter.start();
+                        reserved++;
+                        RESERVATION.set(this);
+                        dispatched.signalAll();
+                        return;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        dequeue(waiter);
+                        queueTimeouts.increment();
+                        throw RequestNotPermitted.createRequestNotPermitted(rateLimiter);
+                    }
+                    // Only the head polls for the next refresh; the others wait for it to leave the queue
+                    dispatched.awaitNanos(queue.peek() == waiter ? Math.min(remaining, nanosToNextPermit()) : remaining);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw RequestNotPermitted.createRequestNotPermitted(rateLimiter);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Frees the permit reserved for the current thread, once the rate limiter has handed it out.
+         */
+        private void releaseReservation() {
+            if (RESERVATION.get() != this) {
+                return;
+            }
+            RESERVATION.remove();
+            lock.lock();
+            try {
+                reserved--;
+                dispatched.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void dequeue(Waiter waiter) {
+            queue.remove(waiter);
+            dispatched.signalAll();
+        }
+
+        private long nanosToNextPermit() {
+            return rateLimiter.getMetrics() instanceof AtomicRateLimiter.AtomicRateLimiterMetrics metrics
+                    ? Math.max(POLL_NANOS, metrics.getNanosToWait()) : POLL_NANOS;
+        }
+
+        private Counter rejectionCounter(String reason) {
+            return Counter.builder("openremote.ratelimiter.keyed.rejected")
+                    .description("Requests rejected by per-caller rate limiting")
+                    .tag("name", rateLimiter.getName())
+                    .tag("reason", reason)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Token bucket and fair queue finish tag of one caller.
+     */
+    private static final class Caller {
+        private double tokens = Double.NaN;
+        private long refilledAt;
+        private double lastFinish;                                     // Guarded by the limiter's lock
+
+        /**
+         * Takes a token, refilling the bucket at {@code limit} tokens per period up to {@code limit}. The limit is
+         * passed on every call so the bucket follows changes of the rate limiter.
+         */
+        private synchronized boolean tryAcquire(double limit, long periodNanos) {
+            long now = System.nanoTime();
+            tokens = Double.isNaN(tokens) ? limit
+                    : Math.min(limit, tokens + (double) (now - refilledAt) / periodNanos * limit);
+            refilledAt = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+
+    /**
+     * Request waiting in the fair queue, ordered by its virtual finish time.
+     */
+    private record Waiter(double start, double finish, long sequence) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.tworun.openremoteclientservice.ratelimit;
+
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process {@link PermitCoordinator}.
+ * <p>
+ * The cluster-wide budget of a rate limiter is its {@code limitForPeriod} per {@code limitRefreshPeriod} in this
+ * process, kept in a token bucket holding at most one period's worth of permits. Used directly when the service
+ * runs as a single replica or in tests, and behind {@code /internal/ratelimit/leases} on the replica that
+ * coordinates the others.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class LocalPermitCoordinator implements PermitCoordinator {
+
+    private final RateLimiterRegistry rateLimiterRegistry;
+
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+
+    @Override
+    public int lease(String limiterName, int permits) {
+        RateLimiterConfig config = rateLimiterRegistry.find(limiterName)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown rate limiter: " + limiterName))
+                .getRateLimiterConfig();
+        return budgets.computeIfAbsent(limiterName, ignored -> new Budget())
+                .take(permits, config.getLimitForPeriod(), config.getLimitRefreshPeriod().toNanos());
+    }
+
+    /**
+     * Token bucket of one rate limiter, starting full.
+     */
+    private static final class Budget {
+        private double tokens = Double.NaN;
+        private long refilledAt;
+
+        private synchronized int take(int permits, int limit, long periodNanos) {
+            long now = System.nanoTime();
+            tokens = Double.isNaN(tokens) ? limit
+                    : Math.min(limit, tokens + (double) (now - refilledAt) / periodNanos * limit);
+            refilledAt = now;
+            int granted = (int) Math.min(permits, Math.floor(tokens));
+            tokens -= granted;
+            return granted;
+        }
+    }
+}
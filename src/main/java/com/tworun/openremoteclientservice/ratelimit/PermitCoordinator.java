@@ -0,0 +1,21 @@
+package com.tworun.openremoteclientservice.ratelimit;
+
+/**
+ * Source of rate limiter permits shared by all replicas of the service.
+ * <p>
+ * Holds a cluster-wide budget per rate limiter and hands it out in blocks, so the upstream rate stays bounded
+ * however many replicas run. Used by {@link ClusterRateLimiter}.
+ * </p>
+ */
+public interface PermitCoordinator {
+
+    /**
+     * Leases up to {@code permits} permits of a rate limiter from the cluster-wide budget.
+     *
+     * @param limiterName Rate limiter name.
+     * @param permits Number of permits wanted.
+     * @return the number of permits granted, from 0 if the budget is used up to {@code permits}.
+     * @throws RuntimeException if the coordinator cannot be reached.
+     */
+    int lease(String limiterName, int permits);
+}
@@ -0,0 +1,34 @@
+package com.tworun.openremoteclientservice.ratelimit;
+
+import com.tworun.openremoteclientservice.client.PermitCoordinatorClient;
+import com.tworun.openremoteclientservice.dto.PermitLeaseRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link PermitCoordinator} served by another replica at {@code openremote.ratelimiter.cluster.coordinator-url}.
+ * <p>
+ * Active with {@code openremote.ratelimiter.cluster.coordinator=http}. The coordinating replica runs with
+ * {@code openremote.ratelimiter.cluster.serve-coordinator=true} and answers from its {@link LocalPermitCoordinator}.
+ * Both sides must share the same {@code openremote.ratelimiter.cluster.secret}.
+ * </p>
+ */
+@Primary
+@Component
+@ConditionalOnProperty(name = "openremote.ratelimiter.cluster.coordinator", havingValue = "http")
+@RequiredArgsConstructor
+public class RemotePermitCoordinator implements PermitCoordinator {
+
+    private final PermitCoordinatorClient permitCoordinatorClient;
+
+    @Value("${openremote.ratelimiter.cluster.secret:}")
+    private String secret = "";
+
+    @Override
+    public int lease(String limiterName, int permits) {
+        return permitCoordinatorClient.lease(new PermitLeaseRequest(limiterName, permits), secret).getGranted();
+    }
+}
@@ -0,0 +1,47 @@
+package com.tworun.openremoteclientservice.service;
+
+import com.tworun.openremoteclientservice.dto.AssetResponse;
+import org.springframework.http.ETag;
+
+import java.util.Objects;
+
+/**
+ * Entity tags of assets, for conditional asset reads and updates.
+ * <p>
+ * The tag combines the asset {@code version} with a hash of the asset content. OpenRemote does not raise the
+ * version on attribute value writes, so the version alone would not change when only attribute values do.
+ * </p>
+ *
+ * <b>Note:</b> This is a utility class and should not be instantiated.
+ */
+public final class AssetETags {
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private AssetETags() {}
+
+    /**
+     * Returns the quoted entity tag of an asset.
+     *
+     * @param asset Asset to tag.
+     * @return Strong entity tag, e.g. {@code "3-1a2b3c4d"}.
+     */
+    public static String of(AssetResponse asset) {
+        String hash = Integer.toHexString(asset.hashCode());
+        return Objects.isNull(asset.getVersion())
+                ? ETag.quoteETagIfNecessary(hash)
+                : ETag.quoteETagIfNecessary(asset.getVersion() + "-" + hash);
+    }
+
+    /**
+     * Checks an {@code If-Match} header against the tag of an asset.
+     *
+     * @param ifMatch Value of the {@code If-Match} header, a list of tags or {@code *}.
+     * @param asset Current state of the asset.
+     * @return Whether one of the tags matches the asset, using strong comparison.
+     */
+    public static boolean matches(String ifMatch, AssetResponse asset) {
+        ETag current = ETag.create(of(asset));
+        return ETag.parse(ifMatch).stream().anyMatch(tag -> tag.isWildcard() || tag.compare(current, true));
+    }
+}
@@ -0,0 +1,23 @@
+package com.tworun.openremoteclientservice.service;
+
+import com.tworun.openremoteclientservice.dto.AssetResponse;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * An asset read, either current or the last known copy served because OpenRemote was unavailable.
+ *
+ * @param asset The asset.
+ * @param staleFor Age of the last known copy, or {@code null} if the asset is current.
+ */
+public record AssetRead(AssetResponse asset, Duration staleFor) {
+
+    static AssetRead current(AssetResponse asset) {
+        return new AssetRead(asset, null);
+    }
+
+    public boolean isStale() {
+        return Objects.nonNull(staleFor);
+    }
+}
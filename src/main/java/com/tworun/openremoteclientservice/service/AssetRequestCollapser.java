@@ -0,0 +1,189 @@
+package com.tworun.openremoteclientservice.service;
+
+import com.tworun.openremoteclientservice.client.AssetClient;
+import com.tworun.openremoteclientservice.dto.AssetQuery;
+import com.tworun.openremoteclientservice.dto.AssetResponse;
+import feign.FeignException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Collapses concurrent single-asset reads in front of {@link AssetClient#getAsset}.
+ * <p>
+ * Concurrent requests for the same asset share one in-flight call. Requests for different assets arriving
+ * within {@code openremote.collapser.window} are merged into one {@link AssetClient#queryAssets} call of up to
+ * {@code openremote.collapser.max-batch-size} ids. A window of 0 disables merging and keeps only the
+ * in-flight sharing. Single-asset calls go through the {@link HedgedAssetReader}.
+ * </p>
+ * <p>
+ * A read while no other read is in flight is sent at once, so the window only delays reads under concurrency.
+ * Otherwise the request opening a batch collects it for the window, or until it is full, and runs it on its own
+ * thread. If the merged query fails, its ids are read one by one on the read executor.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AssetRequestCollapser {
+
+    private final AssetClient assetClient;
+    private final Executor assetReadExecutor;
+    private final HedgedAssetReader hedgedAssetReader;
+
+    @Value("${openremote.collapser.window:5ms}")
+    private Duration window = Duration.ofMillis(5);
+
+    @Value("${openremote.collapser.max-batch-size:50}")
+    private int maxBatchSize = 50;
+
+    private final Map<InFlightKey, CompletableFuture<AssetResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Batch> openBatches = new ConcurrentHashMap<>();
+
+    /**
+     * Retrieves an asset, sharing the upstream call with concurrent requests.
+     *
+     * @param authHeader Bearer access token header.
+     * @param assetId Asset's unique identifier.
+     * @return AssetResponse, or {@code null} if the asset does not exist.
+     * @throws FeignException if the upstream call fails.
+     */
+    public AssetResponse getAsset(String authHeader, String assetId) {
+        InFlightKey key = new InFlightKey(authHeader, assetId);
+        CompletableFuture<AssetResponse> request = new CompletableFuture<>();
+        CompletableFuture<AssetResponse> existing = inFlight.putIfAbsent(key, request);
+        if (existing != null) {
+            log.debug("Joining in-flight request for asset {}", assetId);
+            return await(existing);
+        }
+        request.whenComplete((asset, ex) -> inFlight.remove(key, request));
+
+        if (window.isZero() || inFlight.size() == 1) {
+            completeWithSingleGet(authHeader, assetId, request);
+        } else {
+            Batch opened = enqueue(authHeader, new PendingRequest(assetId, request));
+            if (opened != null) {
+                collectAndExecute(opened);
+            }
+        }
+        return await(request);
+    }
+
+    /**
+     * Adds the request to the open batch of its access token, opening a new one if there is none.
+     *
+     * @return the batch, if this request opened it and so has to execute it.
+     */
+    private Batch enqueue(String authHeader, PendingRequest pending) {
+        Batch[] opened = new Batch[1];
+        openBatches.compute(authHeader, (header, batch) -> {
+            if (batch == null) {
+                batch = new Batch(header);
+                opened[0] = batch;
+            }
+            batch.requests.add(pending);
+            if (batch.requests.size() >= maxBatchSize) {
+                batch.full.countDown();
+                return null;
+            }
+            return batch;
+        });
+        return opened[0];
+    }
+
+    /**
+     * Waits until the window has elapsed or the batch is full, then closes and executes the batch.
+     */
+    private void collectAndExecute(Batch batch) {
+        try {
+            batch.full.await(window.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        openBatches.remove(batch.authHeader, batch);
+        execute(batch);
+    }
+
+    private void execute(Batch batch) {
+        List<PendingRequest> requests = batch.requests;
+        if (requests.size() == 1) {
+            completeWithSingleGet(batch.authHeader, requests.get(0).assetId(), requests.get(0).future());
+            return;
+        }
+
+        List<String> ids = requests.stream().map(PendingRequest::assetId).toList();
+        log.debug("Collapsed {} asset requests into one query", ids.size());
+        try {
+            Map<String, AssetResponse> assets = assetClient.queryAssets(batch.authHeader, AssetQuery.byIds(ids)).stream()
+                    .collect(Collectors.toMap(AssetResponse::getId, Function.identity(), (first, second) -> first));
+            requests.forEach(request -> request.future().complete(assets.get(request.assetId())));
+        } catch (FeignException ex) {
+            log.warn("Collapsed asset query failed, falling back to single asset calls: {}", ex.getMessage());
+            for (PendingRequest request : requests) {
+                try {
+                    assetReadExecutor.execute(
+                            () -> completeWithSingleGet(batch.authHeader, request.assetId(), request.future()));
+                } catch (RuntimeException rejected) {
+                    request.future().completeExceptionally(rejected);
+                }
+            }
+        } catch (RuntimeException ex) {
+            requests.forEach(request -> request.future().completeExceptionally(ex));
+        }
+    }
+
+    private void completeWithSingleGet(String authHeader, String assetId, CompletableFuture<AssetResponse> future) {
+        try {
+            future.complete(hedgedAssetReader.getAsset(authHeader, assetId));
+        } catch (FeignException.NotFound ex) {
+            future.complete(null);
+        } catch (RuntimeException ex) {
+            future.completeExceptionally(ex);
+        }
+    }
+
+    private static AssetResponse await(CompletableFuture<AssetResponse> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private record InFlightKey(String authHeader, String assetId) {
+    }
+
+    private record PendingRequest(String assetId, CompletableFuture<AssetResponse> future) {
+    }
+
+    /**
+     * Requests collected within one window for the same access token.
+     * Only modified inside {@code openBatches.compute}, and executed by the request that opened it.
+     */
+    private static final class Batch {
+        private final String authHeader;
+        private final List<PendingRequest> requests = new ArrayList<>();
+        private final CountDownLatch full = new CountDownLatch(1);
+
+        private Batch(String authHeader) {
+            this.authHeader = authHeader;
+        }
+    }
+}
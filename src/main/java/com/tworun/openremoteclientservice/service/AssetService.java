@@ -1,30 +1,81 @@
 package com.tworun.openremoteclientservice.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.tworun.openremoteclientservice.cache.AssetCache;
+import com.tworun.openremoteclientservice.cache.LastKnownAsset;
 import com.tworun.openremoteclientservice.client.AssetClient;
+import com.tworun.openremoteclientservice.dto.AssetBatchItemResult;
+import com.tworun.openremoteclientservice.dto.AssetBatchResponse;
 import com.tworun.openremoteclientservice.dto.AssetCreateRequest;
+import com.tworun.openremoteclientservice.dto.AssetMultiGetResponse;
+import com.tworun.openremoteclientservice.dto.AssetQuery;
 import com.tworun.openremoteclientservice.dto.AssetResponse;
+import com.tworun.openremoteclientservice.dto.AssetSubtreeDeleteRequest;
+import com.tworun.openremoteclientservice.dto.AssetSubtreeDeleteResponse;
+import com.tworun.openremoteclientservice.dto.AttributeEvent;
+import com.tworun.openremoteclientservice.dto.AttributeRef;
+import com.tworun.openremoteclientservice.dto.AttributeWriteResult;
 import com.tworun.openremoteclientservice.exception.AssetNotFoundException;
+import com.tworun.openremoteclientservice.exception.AssetPreconditionFailedException;
+import com.tworun.openremoteclientservice.exception.AttributeWriteException;
+import com.tworun.openremoteclientservice.exception.ErrorResponse;
 import feign.FeignException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 /**
  * Service layer responsible for asset operations using the OpenRemote API.
  * Handles create, retrieve, update, and delete operations with proper logging and error handling.
+ * Reads are served from the {@link AssetCache} when possible; writes keep the cache up to date.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AssetService {
 
+    private static final String DELETE_ID_PARAM = "assetId=";
+
     private final AssetClient assetClient;
     private final AuthService authService;
+    private final AssetCache assetCache;
+    private final Executor assetReadExecutor;
+    private final Executor assetCreateExecutor;
+    private final Executor assetDeleteExecutor;
+    private final AssetRequestCollapser assetRequestCollapser;
+    private final AttributeWriteCoalescer attributeWriteCoalescer;
+
+    @Value("${openremote.bulk.use-asset-query:true}")
+    private boolean assetQueryEnabled = true;
+
+    @Value("${openremote.bulk.delete-chunk-size:100}")
+    private int deleteChunkSize = 100;
+
+    @Value("${openremote.bulk.max-query-length:4000}")
+    private int maxQueryLength = 4000;
 
     /**
-     * Creates a new asset using the provided request details.
+     * Creates a new asset using the provided request details, with the access token of the asset's realm.
      *
      * @param request Asset creation request DTO.
      * @return The created asset response.
@@ -32,11 +83,60 @@ public class AssetService {
      */
     public AssetResponse createAsset(AssetCreateRequest request) {
         log.info("Creating asset with name: {}, type: {}", request.getName(), request.getType());
+        String token = authService.getToken(request.getRealm());
+        return createAsset("Bearer " + token, request);
+    }
+
+    /**
+     * Creates many assets concurrently using one access token per realm.
+     * <p>
+     * Upstream calls run on the create executor, which bounds the parallelism. A failing asset is reported
+     * in its own result and does not affect the others; so are the assets of a realm whose token cannot be
+     * obtained.
+     * </p>
+     *
+     * @param requests Asset creation request DTOs, already validated.
+     * @return Per-asset results in request order.
+     */
+    public AssetBatchResponse createAssets(List<AssetCreateRequest> requests) {
+        log.info("Creating {} assets in batch", requests.size());
+        Map<String, String> authHeaders = new HashMap<>();
+        Map<String, RuntimeException> authFailures = new HashMap<>();
+        requests.stream().map(AssetCreateRequest::getRealm).distinct().forEach(realm -> {
+            try {
+                authHeaders.put(Objects.toString(realm, ""), "Bearer " + authService.getToken(realm));
+            } catch (RuntimeException ex) {
+                log.error("Failed to get a token for realm {}, failing its assets of the batch: {}", realm,
+                        ex.getMessage());
+                authFailures.put(Objects.toString(realm, ""), ex);
+            }
+        });
+
+        List<CompletableFuture<AssetBatchItemResult>> futures = IntStream.range(0, requests.size())
+                .mapToObj(index -> {
+                    String realm = Objects.toString(requests.get(index).getRealm(), "");
+                    if (authFailures.containsKey(realm)) {
+                        return CompletableFuture.completedFuture(
+                                AssetBatchItemResult.failed(index, toBatchError(authFailures.get(realm))));
+                    }
+                    return CompletableFuture.supplyAsync(
+                            () -> AssetBatchItemResult.created(index, createAsset(authHeaders.get(realm),
+                                    requests.get(index))),
+                            assetCreateExecutor
+                    ).exceptionally(ex -> AssetBatchItemResult.failed(index, toBatchError(ex)));
+                })
+                .toList();
+
+        AssetBatchResponse response = new AssetBatchResponse(futures.stream().map(CompletableFuture::join).toList());
+        log.info("Batch creation finished: {} created, {} failed", response.getSucceeded(), response.getFailed());
+        return response;
+    }
+
+    private AssetResponse createAsset(String authHeader, AssetCreateRequest request) {
         try {
-            String token = authService.getToken();
-            String authHeader = "Bearer " + token;
             AssetResponse response = assetClient.createAsset(authHeader, request);
             log.info("Asset created with id: {}", response.getId());
+            assetCache.put(response);
             return response;
         } catch (FeignException ex) {
             log.error("Failed to create asset with name: {} - {}", request.getName(), ex.getMessage());
@@ -44,28 +144,160 @@ public class AssetService {
         }
     }
 
+    private static ErrorResponse toBatchError(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        return new ErrorResponse("ASSET_CREATION_FAILED", cause.getMessage());
+    }
+
     /**
-     * Retrieves asset details for the given asset ID.
+     * Retrieves asset details for the given asset ID, from the cache if present.
+     * Cache misses go through the {@link AssetRequestCollapser}, so concurrent reads share upstream calls.
      *
      * @param assetId ID of the asset to retrieve.
-     * @return The asset response.
+     * @return The asset response, possibly the last known copy (see {@link #readAsset}).
      * @throws AssetNotFoundException if the asset is not found.
      * @throws RuntimeException for other Feign client errors.
      */
     public AssetResponse getAsset(String assetId) {
+        return readAsset(assetId).asset();
+    }
+
+    /**
+     * Retrieves an asset like {@link #getAsset}, telling whether it is current.
+     * <p>
+     * If OpenRemote fails with 429, 5xx or an I/O error, or its circuit breaker is open, the last known copy of
+     * the asset is returned instead, marked stale with its age. Without a last known copy the read fails.
+     * </p>
+     *
+     * @param assetId ID of the asset to retrieve.
+     * @return The asset and, if it is a last known copy, its age.
+     * @throws AssetNotFoundException if the asset is not found.
+     * @throws CallNotPermittedException if the circuit breaker is open and the asset is not known.
+     * @throws RuntimeException for other Feign client errors.
+     */
+    public AssetRead readAsset(String assetId) {
+        AssetResponse cached = assetCache.get(assetId);
+        if (cached != null) {
+            log.debug("Asset served from cache: {}", assetId);
+            return AssetRead.current(cached);
+        }
+
         log.info("Retrieving asset with id: {}", assetId);
         try {
             String token = authService.getToken();
             String authHeader = "Bearer " + token;
-            AssetResponse response = assetClient.getAsset(authHeader, assetId);
+            AssetResponse response = assetRequestCollapser.getAsset(authHeader, assetId);
+            if (response == null) {
+                log.warn("Asset not found with id: {}", assetId);
+                throw new AssetNotFoundException("Asset not found with id: " + assetId);
+            }
             log.info("Asset retrieved: {}", response.getId());
-            return response;
+            assetCache.put(response);
+            return AssetRead.current(response);
         } catch (FeignException.NotFound ex) {
             log.warn("Asset not found with id: {}", assetId);
+            assetCache.remove(List.of(assetId));
             throw new AssetNotFoundException("Asset not found with id: " + assetId);
         } catch (FeignException ex) {
+            AssetRead lastKnown = isUpstreamFailure(ex) ? readLastKnown(assetId) : null;
+            if (lastKnown != null) {
+                log.warn("Serving last known asset {} ({} s old): {}", assetId, lastKnown.staleFor().toSeconds(),
+                        ex.getMessage());
+                return lastKnown;
+            }
             log.error("Feign error when getting asset: {}", ex.getMessage(), ex);
             throw new RuntimeException("Failed to retrieve asset: " + ex.getMessage(), ex);
+        } catch (CallNotPermittedException ex) {
+            AssetRead lastKnown = readLastKnown(assetId);
+            if (lastKnown == null) {
+                throw ex;
+            }
+            log.warn("Serving last known asset {} ({} s old), circuit breaker is open", assetId,
+                    lastKnown.staleFor().toSeconds());
+            return lastKnown;
+        }
+    }
+
+    private AssetRead readLastKnown(String assetId) {
+        LastKnownAsset lastKnown = assetCache.getLastKnown(assetId);
+        return lastKnown == null ? null : new AssetRead(lastKnown.asset(), lastKnown.age());
+    }
+
+    /**
+     * 429, 5xx and I/O errors ({@code status() == -1}) mean OpenRemote could not answer; other 4xx are answers.
+     */
+    private static boolean isUpstreamFailure(FeignException ex) {
+        return ex.status() == 429 || ex.status() >= 500 || ex.status() < 0;
+    }
+
+    /**
+     * Retrieves many assets by id in one call.
+     * <p>
+     * Cached assets are served locally; the rest are fetched with a single OpenRemote asset query,
+     * falling back to bounded parallel single-asset calls if the query API is unavailable.
+     * </p>
+     *
+     * @param assetIds IDs of the assets to retrieve; duplicates are ignored.
+     * @return Found assets and missing ids, in request order.
+     * @throws RuntimeException for Feign client errors other than not found.
+     */
+    public AssetMultiGetResponse getAssets(Collection<String> assetIds) {
+        List<String> ids = assetIds.stream().distinct().toList();
+        Map<String, AssetResponse> found = new HashMap<>();
+        List<String> toFetch = new ArrayList<>();
+        for (String id : ids) {
+            AssetResponse cached = assetCache.get(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                toFetch.add(id);
+            }
+        }
+
+        log.info("Retrieving {} assets ({} cached)", ids.size(), found.size());
+        if (!toFetch.isEmpty()) {
+            String authHeader = "Bearer " + authService.getToken();
+            for (AssetResponse asset : fetchAssets(authHeader, toFetch)) {
+                assetCache.put(asset);
+                found.put(asset.getId(), asset);
+            }
+        }
+
+        List<AssetResponse> assets = ids.stream().filter(found::containsKey).map(found::get).toList();
+        List<String> missingIds = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        return new AssetMultiGetResponse(assets, missingIds);
+    }
+
+    private List<AssetResponse> fetchAssets(String authHeader, List<String> assetIds) {
+        if (assetQueryEnabled) {
+            try {
+                return assetClient.queryAssets(authHeader, AssetQuery.byIds(assetIds));
+            } catch (FeignException ex) {
+                log.warn("Asset query failed, falling back to single asset calls: {}", ex.getMessage());
+            }
+        }
+
+        List<CompletableFuture<AssetResponse>> futures = assetIds.stream()
+                .map(assetId -> CompletableFuture.supplyAsync(() -> fetchAssetOrNull(authHeader, assetId), assetReadExecutor))
+                .toList();
+        try {
+            return futures.stream().map(CompletableFuture::join).filter(Objects::nonNull).toList();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private AssetResponse fetchAssetOrNull(String authHeader, String assetId) {
+        try {
+            return assetClient.getAsset(authHeader, assetId);
+        } catch (FeignException.NotFound ex) {
+            return null;
+        } catch (FeignException ex) {
+            log.error("Feign error when getting asset {}: {}", assetId, ex.getMessage());
+            throw new RuntimeException("Failed to retrieve assets: " + ex.getMessage(), ex);
         }
     }
 
@@ -79,38 +311,214 @@ public class AssetService {
      * @throws RuntimeException for other Feign client errors.
      */
     public AssetResponse updateAsset(String assetId, AssetCreateRequest request) {
+        return updateAsset(assetId, request, null);
+    }
+
+    /**
+     * Updates an existing asset if it still matches the given entity tags.
+     * <p>
+     * The current asset is read from OpenRemote, not the cache, and compared with {@code ifMatch} (see
+     * {@link AssetETags}). A request without version is sent with the version read, so OpenRemote rejects the
+     * update if the asset changes between the check and the update.
+     * </p>
+     *
+     * @param assetId The ID of the asset to update.
+     * @param request The updated asset details.
+     * @param ifMatch Value of the {@code If-Match} header, or null to update unconditionally.
+     * @return The updated asset response.
+     * @throws AssetNotFoundException if the asset is not found.
+     * @throws AssetPreconditionFailedException if the asset no longer matches {@code ifMatch}.
+     * @throws RuntimeException for other Feign client errors.
+     */
+    public AssetResponse updateAsset(String assetId, AssetCreateRequest request, String ifMatch) {
         log.info("Updating asset with id: {} (name: {}, type: {})", assetId, request.getName(), request.getType());
         try {
-            String token = authService.getToken();
+            String token = authService.getToken(request.getRealm());
             String authHeader = "Bearer " + token;
+            if (ifMatch != null) {
+                checkPrecondition(authHeader, assetId, request, ifMatch);
+            }
             AssetResponse response = assetClient.updateAsset(authHeader, assetId, request);
             log.info("Asset updated: {}", response.getId());
+            assetCache.put(response);
             return response;
         } catch (FeignException.NotFound ex) {
             log.warn("Asset not found with id: {}", assetId);
+            assetCache.remove(List.of(assetId));
             throw new AssetNotFoundException("Asset not found with id: " + assetId);
+        } catch (FeignException.Conflict ex) {
+            if (ifMatch == null) {
+                log.error("Feign error when updating asset: {}", ex.getMessage());
+                throw new RuntimeException("Failed to update asset: " + ex.getMessage(), ex);
+            }
+            log.warn("Asset {} changed during conditional update", assetId);
+            assetCache.invalidate(assetId);
+            throw new AssetPreconditionFailedException("Asset was modified: " + assetId);
         } catch (FeignException ex) {
             log.error("Feign error when updating asset: {}", ex.getMessage());
             throw new RuntimeException("Failed to update asset: " + ex.getMessage(), ex);
         }
     }
 
+    private void checkPrecondition(String authHeader, String assetId, AssetCreateRequest request, String ifMatch) {
+        AssetResponse current = assetClient.getAsset(authHeader, assetId);
+        assetCache.put(current);
+        if (!AssetETags.matches(ifMatch, current)) {
+            log.warn("Asset {} does not match If-Match {}", assetId, ifMatch);
+            throw new AssetPreconditionFailedException("Asset was modified: " + assetId);
+        }
+        if (request.getVersion() == null) {
+            request.setVersion(current.getVersion());
+        }
+    }
+
+    /**
+     * Writes the value of a single attribute through the OpenRemote attribute API.
+     * Only the new value is sent; the cached asset is invalidated since its attribute values are now stale.
+     * With the {@link AttributeWriteCoalescer} enabled the value is buffered and written with the next flush;
+     * see {@link #isAttributeWriteDeferred()}.
+     *
+     * @param assetId The ID of the asset.
+     * @param attributeName The name of the attribute to write.
+     * @param value The new attribute value.
+     * @throws AssetNotFoundException if the asset is not found.
+     * @throws AttributeWriteException if OpenRemote rejects the write (e.g. unknown attribute, invalid value).
+     * @throws RuntimeException for other Feign client errors.
+     */
+    public void writeAttribute(String assetId, String attributeName, JsonNode value) {
+        log.debug("Writing attribute {} of asset {}", attributeName, assetId);
+        try {
+            AttributeWriteResult result;
+            if (attributeWriteCoalescer.isEnabled()) {
+                CompletableFuture<AttributeWriteResult> flushed = attributeWriteCoalescer.submit(assetId, attributeName, value);
+                if (!attributeWriteCoalescer.isAckOnFlush()) {
+                    return;
+                }
+                result = awaitFlush(flushed);
+            } else {
+                String authHeader = "Bearer " + authService.getToken();
+                result = assetClient.writeAttributeValue(authHeader, assetId, attributeName, value);
+                assetCache.invalidate(assetId);
+            }
+            String failure = Objects.isNull(result) ? null : result.getFailure();
+            if ("ASSET_NOT_FOUND".equals(failure)) {
+                throw new AssetNotFoundException("Asset not found with id: " + assetId);
+            }
+            if (Objects.nonNull(failure)) {
+                log.warn("Write of attribute {} of asset {} rejected: {}", attributeName, assetId, failure);
+                throw new AttributeWriteException(
+                        "Failed to write attribute " + attributeName + " of asset " + assetId + ": " + failure, failure);
+            }
+        } catch (FeignException.NotFound ex) {
+            log.warn("Asset not found with id: {}", assetId);
+            assetCache.invalidate(assetId);
+            throw new AssetNotFoundException("Asset not found with id: " + assetId);
+        } catch (FeignException ex) {
+            log.error("Feign error when writing attribute: {}", ex.getMessage());
+            throw new RuntimeException("Failed to write attribute: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Writes the values of many attributes of one asset in a single OpenRemote call.
+     * Only the new values are sent; the cached asset is invalidated since its attribute values are now stale.
+     * With the {@link AttributeWriteCoalescer} enabled the values are buffered and written with the next flush;
+     * see {@link #isAttributeWriteDeferred()}.
+     *
+     * @param assetId The ID of the asset.
+     * @param values New values by attribute name.
+     * @return One result per attribute; {@code failure} is set for rejected writes. Deferred writes report no failure.
+     * @throws AssetNotFoundException if the asset is not found.
+     * @throws RuntimeException for other Feign client errors.
+     */
+    public List<AttributeWriteResult> writeAttributes(String assetId, Map<String, JsonNode> values) {
+        log.debug("Writing {} attributes of asset {}", values.size(), assetId);
+        if (attributeWriteCoalescer.isEnabled()) {
+            return writeAttributesCoalesced(assetId, values);
+        }
+        List<AttributeEvent> events = values.entrySet().stream()
+                .map(entry -> new AttributeEvent(assetId, entry.getKey(), entry.getValue()))
+                .toList();
+        try {
+            String authHeader = "Bearer " + authService.getToken();
+            List<AttributeWriteResult> results = assetClient.writeAttributeValues(authHeader, events);
+            assetCache.invalidate(assetId);
+            return results;
+        } catch (FeignException.NotFound ex) {
+            log.warn("Asset not found with id: {}", assetId);
+            assetCache.invalidate(assetId);
+            throw new AssetNotFoundException("Asset not found with id: " + assetId);
+        } catch (FeignException ex) {
+            log.error("Feign error when writing attributes: {}", ex.getMessage());
+            throw new RuntimeException("Failed to write attributes: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Whether attribute writes are only buffered by the {@link AttributeWriteCoalescer} when the write methods
+     * return, rather than written upstream.
+     *
+     * @return true if the coalescer is enabled and acknowledges writes once accepted.
+     */
+    public boolean isAttributeWriteDeferred() {
+        return attributeWriteCoalescer.isEnabled() && !attributeWriteCoalescer.isAckOnFlush();
+    }
+
+    private List<AttributeWriteResult> writeAttributesCoalesced(String assetId, Map<String, JsonNode> values) {
+        List<CompletableFuture<AttributeWriteResult>> flushes = values.entrySet().stream()
+                .map(entry -> attributeWriteCoalescer.submit(assetId, entry.getKey(), entry.getValue()))
+                .toList();
+        if (!attributeWriteCoalescer.isAckOnFlush()) {
+            return values.keySet().stream()
+                    .map(name -> new AttributeWriteResult(new AttributeRef(assetId, name), null))
+                    .toList();
+        }
+        try {
+            return flushes.stream().map(AssetService::awaitFlush).toList();
+        } catch (FeignException ex) {
+            log.error("Feign error when writing attributes: {}", ex.getMessage());
+            throw new RuntimeException("Failed to write attributes: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static AttributeWriteResult awaitFlush(CompletableFuture<AttributeWriteResult> flushed) {
+        try {
+            return flushed.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
     /**
      * Deletes one or more assets by their IDs.
+     * <p>
+     * Id lists longer than {@code openremote.bulk.delete-chunk-size} ids, or than {@code max-query-length}
+     * characters of query string, are split into chunks deleted in parallel on the delete executor.
+     * </p>
      *
      * @param assetIds List of asset IDs to delete.
      * @throws AssetNotFoundException if some or all assets are not found.
      * @throws RuntimeException for other Feign client errors.
      */
     public void deleteAssets(List<String> assetIds) {
+        List<List<String>> chunks = chunkIds(assetIds.stream().distinct().toList(), deleteChunkSize, maxQueryLength);
+        if (chunks.size() > 1) {
+            deleteAssetsInChunks(chunks);
+            return;
+        }
         log.info("Deleting assets with ids: {}", assetIds);
         try {
             String token = authService.getToken();
             String authHeader = "Bearer " + token;
             assetClient.deleteAssets(authHeader, assetIds);
             log.info("Assets deleted: {}", assetIds);
+            assetCache.remove(assetIds);
         } catch (FeignException.BadRequest ex) {
             log.warn("Some asset(s) not found for ids: {}", assetIds);
+            assetCache.invalidateAll(assetIds);
             throw new AssetNotFoundException("Some asset(s) not found: " + assetIds);
         } catch (FeignException ex) {
             log.error("Feign error when deleting asset(s): {}", ex.getMessage());
@@ -118,4 +526,167 @@ public class AssetService {
         }
     }
 
+    private void deleteAssetsInChunks(List<List<String>> chunks) {
+        String authHeader = "Bearer " + authService.getToken();
+        List<DeletedChunk> results = deleteChunks(authHeader, chunks, new DeleteProgress(chunks));
+
+        List<String> notFoundIds = new ArrayList<>();
+        RuntimeException failure = null;
+        for (DeletedChunk result : results) {
+            if (result.error() instanceof FeignException.BadRequest) {
+                notFoundIds.addAll(result.ids());
+            } else if (result.error() != null) {
+                failure = result.error();
+            }
+        }
+        if (failure != null && !(failure instanceof FeignException)) {
+            throw failure;
+        }
+        if (failure != null) {
+            log.error("Feign error when deleting asset(s): {}", failure.getMessage());
+            throw new RuntimeException("Failed to delete asset(s): " + failure.getMessage(), failure);
+        }
+        if (!notFoundIds.isEmpty()) {
+            log.warn("Some asset(s) not found for ids: {}", notFoundIds);
+            throw new AssetNotFoundException("Some asset(s) not found: " + notFoundIds);
+        }
+    }
+
+    /**
+     * Deletes all descendants of a parent, or all assets of a realm, optionally limited to some asset types.
+     * <p>
+     * The matching ids are resolved with one OpenRemote asset query, then deleted in chunks like
+     * {@link #deleteAssets(List)}. Deeper assets are deleted before their ancestors, one level at a time, so a
+     * parent is never deleted while its children are. Progress is logged after every chunk. Failed chunks do not
+     * stop the others and are reported in the result; the ancestors of assets that could not be deleted are kept
+     * and reported as failed too.
+     * </p>
+     *
+     * @param request Parent, realm and types of the assets to delete.
+     * @return Number of matched and deleted assets, and the ids that could not be deleted.
+     * @throws RuntimeException if the matching assets could not be queried.
+     */
+    public AssetSubtreeDeleteResponse deleteSubtree(AssetSubtreeDeleteRequest request) {
+        log.info("Deleting assets under parent: {}, realm: {}, types: {}",
+                request.getParentId(), request.getRealm(), request.getTypes());
+        String authHeader = "Bearer " + authService.getToken(request.getRealm());
+        List<AssetResponse> matched;
+        try {
+            matched = assetClient.queryAssets(authHeader,
+                    AssetQuery.subtree(request.getParentId(), request.getRealm(), request.getTypes()));
+        } catch (FeignException ex) {
+            log.error("Feign error when querying assets to delete: {}", ex.getMessage());
+            throw new RuntimeException("Failed to query assets to delete: " + ex.getMessage(), ex);
+        }
+
+        // Deepest level first; path holds the ids from the asset up to its root
+        TreeMap<Integer, List<String>> idsByDepth = new TreeMap<>(Comparator.reverseOrder());
+        Map<String, List<String>> pathsById = new HashMap<>();
+        matched.stream()
+                .filter(asset -> !Objects.equals(asset.getId(), request.getParentId()))
+                .forEach(asset -> {
+                    List<String> path = Objects.isNull(asset.getPath()) ? List.of() : asset.getPath();
+                    pathsById.put(asset.getId(), path);
+                    idsByDepth.computeIfAbsent(path.size(), depth -> new ArrayList<>()).add(asset.getId());
+                });
+
+        DeleteProgress progress = new DeleteProgress(List.copyOf(idsByDepth.values()));
+        List<String> failedIds = new ArrayList<>();
+        Set<String> keptAncestors = new HashSet<>();
+        for (List<String> level : idsByDepth.values()) {
+            List<String> skipped = level.stream().filter(keptAncestors::contains).toList();
+            if (!skipped.isEmpty()) {
+                log.warn("Not deleting {} asset(s) whose descendants could not be deleted", skipped.size());
+                progress.record(new DeletedChunk(skipped, new IllegalStateException("Descendants not deleted")));
+                failedIds.addAll(skipped);
+            }
+            List<String> toDelete = level.stream().filter(id -> !keptAncestors.contains(id)).toList();
+            for (DeletedChunk result : deleteChunks(authHeader, chunkIds(toDelete, deleteChunkSize, maxQueryLength),
+                    progress)) {
+                if (result.error() != null) {
+                    log.warn("Failed to delete {} asset(s): {}", result.ids().size(), result.error().getMessage());
+                    failedIds.addAll(result.ids());
+                }
+            }
+            failedIds.forEach(id -> keptAncestors.addAll(pathsById.getOrDefault(id, List.of())));
+        }
+        int total = progress.total;
+        log.info("Subtree delete finished: {} of {} assets deleted", total - failedIds.size(), total);
+        return new AssetSubtreeDeleteResponse(total, total - failedIds.size(), failedIds);
+    }
+
+    private List<DeletedChunk> deleteChunks(String authHeader, List<List<String>> chunks, DeleteProgress progress) {
+        List<CompletableFuture<DeletedChunk>> futures = chunks.stream()
+                .map(chunk -> CompletableFuture.supplyAsync(() -> progress.record(deleteChunk(authHeader, chunk)),
+                        assetDeleteExecutor))
+                .toList();
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private DeletedChunk deleteChunk(String authHeader, List<String> chunk) {
+        try {
+            assetClient.deleteAssets(authHeader, chunk);
+            assetCache.remove(chunk);
+            return new DeletedChunk(chunk, null);
+        } catch (RuntimeException ex) {
+            assetCache.invalidateAll(chunk);
+            return new DeletedChunk(chunk, ex);
+        }
+    }
+
+    /**
+     * Splits ids into chunks of at most {@code maxIds} ids whose {@code assetId=...&} query parameters fit
+     * in {@code maxQueryLength} characters. An id longer than that on its own gets a chunk of its own.
+     */
+    static List<List<String>> chunkIds(List<String> ids, int maxIds, int maxQueryLength) {
+        List<List<String>> chunks = new ArrayList<>();
+        List<String> chunk = new ArrayList<>();
+        int queryLength = 0;
+        for (String id : ids) {
+            int paramLength = DELETE_ID_PARAM.length() + URLEncoder.encode(id, StandardCharsets.UTF_8).length() + 1;
+            if (!chunk.isEmpty() && (chunk.size() >= maxIds || queryLength + paramLength > maxQueryLength)) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                queryLength = 0;
+            }
+            chunk.add(id);
+            queryLength += paramLength;
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    private record DeletedChunk(List<String> ids, RuntimeException error) {
+    }
+
+    /**
+     * Counts the assets deleted so far by one bulk delete, for progress logging.
+     */
+    private static final class DeleteProgress {
+        private final int total;
+        private final AtomicInteger done = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+
+        private DeleteProgress(List<List<String>> chunks) {
+            this.total = chunks.stream().mapToInt(List::size).sum();
+        }
+
+        private DeletedChunk record(DeletedChunk chunk) {
+            if (chunk.error() != null) {
+                failed.addAndGet(chunk.ids().size());
+            }
+            log.info("Deleting assets: {}/{} processed, {} failed",
+                    done.addAndGet(chunk.ids().size()), total, failed.get());
+            return chunk;
+        }
+    }
 }
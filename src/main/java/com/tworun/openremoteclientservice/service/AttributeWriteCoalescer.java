@@ -0,0 +1,319 @@
+package com.tworun.openremoteclientservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.tworun.openremoteclientservice.cache.AssetCache;
+import com.tworun.openremoteclientservice.client.AssetClient;
+import com.tworun.openremoteclientservice.dto.AttributeEvent;
+import com.tworun.openremoteclientservice.dto.AttributeRef;
+import com.tworun.openremoteclientservice.dto.AttributeWriteResult;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces high-frequency attribute writes in front of {@link AssetClient#writeAttributeValues}.
+ * <p>
+ * Only the latest value of each (asset, attribute) pair is kept. Dirty entries are written upstream in batches of
+ * up to {@code openremote.coalescer.max-batch-size} values, {@code openremote.coalescer.flush-interval} after the
+ * first pending write, or as soon as that many attributes are pending. A value replaced before it was flushed is
+ * never sent; its caller is acknowledged with the result of the value that replaced it.
+ * </p>
+ * <p>
+ * Disabled unless {@code openremote.coalescer.enabled} is set. {@code openremote.coalescer.ack-mode} decides
+ * whether callers are answered once the write is accepted into the buffer or once it has been flushed.
+ * </p>
+ * <p>
+ * In {@code accepted} mode a value whose flush failed is put back into the buffer, unless a newer value of the
+ * same attribute has arrived meanwhile, and retried with the next flush. After
+ * {@code openremote.coalescer.max-flush-attempts} failed flushes, or if the service stops before a retry, the
+ * value is dropped although its caller was already answered. Such values, and values OpenRemote rejects, are
+ * counted with the {@code failed} outcome of {@code openremote.coalescer.flushed}.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AttributeWriteCoalescer implements MeterBinder {
+
+    /**
+     * When a coalesced write is acknowledged to the caller.
+     */
+    public enum AckMode {
+        /**
+         * As soon as the value is in the buffer. A failed flush is retried up to {@code max-flush-attempts} times;
+         * a value still failing after that is lost, and only logged and counted.
+         */
+        ACCEPTED,
+        /** Once the batch containing the value (or a newer one) has been written upstream. */
+        FLUSHED
+    }
+
+    private final AssetClient assetClient;
+    private final AuthService authService;
+    private final AssetCache assetCache;
+
+    @Value("${openremote.coalescer.enabled:false}")
+    private boolean enabled;
+
+    @Value("${openremote.coalescer.flush-interval:200ms}")
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    @Value("${openremote.coalescer.max-batch-size:500}")
+    private int maxBatchSize = 500;
+
+    @Value("${openremote.coalescer.ack-mode:accepted}")
+    private AckMode ackMode = AckMode.ACCEPTED;
+
+    @Value("${openremote.coalescer.max-flush-attempts:3}")
+    private int maxFlushAttempts = 3;
+
+    private final Map<AttributeRef, PendingWrite> dirty = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicBoolean sizeFlushRequested = new AtomicBoolean();
+
+    private final LongAdder acceptedWrites = new LongAdder();
+    private final LongAdder coalescedWrites = new LongAdder();
+    private final LongAdder flushedWrites = new LongAdder();
+    private final LongAdder failedWrites = new LongAdder();
+
+    private final ScheduledExecutorService flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "attribute-coalescer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Whether attribute writes go through the buffer.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether callers wait for the flush instead of being answered once their write is accepted.
+     */
+    public boolean isAckOnFlush() {
+        return ackMode == AckMode.FLUSHED;
+    }
+
+    /**
+     * Buffers the latest value of an attribute, replacing any value of the same attribute not yet flushed.
+     *
+     * @param assetId The ID of the asset.
+     * @param attributeName The name of the attribute.
+     * @param value The new attribute value.
+     * @return Completes with the upstream write result once the value (or a newer one) has been flushed,
+     *         or exceptionally if the flush failed.
+     */
+    public CompletableFuture<AttributeWriteResult> submit(String assetId, String attributeName, JsonNode value) {
+        AttributeRef ref = new AttributeRef(assetId, attributeName);
+        CompletableFuture<AttributeWriteResult> acknowledgement = new CompletableFuture<>();
+        long timestamp = System.currentTimeMillis();
+        dirty.compute(ref, (key, pending) -> {
+            if (pending == null) {
+                acceptedWrites.increment();
+                return new PendingWrite(key, value, timestamp, acknowledgement);
+            }
+            coalescedWrites.increment();
+            pending.replace(value, timestamp, acknowledgement);
+            return pending;
+        });
+
+        try {
+            if (dirty.size() >= maxBatchSize && sizeFlushRequested.compareAndSet(false, true)) {
+                flushScheduler.execute(() -> {
+                    sizeFlushRequested.set(false);
+                    flush();
+                });
+            } else {
+                scheduleFlush();
+            }
+        } catch (RejectedExecutionException ex) {
+            // shutting down: the final flush in shutdown() picks the value up
+            log.debug("Coalescer is shutting down, attribute {} of asset {} left for the final flush",
+                    attributeName, assetId);
+        }
+        return acknowledgement;
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            flushScheduler.schedule(this::flush, flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Writes every dirty attribute upstream, in batches of at most {@code max-batch-size} values.
+     * Runs on the flush scheduler, or on the caller during shutdown.
+     */
+    void flush() {
+        flushScheduled.set(false);
+        List<PendingWrite> batch = new ArrayList<>();
+        for (AttributeRef ref : dirty.keySet()) {
+            PendingWrite pending = dirty.remove(ref);
+            if (Objects.isNull(pending)) {
+                continue;
+            }
+            batch.add(pending);
+            if (batch.size() >= maxBatchSize) {
+                write(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    /**
+     * Flushes whatever is still buffered and stops the flush scheduler.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flushScheduler.shutdownNow();
+        try {
+            flushScheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("openremote.coalescer.writes", acceptedWrites, LongAdder::doubleValue)
+                .description("Attribute writes submitted to the coalescing buffer")
+                .tag("outcome", "accepted")
+                .register(registry);
+        FunctionCounter.builder("openremote.coalescer.writes", coalescedWrites, LongAdder::doubleValue)
+                .description("Attribute writes submitted to the coalescing buffer")
+                .tag("outcome", "coalesced")
+                .register(registry);
+        FunctionCounter.builder("openremote.coalescer.flushed", flushedWrites, LongAdder::doubleValue)
+                .description("Attribute values written upstream by the coalescing buffer")
+                .tag("outcome", "success")
+                .register(registry);
+        FunctionCounter.builder("openremote.coalescer.flushed", failedWrites, LongAdder::doubleValue)
+                .description("Attribute values written upstream by the coalescing buffer")
+                .tag("outcome", "failed")
+                .register(registry);
+        Gauge.builder("openremote.coalescer.pending", dirty, Map::size)
+                .description("Attributes waiting to be flushed")
+                .register(registry);
+    }
+
+    private void write(List<PendingWrite> batch) {
+        List<AttributeEvent> events = batch.stream()
+                .map(pending -> new AttributeEvent(pending.ref, pending.value, pending.timestamp))
+                .toList();
+        log.debug("Flushing {} coalesced attribute writes", events.size());
+        try {
+            String authHeader = "Bearer " + authService.getToken();
+            List<AttributeWriteResult> results = assetClient.writeAttributeValues(authHeader, events);
+            Map<AttributeRef, AttributeWriteResult> resultsByRef = Objects.requireNonNullElse(results,
+                            List.<AttributeWriteResult>of()).stream()
+                    .filter(result -> Objects.nonNull(result.getRef()))
+                    .collect(Collectors.toMap(AttributeWriteResult::getRef, Function.identity(), (first, second) -> first));
+            int rejected = 0;
+            for (PendingWrite pending : batch) {
+                AttributeWriteResult result = resultsByRef.getOrDefault(pending.ref,
+                        new AttributeWriteResult(pending.ref, null));
+                if (Objects.nonNull(result.getFailure())) {
+                    rejected++;
+                }
+                pending.complete(result);
+            }
+            flushedWrites.add(events.size() - rejected);
+            failedWrites.add(rejected);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to flush {} coalesced attribute writes: {}", events.size(), ex.getMessage());
+            if (ackMode == AckMode.ACCEPTED) {
+                retry(batch, ex);
+            } else {
+                batch.forEach(pending -> pending.fail(ex));
+            }
+        } finally {
+            batch.stream().map(pending -> pending.ref.getId()).distinct().forEach(assetCache::invalidate);
+        }
+    }
+
+    /**
+     * Puts the values of a failed flush back into the buffer, unless a newer value of the same attribute is
+     * already buffered, and drops those that failed {@code max-flush-attempts} times.
+     */
+    private void retry(List<PendingWrite> batch, RuntimeException ex) {
+        int dropped = 0;
+        for (PendingWrite pending : batch) {
+            if (++pending.attempts >= maxFlushAttempts) {
+                pending.fail(ex);
+                dropped++;
+            } else {
+                dirty.putIfAbsent(pending.ref, pending);
+            }
+        }
+        if (dropped > 0) {
+            failedWrites.add(dropped);
+            log.error("Dropped {} acknowledged attribute writes after {} failed flushes", dropped, maxFlushAttempts);
+        }
+        try {
+            scheduleFlush();
+        } catch (RejectedExecutionException rejected) {
+            log.error("Coalescer is shutting down, {} acknowledged attribute writes were not written", dirty.size());
+        }
+    }
+
+    /**
+     * Latest value of one attribute and every caller waiting for it.
+     * Only modified inside {@code dirty.compute}, and read by the flush that unmapped it.
+     */
+    private static final class PendingWrite {
+        private final AttributeRef ref;
+        private final List<CompletableFuture<AttributeWriteResult>> acknowledgements = new ArrayList<>();
+        private JsonNode value;
+        private long timestamp;
+        private int attempts;
+
+        private PendingWrite(AttributeRef ref, JsonNode value, long timestamp,
+                             CompletableFuture<AttributeWriteResult> acknowledgement) {
+            this.ref = ref;
+            replace(value, timestamp, acknowledgement);
+        }
+
+        private void replace(JsonNode value, long timestamp, CompletableFuture<AttributeWriteResult> acknowledgement) {
+            this.value = value;
+            this.timestamp = timestamp;
+            this.attempts = 0;                                            // Failed flushes are counted per value
+            acknowledgements.add(acknowledgement);
+        }
+
+        private void complete(AttributeWriteResult result) {
+            acknowledgements.forEach(acknowledgement -> acknowledgement.complete(result));
+        }
+
+        private void fail(RuntimeException ex) {
+            acknowledgements.forEach(acknowledgement -> acknowledgement.completeExceptionally(ex));
+        }
+    }
+}
@@ -1,88 +1,314 @@
 package com.tworun.openremoteclientservice.service;
 
-import com.tworun.openremoteclientservice.client.AuthClient;
-import com.tworun.openremoteclientservice.constants.AuthConstants;
 import com.tworun.openremoteclientservice.dto.TokenResponse;
 import com.tworun.openremoteclientservice.exception.AccessTokenNotFoundException;
 import com.tworun.openremoteclientservice.exception.AuthException;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
 
-import java.util.Objects;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Service for obtaining OAuth2 access tokens from the OpenRemote Auth Server.
- * Wraps token request logic, error handling, and configuration.
+ * <p>
+ * The current token is kept as an immutable snapshot, so {@link #getToken()} is a plain volatile read
+ * while the token is valid. A background task refreshes the token well before it expires, and at most one
+ * refresh against the Auth server runs at any time; callers only wait when no valid token is available.
+ * </p>
+ * <p>
+ * {@link #getToken(String)} serves the realms configured in {@link RealmRegistry} the same way. Each realm has its
+ * own snapshot and refresh, so realms never wait for each other: the refresh scheduler only times the refreshes,
+ * and each background refresh talks to the Auth server on a thread of its own. A realm whose token was not
+ * requested for {@code openremote.token.idle-eviction} is dropped at its next refresh, and fetched again when it
+ * is needed.
+ * </p>
+ * <p>
+ * Publishes {@code openremote.token.cache.hits}, {@code openremote.token.refreshes} (tagged by outcome),
+ * {@code openremote.token.realms} and {@code openremote.token.age} of the default realm. Counting uses
+ * {@link LongAdder}s, so the hot path stays lock-free.
+ * </p>
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
-public class AuthService {
+public class AuthService implements MeterBinder {
 
-    private final AuthClient authClient;
+    private final TokenFetcher tokenFetcher;
+    private final RealmRegistry realmRegistry;
 
-    @Value("${openremote.client.id}")
-    private String clientId;
+    @Value("${openremote.token.refresh-ratio:0.8}")
+    private double refreshRatio = 0.8;
 
-    @Value("${openremote.client.secret}")
-    private String clientSecret;
+    @Value("${openremote.token.expiry-skew:5s}")
+    private Duration expirySkew = Duration.ofSeconds(5);
 
-    private String cachedToken;
-    private long tokenExpiryEpochMs = 0;
+    @Value("${openremote.token.retry-interval:5s}")
+    private Duration retryInterval = Duration.ofSeconds(5);
 
-    private static final String AUTH_SERVICE = "authService";
+    @Value("${openremote.token.idle-eviction:30m}")
+    private Duration idleEviction = Duration.ofMinutes(30);
+
+    private final RealmToken defaultToken = new RealmToken(null);
+    private final Map<String, RealmToken> realmTokens = new ConcurrentHashMap<>();
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder refreshSuccesses = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+
+    private final ScheduledExecutorService refreshScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "auth-token-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // At most one background fetch per realm runs at a time, so the pool is bounded by the number of realms
+    private final ExecutorService fetchExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "auth-token-fetch");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     /**
-     * Requests and returns an OAuth2 access token from the OpenRemote Auth server.
-     * Handles any client or server errors and throws custom exceptions as needed.
+     * Returns a valid OAuth2 access token for OpenRemote API calls.
+     * <p>
+     * Served from the cached snapshot without locking; only when no valid token exists does the caller
+     * join the single in-flight refresh.
+     * </p>
      *
      * @return Access token string to be used as Bearer token for OpenRemote API calls.
      * @throws AccessTokenNotFoundException if token response is null or access token is missing.
      * @throws AuthException                for all other errors encountered during token retrieval.
      */
-    @Retry(name = AUTH_SERVICE, fallbackMethod = "getTokenFallback")
-    @CircuitBreaker(name = AUTH_SERVICE, fallbackMethod = "getTokenFallback")
-    public synchronized String getToken() {
-        long now = System.currentTimeMillis();
-        if (cachedToken != null && now < tokenExpiryEpochMs) {
-            log.info("Returning cached token.");
-            return cachedToken;
+    public String getToken() {
+        return defaultToken.get();
+    }
+
+    /**
+     * Returns a valid OAuth2 access token of a realm.
+     * <p>
+     * Realms without credentials in {@link RealmRegistry} get the token of the default realm.
+     * </p>
+     *
+     * @param realm Realm name, may be null.
+     * @return Access token string to be used as Bearer token for OpenRemote API calls in the realm.
+     * @throws AuthException if the token could not be obtained.
+     */
+    public String getToken(String realm) {
+        Optional<RealmCredentials> credentials = realmRegistry.find(realm);
+        if (credentials.isEmpty()) {
+            return getToken();
+        }
+        return realmTokens.computeIfAbsent(realm, ignored -> new RealmToken(credentials.get())).get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("openremote.token.cache.hits", cacheHits, LongAdder::doubleValue)
+                .description("Token requests served from the cached token")
+                .register(registry);
+        FunctionCounter.builder("openremote.token.refreshes", refreshSuccesses, LongAdder::doubleValue)
+                .description("Token requests sent to the Auth server")
+                .tag("outcome", "success")
+                .register(registry);
+        FunctionCounter.builder("openremote.token.refreshes", refreshFailures, LongAdder::doubleValue)
+                .description("Token requests sent to the Auth server")
+                .tag("outcome", "failure")
+                .register(registry);
+        TimeGauge.builder("openremote.token.age", defaultToken, TimeUnit.MILLISECONDS, RealmToken::ageMs)
+                .description("Time since the current token was issued")
+                .register(registry);
+        Gauge.builder("openremote.token.realms", realmTokens, Map::size)
+                .description("Realms besides the default one with a cached token")
+                .register(registry);
+    }
+
+    /**
+     * Stops the background refresh tasks.
+     */
+    @PreDestroy
+    public void shutdown() {
+        refreshScheduler.shutdownNow();
+        fetchExecutor.shutdownNow();
+    }
+
+    /**
+     * Token of one realm with its own snapshot and refresh.
+     */
+    private final class RealmToken {
+        private final RealmCredentials credentials;                     // Null for the default realm
+        private final AtomicReference<TokenSnapshot> currentToken = new AtomicReference<>();
+        private final AtomicReference<CompletableFuture<TokenSnapshot>> refreshInFlight = new AtomicReference<>();
+        private final AtomicReference<ScheduledFuture<?>> scheduledRefresh = new AtomicReference<>();
+        private volatile long lastUsedEpochMs = System.currentTimeMillis();
+
+        private RealmToken(RealmCredentials credentials) {
+            this.credentials = credentials;
         }
 
-        log.info("Attempting to get token from Auth server...");
-        MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
-        formData.add(AuthConstants.GRANT_TYPE_KEY, AuthConstants.GRANT_TYPE_CLIENT_CREDENTIALS);
-        formData.add(AuthConstants.CLIENT_ID_KEY, clientId);
-        formData.add(AuthConstants.CLIENT_SECRET_KEY, clientSecret);
+        private String get() {
+            long now = System.currentTimeMillis();
+            if (now - lastUsedEpochMs > 1000) {                           // Keep the hot path free of writes
+                lastUsedEpochMs = now;
+            }
+            TokenSnapshot snapshot = currentToken.get();
+            if (snapshot != null && snapshot.isValidAt(now)) {
+                cacheHits.increment();
+                return snapshot.accessToken();
+            }
+            return awaitRefresh().accessToken();
+        }
 
-        TokenResponse tokenResponse = authClient.getToken(formData);
+        /**
+         * Joins the in-flight refresh, starting one if none is running.
+         */
+        private TokenSnapshot awaitRefresh() {
+            try {
+                return startRefresh(Runnable::run).join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new AuthException("Could not obtain access token from Auth server.", ex.getCause());
+            }
+        }
+
+        /**
+         * Returns the in-flight refresh or runs a new one on the given executor.
+         * Only the thread that wins the CAS talks to the Auth server.
+         */
+        private CompletableFuture<TokenSnapshot> startRefresh(Executor executor) {
+            while (true) {
+                CompletableFuture<TokenSnapshot> inFlight = refreshInFlight.get();
+                if (inFlight != null) {
+                    return inFlight;
+                }
+                CompletableFuture<TokenSnapshot> refresh = new CompletableFuture<>();
+                if (refreshInFlight.compareAndSet(null, refresh)) {
+                    try {
+                        executor.execute(() -> runRefresh(refresh));
+                    } catch (RejectedExecutionException ex) {
+                        refreshInFlight.compareAndSet(refresh, null);
+                        refresh.completeExceptionally(new AuthException("Token refresh is shutting down.", ex));
+                    }
+                    return refresh;
+                }
+            }
+        }
+
+        private void runRefresh(CompletableFuture<TokenSnapshot> refresh) {
+            try {
+                long now = System.currentTimeMillis();
+                TokenResponse tokenResponse = credentials == null ? tokenFetcher.fetchToken()
+                        : tokenFetcher.fetchToken(credentials);
+                TokenSnapshot snapshot = TokenSnapshot.of(tokenResponse, now, refreshRatio, expirySkew);
+                if (credentials != null) {
+                    realmRegistry.registerToken(snapshot.accessToken(), credentials);
+                    schedule(() -> realmRegistry.forgetToken(snapshot.accessToken()),
+                            tokenResponse.getExpiresIn() * 1000L);
+                }
+                currentToken.set(snapshot);
+                scheduleRefresh(snapshot.refreshAtEpochMs() - now);
+                refreshSuccesses.increment();
+                refresh.complete(snapshot);
+            } catch (RuntimeException ex) {
+                refreshFailures.increment();
+                refresh.completeExceptionally(ex);
+            } finally {
+                refreshInFlight.compareAndSet(refresh, null);
+            }
+        }
 
-        if (Objects.isNull(tokenResponse) || Objects.isNull(tokenResponse.getAccessToken())) {
-            log.error("TokenResponse or AccessToken is null!");
-            throw new AccessTokenNotFoundException("Could not obtain access token from Auth server: token is null");
+        /**
+         * Background refresh, started by the scheduler and fetched on the fetch executor: keeps the current token
+         * in place on failure and retries while it is still valid. Tokens of realms that were idle too long are
+         * dropped instead.
+         */
+        private void refreshInBackground() {
+            if (credentials != null && System.currentTimeMillis() - lastUsedEpochMs > idleEviction.toMillis()) {
+                realmTokens.remove(credentials.realm(), this);
+                log.info("Dropped the token of idle realm {}", credentials.realm());
+                return;
+            }
+            if (refreshInFlight.get() != null) {
+                return;
+            }
+            startRefresh(fetchExecutor).whenComplete((snapshot, ex) -> {
+                if (ex == null) {
+                    return;
+                }
+                log.warn("Background token refresh{} failed: {}",
+                        credentials == null ? "" : " for realm " + credentials.realm(), ex.getMessage());
+                TokenSnapshot current = currentToken.get();
+                if (current != null && current.isValidAt(System.currentTimeMillis())) {
+                    scheduleRefresh(retryInterval.toMillis());
+                }
+            });
         }
 
-        log.info("Successfully obtained access token.");
+        private void scheduleRefresh(long delayMs) {
+            ScheduledFuture<?> next = schedule(this::refreshInBackground, delayMs);
+            if (next == null) {
+                return;
+            }
+            ScheduledFuture<?> previous = scheduledRefresh.getAndSet(next);
+            if (previous != null) {
+                previous.cancel(false);
+            }
+        }
 
-        cachedToken = tokenResponse.getAccessToken();
-        tokenExpiryEpochMs = now + (tokenResponse.getExpiresIn() * 1000L) - 5_000; // 5 sn before expire
+        private double ageMs() {
+            TokenSnapshot snapshot = currentToken.get();
+            return snapshot == null ? Double.NaN : System.currentTimeMillis() - snapshot.issuedAtEpochMs();
+        }
+    }
 
-        return cachedToken;
+    private ScheduledFuture<?> schedule(Runnable task, long delayMs) {
+        if (delayMs <= 0 || refreshScheduler.isShutdown()) {
+            return null;
+        }
+        try {
+            return refreshScheduler.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            return null;
+        }
     }
 
     /**
-     * Fallback method for getToken().
-     * This method is called if the main getToken() method fails after retries or if the circuit is open.
+     * Immutable view of the current token and when it should be refreshed.
      */
-    private String getTokenFallback(Throwable t) {
-        log.error("Fallback method called for getToken. Error: {}", t.getMessage());
-        log.warn("Resilience4j handled the error and called fallback. Type: {}", t.getClass().getSimpleName()); // Yeni log
-        throw new AuthException("Auth service temporarily unavailable.", t);
+    private record TokenSnapshot(String accessToken, long issuedAtEpochMs, long expiresAtEpochMs, long refreshAtEpochMs) {
+
+        static TokenSnapshot of(TokenResponse tokenResponse, long issuedAtEpochMs, double refreshRatio, Duration expirySkew) {
+            long lifetimeMs = tokenResponse.getExpiresIn() * 1000L;
+            long expiresAt = issuedAtEpochMs + lifetimeMs - expirySkew.toMillis();
+            long refreshAt = Math.min(issuedAtEpochMs + (long) (lifetimeMs * refreshRatio), expiresAt);
+            return new TokenSnapshot(tokenResponse.getAccessToken(), issuedAtEpochMs, expiresAt, refreshAt);
+        }
+
+        boolean isValidAt(long epochMs) {
+            return epochMs < expiresAtEpochMs;
+        }
     }
 }
@@ -0,0 +1,309 @@
+package com.tworun.openremoteclientservice.service;
+
+import com.tworun.openremoteclientservice.client.AssetClient;
+import com.tworun.openremoteclientservice.dto.AssetResponse;
+import feign.FeignException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hedges single-asset reads against slow OpenRemote responses.
+ * <p>
+ * With {@code openremote.hedging.enabled}, {@link #getAsset} sends {@link AssetClient#getAsset} and, if no answer
+ * arrived after the {@code percentile} of recent read latencies (at least {@code min-delay}), sends the same read
+ * once more and returns whichever answers first. The slower call is left to finish and its answer is dropped.
+ * Until {@code min-samples} reads were timed, {@code initial-delay} is used instead.
+ * </p>
+ * <p>
+ * Hedges are paid from a budget that every read adds {@code budget} to, so extra reads stay below that share of
+ * the traffic, with a burst of at most {@value #BUDGET_BURST} hedges. A read that fails with anything but 404 waits
+ * for the other call before failing, and no hedge is sent for a read that already failed.
+ * </p>
+ * <p>
+ * Both calls run on the {@code assetHedgeExecutor}, bounded by {@code openremote.hedging.max-concurrent-reads}
+ * and on virtual threads in virtual-thread mode: the caller has to stay free to take whichever answer comes first.
+ * When the executor is full, the read is made on the caller thread without a hedge, and a hedge is skipped.
+ * </p>
+ * <p>
+ * Publishes {@code openremote.hedging.sent}, {@code openremote.hedging.won} (hedges answering first),
+ * {@code openremote.hedging.skipped} (no budget or thread left) and the current {@code openremote.hedging.delay}.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HedgedAssetReader implements MeterBinder {
+
+    /**
+     * Hedges that may be sent back to back after a quiet period.
+     */
+    static final int BUDGET_BURST = 10;
+
+    private static final long TOKEN = 1000;                           // Budget is kept in thousandths of a hedge
+    private static final int SAMPLE_SIZE = 1024;
+
+    private final AssetClient assetClient;
+    private final Executor assetHedgeExecutor;
+
+    @Value("${openremote.hedging.enabled:false}")
+    private boolean enabled;
+
+    @Value("${openremote.hedging.percentile:0.95}")
+    private double percentile = 0.95;
+
+    @Value("${openremote.hedging.min-delay:5ms}")
+    private Duration minDelay = Duration.ofMillis(5);
+
+    @Value("${openremote.hedging.initial-delay:100ms}")
+    private Duration initialDelay = Duration.ofMillis(100);
+
+    @Value("${openremote.hedging.min-samples:100}")
+    private int minSamples = 100;
+
+    @Value("${openremote.hedging.budget:0.05}")
+    private double budget = 0.05;
+
+    private final AtomicLongArray latencySamples = new AtomicLongArray(SAMPLE_SIZE);
+    private final AtomicLong sampleCount = new AtomicLong();
+    private final AtomicReference<Duration> hedgeDelay = new AtomicReference<>(initialDelay);
+    private final AtomicLong budgetBalance = new AtomicLong(BUDGET_BURST * TOKEN);
+
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+    private final LongAdder hedgesSkipped = new LongAdder();
+
+    private final ScheduledExecutorService delayScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "asset-hedge-delay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        hedgeDelay.set(initialDelay);
+        if (enabled) {
+            delayScheduler.scheduleWithFixedDelay(this::updateDelay, 1, 1, TimeUnit.SECONDS);
+            log.info("Hedged asset reads enabled at latency percentile {} with budget {}", percentile, budget);
+        }
+    }
+
+    /**
+     * Stops the delay thread.
+     */
+    @PreDestroy
+    public void shutdown() {
+        delayScheduler.shutdownNow();
+    }
+
+    /**
+     * Retrieves an asset, hedging the call when it is slow.
+     *
+     * @param authHeader Bearer access token header.
+     * @param assetId Asset's unique identifier.
+     * @return AssetResponse with asset details.
+     * @throws FeignException if the upstream calls fail, like {@link AssetClient#getAsset}.
+     */
+    public AssetResponse getAsset(String authHeader, String assetId) {
+        if (!enabled) {
+            return assetClient.getAsset(authHeader, assetId);
+        }
+        deposit();
+        HedgedRead read = new HedgedRead(authHeader, assetId);
+        read.send();
+        Duration delay = hedgeDelay.get();
+        try {
+            return read.result.get(delay.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            if (read.result.isDone()) {
+                return await(read.result);
+            }
+            if (!withdraw()) {
+                hedgesSkipped.increment();
+            } else if (read.sendHedge()) {
+                log.debug("Hedging read of asset {} after {} ms", assetId, delay.toMillis());
+                hedgesSent.increment();
+            } else {
+                budgetBalance.getAndUpdate(balance -> Math.min(BUDGET_BURST * TOKEN, balance + TOKEN));
+                if (!read.result.isDone()) {
+                    hedgesSkipped.increment();
+                }
+            }
+            return await(read.result);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading asset " + assetId, ex);
+        } catch (ExecutionException ex) {
+            throw unwrap(ex.getCause());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("openremote.hedging.sent", hedgesSent, LongAdder::doubleValue)
+                .description("Asset reads sent a second time because the first was slow")
+                .register(registry);
+        FunctionCounter.builder("openremote.hedging.won", hedgesWon, LongAdder::doubleValue)
+                .description("Hedged asset reads that answered before the first read")
+                .register(registry);
+        FunctionCounter.builder("openremote.hedging.skipped", hedgesSkipped, LongAdder::doubleValue)
+                .description("Slow asset reads not hedged because the hedge budget or threads were used up")
+                .register(registry);
+        TimeGauge.builder("openremote.hedging.delay", hedgeDelay, TimeUnit.MILLISECONDS,
+                        delay -> delay.get().toMillis())
+                .description("Time after which a slow asset read is hedged")
+                .register(registry);
+    }
+
+    /**
+     * Moves the hedge delay to the configured percentile of the recent read latencies.
+     */
+    void updateDelay() {
+        int samples = (int) Math.min(sampleCount.get(), SAMPLE_SIZE);
+        if (samples < minSamples) {
+            return;
+        }
+        long[] sorted = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            sorted[i] = latencySamples.get(i);
+        }
+        Arrays.sort(sorted);
+        long nanos = sorted[Math.min(samples - 1, (int) Math.ceil(percentile * samples) - 1)];
+        hedgeDelay.set(Duration.ofNanos(Math.max(nanos, minDelay.toNanos())));
+    }
+
+    private void recordLatency(long nanos) {
+        latencySamples.set((int) (sampleCount.getAndIncrement() % SAMPLE_SIZE), nanos);
+    }
+
+    private void deposit() {
+        long deposit = (long) (budget * TOKEN);
+        budgetBalance.getAndUpdate(balance -> Math.min(BUDGET_BURST * TOKEN, balance + deposit));
+    }
+
+    private boolean withdraw() {
+        while (true) {
+            long balance = budgetBalance.get();
+            if (balance < TOKEN) {
+                return false;
+            }
+            if (budgetBalance.compareAndSet(balance, balance - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    private static AssetResponse await(CompletableFuture<AssetResponse> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading asset", ex);
+        } catch (ExecutionException ex) {
+            throw unwrap(ex.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+    }
+
+    /**
+     * The first read of an asset and its hedge, completing with whichever answers first.
+     */
+    private final class HedgedRead {
+        private final String authHeader;
+        private final String assetId;
+        private final CompletableFuture<AssetResponse> result = new CompletableFuture<>();
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private HedgedRead(String authHeader, String assetId) {
+            this.authHeader = authHeader;
+            this.assetId = assetId;
+        }
+
+        /**
+         * Sends the first read, or reads on the calling thread if the executor is full.
+         */
+        private void send() {
+            pending.incrementAndGet();
+            try {
+                assetHedgeExecutor.execute(() -> read(false));
+            } catch (RejectedExecutionException ex) {
+                read(false);
+            }
+        }
+
+        /**
+         * Sends the hedge, unless the first read already failed or the executor is full.
+         *
+         * @return whether the hedge was sent.
+         */
+        private boolean sendHedge() {
+            int calls;
+            do {
+                calls = pending.get();
+                if (calls == 0 || result.isDone()) {
+                    return false;
+                }
+            } while (!pending.compareAndSet(calls, calls + 1));
+            try {
+                assetHedgeExecutor.execute(() -> read(true));
+                return true;
+            } catch (RejectedExecutionException ex) {
+                fail(ex);
+                return false;
+            }
+        }
+
+        private void read(boolean hedge) {
+            long start = System.nanoTime();
+            try {
+                AssetResponse asset = assetClient.getAsset(authHeader, assetId);
+                recordLatency(System.nanoTime() - start);
+                if (result.complete(asset) && hedge) {
+                    hedgesWon.increment();
+                }
+            } catch (FeignException.NotFound ex) {
+                recordLatency(System.nanoTime() - start);
+                if (result.completeExceptionally(ex) && hedge) {
+                    hedgesWon.increment();
+                }
+            } catch (RuntimeException ex) {
+                fail(ex);
+            }
+        }
+
+        /**
+         * Fails the read once no other call for it is left.
+         */
+        private void fail(RuntimeException ex) {
+            if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(ex);
+            }
+        }
+    }
+}
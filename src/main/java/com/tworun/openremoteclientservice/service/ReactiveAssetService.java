@@ -0,0 +1,194 @@
+package com.tworun.openremoteclientservice.service;
+
+import com.tworun.openremoteclientservice.cache.AssetCache;
+import com.tworun.openremoteclientservice.client.ReactiveAssetClient;
+import com.tworun.openremoteclientservice.dto.AssetCreateRequest;
+import com.tworun.openremoteclientservice.dto.AssetMultiGetResponse;
+import com.tworun.openremoteclientservice.dto.AssetQuery;
+import com.tworun.openremoteclientservice.dto.AssetResponse;
+import com.tworun.openremoteclientservice.exception.AssetNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking variant of {@link AssetService}, active with the {@code reactive} profile.
+ * <p>
+ * Performs the same operations with the same error mapping, but no thread waits on the OpenRemote API: calls are
+ * made with {@link ReactiveAssetClient} and results are returned as {@link Mono}. Shares the {@link AssetCache}
+ * with the blocking service.
+ * </p>
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveAssetService {
+
+    private final ReactiveAssetClient reactiveAssetClient;
+    private final ReactiveAuthService reactiveAuthService;
+    private final AssetCache assetCache;
+
+    /**
+     * Creates a new asset using the provided request details.
+     *
+     * @param request Asset creation request DTO.
+     * @return Mono emitting the created asset response.
+     */
+    public Mono<AssetResponse> createAsset(AssetCreateRequest request) {
+        log.info("Creating asset with name: {}, type: {}", request.getName(), request.getType());
+        return authHeader()
+                .flatMap(authHeader -> reactiveAssetClient.createAsset(authHeader, request))
+                .doOnNext(response -> {
+                    log.info("Asset created with id: {}", response.getId());
+                    assetCache.put(response);
+                })
+                .onErrorMap(WebClientException.class, ex -> {
+                    log.error("Failed to create asset with name: {} - {}", request.getName(), ex.getMessage());
+                    return new RuntimeException("Failed to create asset: " + ex.getMessage(), ex);
+                });
+    }
+
+    /**
+     * Retrieves asset details for the given asset ID, from the cache if present.
+     *
+     * @param assetId ID of the asset to retrieve.
+     * @return Mono emitting the asset response, or {@link AssetNotFoundException} if the asset is not found.
+     */
+    public Mono<AssetResponse> getAsset(String assetId) {
+        return Mono.defer(() -> {
+            AssetResponse cached = assetCache.get(assetId);
+            if (cached != null) {
+                log.debug("Asset served from cache: {}", assetId);
+                return Mono.just(cached);
+            }
+
+            log.info("Retrieving asset with id: {}", assetId);
+            return authHeader()
+                    .flatMap(authHeader -> reactiveAssetClient.getAsset(authHeader, assetId))
+                    .doOnNext(response -> {
+                        log.info("Asset retrieved: {}", response.getId());
+                        assetCache.put(response);
+                    })
+                    .onErrorMap(WebClientResponseException.NotFound.class, ex -> notFound(assetId))
+                    .onErrorMap(ex -> ex instanceof WebClientException && !(ex instanceof WebClientResponseException.NotFound),
+                            ex -> {
+                                log.error("WebClient error when getting asset: {}", ex.getMessage());
+                                return new RuntimeException("Failed to retrieve asset: " + ex.getMessage(), ex);
+                            });
+        });
+    }
+
+    /**
+     * Retrieves many assets by id with a single OpenRemote asset query; cached assets are served locally.
+     *
+     * @param assetIds IDs of the assets to retrieve; duplicates are ignored.
+     * @return Mono emitting found assets and missing ids, in request order.
+     */
+    public Mono<AssetMultiGetResponse> getAssets(Collection<String> assetIds) {
+        return Mono.defer(() -> {
+            List<String> ids = assetIds.stream().distinct().toList();
+            Map<String, AssetResponse> found = new HashMap<>();
+            List<String> toFetch = new ArrayList<>();
+            for (String id : ids) {
+                AssetResponse cached = assetCache.get(id);
+                if (cached != null) {
+                    found.put(id, cached);
+                } else {
+                    toFetch.add(id);
+                }
+            }
+
+            log.info("Retrieving {} assets ({} cached)", ids.size(), found.size());
+            Flux<AssetResponse> fetched = toFetch.isEmpty()
+                    ? Flux.empty()
+                    : authHeader().flatMapMany(authHeader ->
+                            reactiveAssetClient.queryAssets(authHeader, AssetQuery.byIds(toFetch)));
+
+            return fetched
+                    .doOnNext(asset -> {
+                        assetCache.put(asset);
+                        found.put(asset.getId(), asset);
+                    })
+                    .then(Mono.fromSupplier(() -> new AssetMultiGetResponse(
+                            ids.stream().filter(found::containsKey).map(found::get).toList(),
+                            ids.stream().filter(id -> !found.containsKey(id)).toList())))
+                    .onErrorMap(WebClientException.class, ex -> {
+                        log.error("WebClient error when querying assets: {}", ex.getMessage());
+                        return new RuntimeException("Failed to retrieve assets: " + ex.getMessage(), ex);
+                    });
+        });
+    }
+
+    /**
+     * Updates an existing asset with the specified asset ID and new details.
+     *
+     * @param assetId The ID of the asset to update.
+     * @param request The updated asset details.
+     * @return Mono emitting the updated asset response, or {@link AssetNotFoundException} if the asset is not found.
+     */
+    public Mono<AssetResponse> updateAsset(String assetId, AssetCreateRequest request) {
+        log.info("Updating asset with id: {} (name: {}, type: {})", assetId, request.getName(), request.getType());
+        return authHeader()
+                .flatMap(authHeader -> reactiveAssetClient.updateAsset(authHeader, assetId, request))
+                .doOnNext(response -> {
+                    log.info("Asset updated: {}", response.getId());
+                    assetCache.put(response);
+                })
+                .onErrorMap(WebClientResponseException.NotFound.class, ex -> {
+                    assetCache.remove(List.of(assetId));
+                    return notFound(assetId);
+                })
+                .onErrorMap(ex -> ex instanceof WebClientException && !(ex instanceof WebClientResponseException.NotFound),
+                        ex -> {
+                            log.error("WebClient error when updating asset: {}", ex.getMessage());
+                            return new RuntimeException("Failed to update asset: " + ex.getMessage(), ex);
+                        });
+    }
+
+    /**
+     * Deletes one or more assets by their IDs.
+     *
+     * @param assetIds List of asset IDs to delete.
+     * @return Mono completing when deleted, or {@link AssetNotFoundException} if some or all assets are not found.
+     */
+    public Mono<Void> deleteAssets(List<String> assetIds) {
+        log.info("Deleting assets with ids: {}", assetIds);
+        return authHeader()
+                .flatMap(authHeader -> reactiveAssetClient.deleteAssets(authHeader, assetIds))
+                .doOnSuccess(ignored -> {
+                    log.info("Assets deleted: {}", assetIds);
+                    assetCache.remove(assetIds);
+                })
+                .onErrorMap(WebClientResponseException.BadRequest.class, ex -> {
+                    log.warn("Some asset(s) not found for ids: {}", assetIds);
+                    assetCache.invalidateAll(assetIds);
+                    return new AssetNotFoundException("Some asset(s) not found: " + assetIds);
+                })
+                .onErrorMap(ex -> ex instanceof WebClientException && !(ex instanceof WebClientResponseException.BadRequest),
+                        ex -> {
+                            log.error("WebClient error when deleting asset(s): {}", ex.getMessage());
+                            return new RuntimeException("Failed to delete asset(s): " + ex.getMessage(), ex);
+                        });
+    }
+
+    private Mono<String> authHeader() {
+        return reactiveAuthService.getToken().map(token -> "Bearer " + token);
+    }
+
+    private static AssetNotFoundException notFound(String assetId) {
+        log.warn("Asset not found with id: {}", assetId);
+        return new AssetNotFoundException("Asset not found with id: " + assetId);
+    }
+}
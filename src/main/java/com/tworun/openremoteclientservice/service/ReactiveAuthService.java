@@ -0,0 +1,102 @@
+package com.tworun.openremoteclientservice.service;
+
+import com.tworun.openremoteclientservice.constants.AuthConstants;
+import com.tworun.openremoteclientservice.dto.TokenResponse;
+import com.tworun.openremoteclientservice.exception.AccessTokenNotFoundException;
+import com.tworun.openremoteclientservice.exception.AuthException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Non-blocking token provider for the reactive asset stack, active with the {@code reactive} profile.
+ * <p>
+ * The token is cached inside the returned {@link Mono}: concurrent subscribers share a single request to the Auth
+ * server, and the cached token is dropped after {@code openremote.token.refresh-ratio} of its lifetime so a new one
+ * is fetched before it expires. Failures are retried like the {@code authService} Resilience4j retry and then
+ * reported as {@link AuthException}.
+ * </p>
+ */
+@Service
+@Slf4j
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveAuthService {
+
+    private final WebClient authWebClient;
+
+    @Value("${openremote.client.id}")
+    private String clientId;
+
+    @Value("${openremote.client.secret}")
+    private String clientSecret;
+
+    @Value("${openremote.token.refresh-ratio:0.8}")
+    private double refreshRatio = 0.8;
+
+    @Value("${resilience4j.retry.instances.authService.maxAttempts:3}")
+    private int maxAttempts = 3;
+
+    @Value("${resilience4j.retry.instances.authService.waitDuration:1s}")
+    private Duration retryWait = Duration.ofSeconds(1);
+
+    private Mono<String> cachedToken;
+
+    @PostConstruct
+    void init() {
+        cachedToken = requestToken()
+                .cache(this::cacheDuration, ex -> Duration.ZERO, () -> Duration.ZERO)
+                .map(TokenResponse::getAccessToken);
+    }
+
+    /**
+     * Returns a valid OAuth2 access token for OpenRemote API calls.
+     *
+     * @return Mono emitting the access token string.
+     */
+    public Mono<String> getToken() {
+        return cachedToken;
+    }
+
+    private Mono<TokenResponse> requestToken() {
+        MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
+        formData.add(AuthConstants.GRANT_TYPE_KEY, AuthConstants.GRANT_TYPE_CLIENT_CREDENTIALS);
+        formData.add(AuthConstants.CLIENT_ID_KEY, clientId);
+        formData.add(AuthConstants.CLIENT_SECRET_KEY, clientSecret);
+
+        return Mono.defer(() -> {
+                    log.info("Attempting to get token from Auth server...");
+                    return authWebClient.post()
+                            .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                            .body(BodyInserters.fromFormData(formData))
+                            .retrieve()
+                            .bodyToMono(TokenResponse.class);
+                })
+                .filter(tokenResponse -> Objects.nonNull(tokenResponse.getAccessToken()))
+                .switchIfEmpty(Mono.error(() ->
+                        new AccessTokenNotFoundException("Could not obtain access token from Auth server: token is null")))
+                .retryWhen(Retry.fixedDelay(maxAttempts - 1L, retryWait)
+                        .filter(ex -> !(ex instanceof AccessTokenNotFoundException))
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .doOnNext(tokenResponse -> log.info("Successfully obtained access token."))
+                .onErrorMap(ex -> !(ex instanceof AccessTokenNotFoundException),
+                        ex -> new AuthException("Auth service temporarily unavailable.", ex));
+    }
+
+    private Duration cacheDuration(TokenResponse tokenResponse) {
+        return Duration.ofMillis((long) (tokenResponse.getExpiresIn() * 1000L * refreshRatio));
+    }
+}
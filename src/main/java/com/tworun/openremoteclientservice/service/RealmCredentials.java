@@ -0,0 +1,19 @@
+package com.tworun.openremoteclientservice.service;
+
+/**
+ * Client credentials and endpoints of one OpenRemote realm.
+ *
+ * @param realm Realm name.
+ * @param clientId Service user client id in the realm.
+ * @param clientSecret Service user client secret.
+ * @param tokenUrl Keycloak token endpoint of the realm.
+ * @param apiBaseUrl OpenRemote API base URL of the realm, e.g. {@code https://host/api/<realm>}.
+ */
+public record RealmCredentials(String realm, String clientId, String clientSecret, String tokenUrl, String apiBaseUrl) {
+
+    @Override
+    public String toString() {
+        return "RealmCredentials[realm=" + realm + ", clientId=" + clientId + ", tokenUrl=" + tokenUrl
+                + ", apiBaseUrl=" + apiBaseUrl + "]";
+    }
+}
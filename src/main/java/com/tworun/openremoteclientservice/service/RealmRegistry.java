@@ -0,0 +1,145 @@
+package com.tworun.openremoteclientservice.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Realms served by this instance, and the credentials and URLs used for each.
+ * <p>
+ * The default realm ({@code openremote.realm}) uses {@code openremote.client.*}, {@code openremote.auth.url} and
+ * {@code openremote.api.baseurl}. Further realms are configured under {@code openremote.realms.<realm>} with
+ * {@code client-id} and {@code client-secret}. Their {@code auth-url} and {@code api-baseurl} default to those of
+ * the default realm with the realm name replaced. Realms that are not configured are served with the credentials
+ * of the default realm.
+ * </p>
+ * <p>
+ * Also records which realm each issued access token belongs to, so that {@code AssetClient} calls made with a
+ * token are sent to the API of its realm.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RealmRegistry {
+
+    private final Environment environment;
+
+    @Value("${openremote.realm:master}")
+    private String defaultRealm = "master";
+
+    @Value("${openremote.auth.url:}")
+    private String defaultAuthUrl = "";
+
+    @Value("${openremote.api.baseurl:}")
+    private String defaultApiBaseUrl = "";
+
+    private Map<String, RealmCredentials> realms = Map.of();
+    private final Map<String, String> apiBaseUrlByToken = new ConcurrentHashMap<>();
+
+    /**
+     * Reads the realms configured under {@code openremote.realms}.
+     *
+     * @throws IllegalStateException if a realm lacks credentials, or its URLs cannot be derived.
+     */
+    @PostConstruct
+    void load() {
+        Map<String, RealmProperties> configured = Binder.get(environment)
+                .bind("openremote.realms", Bindable.mapOf(String.class, RealmProperties.class))
+                .orElse(Map.of());
+        Map<String, RealmCredentials> loaded = new HashMap<>();
+        configured.forEach((realm, properties) -> {
+            if (!realm.equals(defaultRealm)) {
+                loaded.put(realm, credentials(realm, properties));
+            }
+        });
+        realms = Map.copyOf(loaded);
+        if (!realms.isEmpty()) {
+            log.info("Serving realms {} besides the default realm {}", realms.keySet(), defaultRealm);
+        }
+    }
+
+    /**
+     * Name of the realm of {@code openremote.client.*}.
+     */
+    public String defaultRealm() {
+        return defaultRealm;
+    }
+
+    /**
+     * Returns the credentials of a configured realm.
+     *
+     * @param realm Realm name, may be null.
+     * @return the credentials, or empty for the default realm and realms that are not configured.
+     */
+    public Optional<RealmCredentials> find(String realm) {
+        return Objects.isNull(realm) ? Optional.empty() : Optional.ofNullable(realms.get(realm));
+    }
+
+    /**
+     * Records that an access token was issued by a configured realm.
+     */
+    public void registerToken(String accessToken, RealmCredentials credentials) {
+        apiBaseUrlByToken.put(accessToken, credentials.apiBaseUrl());
+    }
+
+    /**
+     * Forgets an expired access token.
+     */
+    public void forgetToken(String accessToken) {
+        apiBaseUrlByToken.remove(accessToken);
+    }
+
+    /**
+     * Returns the API base URL of the realm that issued an access token.
+     *
+     * @return the URL, or empty for tokens of the default realm.
+     */
+    public Optional<String> apiBaseUrlOf(String accessToken) {
+        return Optional.ofNullable(apiBaseUrlByToken.get(accessToken));
+    }
+
+    private RealmCredentials credentials(String realm, RealmProperties properties) {
+        if (!StringUtils.hasText(properties.getClientId()) || !StringUtils.hasText(properties.getClientSecret())) {
+            throw new IllegalStateException("openremote.realms." + realm + " needs client-id and client-secret");
+        }
+        String authUrl = StringUtils.hasText(properties.getAuthUrl()) ? properties.getAuthUrl()
+                : replaceRealm(defaultAuthUrl, "/realms/" + defaultRealm + "/", "/realms/" + realm + "/", realm, "auth-url");
+        String apiBaseUrl = StringUtils.hasText(properties.getApiBaseurl()) ? properties.getApiBaseurl()
+                : replaceRealm(defaultApiBaseUrl, "/api/" + defaultRealm, "/api/" + realm, realm, "api-baseurl");
+        return new RealmCredentials(realm, properties.getClientId(), properties.getClientSecret(), authUrl, apiBaseUrl);
+    }
+
+    private static String replaceRealm(String url, String segment, String replacement, String realm, String property) {
+        int index = url.lastIndexOf(segment);
+        if (index < 0) {
+            throw new IllegalStateException("Cannot derive openremote.realms." + realm + "." + property
+                    + " from " + url + ", set it explicitly");
+        }
+        return url.substring(0, index) + replacement + url.substring(index + segment.length());
+    }
+
+    /**
+     * Settings of one realm under {@code openremote.realms}.
+     */
+    @Data
+    public static class RealmProperties {
+        private String clientId;
+        private String clientSecret;
+        private String authUrl;
+        private String apiBaseurl;
+    }
+}
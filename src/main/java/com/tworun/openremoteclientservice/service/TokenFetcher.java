@@ -0,0 +1,113 @@
+package com.tworun.openremoteclientservice.service;
+
+import com.tworun.openremoteclientservice.client.AuthClient;
+import com.tworun.openremoteclientservice.constants.AuthConstants;
+import com.tworun.openremoteclientservice.dto.TokenResponse;
+import com.tworun.openremoteclientservice.exception.AccessTokenNotFoundException;
+import com.tworun.openremoteclientservice.exception.AuthException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.retry.annotation.Retry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.net.URI;
+import java.util.Objects;
+
+/**
+ * Performs the actual client credentials round trip against the OpenRemote Auth server.
+ * <p>
+ * Kept separate from {@link AuthService} so that the Resilience4j retry and circuit breaker
+ * only wrap real Keycloak calls and never the cached token hot path. Tokens of further realms are fetched
+ * through a retry and circuit breaker of their own, {@code authService-<realm>} with the settings of
+ * {@code authService}, so a realm with broken credentials does not open the circuit for the others.
+ * </p>
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TokenFetcher {
+
+    private final AuthClient authClient;
+    private final RetryRegistry retryRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Value("${openremote.client.id}")
+    private String clientId;
+
+    @Value("${openremote.client.secret}")
+    private String clientSecret;
+
+    private static final String AUTH_SERVICE = "authService";
+
+    /**
+     * Requests a new OAuth2 access token from the OpenRemote Auth server.
+     *
+     * @return TokenResponse containing a non-null access token.
+     * @throws AccessTokenNotFoundException if token response is null or access token is missing.
+     * @throws AuthException                for all other errors encountered during token retrieval.
+     */
+    @Retry(name = AUTH_SERVICE, fallbackMethod = "fetchTokenFallback")
+    @CircuitBreaker(name = AUTH_SERVICE, fallbackMethod = "fetchTokenFallback")
+    public TokenResponse fetchToken() {
+        log.info("Attempting to get token from Auth server...");
+        return checkToken(authClient.getToken(formData(clientId, clientSecret)));
+    }
+
+    /**
+     * Requests a new OAuth2 access token from the Auth server of another realm.
+     *
+     * @param credentials Client credentials and token endpoint of the realm.
+     * @return TokenResponse containing a non-null access token.
+     * @throws AuthException if the token could not be obtained after retries or the realm's circuit is open.
+     */
+    public TokenResponse fetchToken(RealmCredentials credentials) {
+        String name = AUTH_SERVICE + "-" + credentials.realm();
+        URI tokenUrl = URI.create(credentials.tokenUrl());
+        try {
+            return retryRegistry.retry(name, retryRegistry.retry(AUTH_SERVICE).getRetryConfig())
+                    .executeSupplier(() -> circuitBreakerRegistry.circuitBreaker(name,
+                                    circuitBreakerRegistry.circuitBreaker(AUTH_SERVICE).getCircuitBreakerConfig())
+                            .executeSupplier(() -> {
+                                log.info("Attempting to get token for realm {} from Auth server...", credentials.realm());
+                                return checkToken(authClient.getToken(tokenUrl,
+                                        formData(credentials.clientId(), credentials.clientSecret())));
+                            }));
+        } catch (RuntimeException ex) {
+            return fetchTokenFallback(ex);
+        }
+    }
+
+    private static MultiValueMap<String, String> formData(String clientId, String clientSecret) {
+        MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
+        formData.add(AuthConstants.GRANT_TYPE_KEY, AuthConstants.GRANT_TYPE_CLIENT_CREDENTIALS);
+        formData.add(AuthConstants.CLIENT_ID_KEY, clientId);
+        formData.add(AuthConstants.CLIENT_SECRET_KEY, clientSecret);
+        return formData;
+    }
+
+    private static TokenResponse checkToken(TokenResponse tokenResponse) {
+        if (Objects.isNull(tokenResponse) || Objects.isNull(tokenResponse.getAccessToken())) {
+            log.error("TokenResponse or AccessToken is null!");
+            throw new AccessTokenNotFoundException("Could not obtain access token from Auth server: token is null");
+        }
+
+        log.info("Successfully obtained access token.");
+        return tokenResponse;
+    }
+
+    /**
+     * Fallback method for fetchToken().
+     * This method is called if the main fetchToken() method fails after retries or if the circuit is open.
+     */
+    private TokenResponse fetchTokenFallback(Throwable t) {
+        log.error("Fallback method called for fetchToken. Error: {}", t.getMessage());
+        log.warn("Resilience4j handled the error and called fallback. Type: {}", t.getClass().getSimpleName());
+        throw new AuthException("Auth service temporarily unavailable.", t);
+    }
+}
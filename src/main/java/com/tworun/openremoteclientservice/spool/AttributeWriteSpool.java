@@ -0,0 +1,287 @@
+package com.tworun.openremoteclientservice.spool;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tworun.openremoteclientservice.cache.AssetCache;
+import com.tworun.openremoteclientservice.client.AssetClient;
+import com.tworun.openremoteclientservice.dto.AttributeEvent;
+import com.tworun.openremoteclientservice.dto.AttributeWriteResult;
+import com.tworun.openremoteclientservice.exception.SpoolFullException;
+import com.tworun.openremoteclientservice.service.AuthService;
+import feign.FeignException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Durable ingest path for attribute writes that must survive OpenRemote or Keycloak outages.
+ * <p>
+ * {@link #append} stores the writes in a {@link SegmentLog} under {@code openremote.spool.directory} and returns
+ * without calling OpenRemote. A single drainer thread replays the log in append order through
+ * {@link AssetClient#writeAttributeValues}, one call at a time. Each drain round takes whole records of up to
+ * {@code openremote.spool.batch-size} writes in total from the log, sends them in one call and commits them, so a
+ * failed round re-sends at most that many writes. A single record holding more writes than that is taken alone and
+ * sent in calls of {@code batch-size} writes. Failed calls are retried with exponential backoff; drained segments
+ * are deleted.
+ * </p>
+ * <p>
+ * Delivery is at least once: a batch interrupted by a crash is sent again after restart. Writes OpenRemote rejects
+ * (per-attribute failures or a 4xx other than 401/403/408/429) are logged and dropped so they cannot block the log.
+ * Once {@code openremote.spool.max-segments} segments wait to be drained, appends fail with
+ * {@link SpoolFullException} instead of blocking the request thread.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "openremote.spool.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class AttributeWriteSpool implements MeterBinder {
+
+    private static final TypeReference<List<AttributeEvent>> EVENT_LIST = new TypeReference<>() {
+    };
+
+    private final AssetClient assetClient;
+    private final AuthService authService;
+    private final AssetCache assetCache;
+    private final ObjectMapper objectMapper;
+
+    @Value("${openremote.spool.directory:spool}")
+    private Path directory = Path.of("spool");
+
+    @Value("${openremote.spool.segment-size:64MB}")
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    @Value("${openremote.spool.max-segments:16}")
+    private int maxSegments = 16;
+
+    @Value("${openremote.spool.sync-on-append:false}")
+    private boolean syncOnAppend;
+
+    @Value("${openremote.spool.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${openremote.spool.idle-poll-interval:50ms}")
+    private Duration idlePollInterval = Duration.ofMillis(50);
+
+    @Value("${openremote.spool.retry-initial-backoff:500ms}")
+    private Duration retryInitialBackoff = Duration.ofMillis(500);
+
+    @Value("${openremote.spool.retry-max-backoff:30s}")
+    private Duration retryMaxBackoff = Duration.ofSeconds(30);
+
+    private final LongAdder appendedEvents = new LongAdder();
+    private final LongAdder drainedEvents = new LongAdder();
+    private final LongAdder rejectedEvents = new LongAdder();
+    private final LongAdder drainFailures = new LongAdder();
+
+    private SegmentLog segmentLog;
+    private Thread drainer;
+    private volatile boolean running;
+
+    /**
+     * Opens the spool, recovering writes left by a previous run, and starts the drainer.
+     *
+     * @throws IOException if the spool directory cannot be opened.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        open();
+        running = true;
+        drainer = new Thread(this::drainLoop, "attribute-spool-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /**
+     * Stops the drainer and flushes the spool to disk. Writes not drained yet are replayed on the next start.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (Objects.nonNull(drainer)) {
+            drainer.interrupt();
+            try {
+                drainer.join(Duration.ofSeconds(5).toMillis());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (Objects.nonNull(segmentLog)) {
+            segmentLog.close();
+        }
+    }
+
+    /**
+     * Opens the spool without starting the drainer.
+     */
+    void open() throws IOException {
+        segmentLog = SegmentLog.open(directory, (int) segmentSize.toBytes(), maxSegments, syncOnAppend);
+        log.info("Attribute write spool opened at {} with {} bytes to drain", directory.toAbsolutePath(),
+                segmentLog.backlogBytes());
+    }
+
+    /**
+     * Appends attribute writes to the spool. Writes without a timestamp get the current time, so they keep their
+     * order in OpenRemote however late they are drained.
+     *
+     * @param events Attribute writes, stored and later sent together.
+     * @throws SpoolFullException if the spool has no room left.
+     */
+    public void append(List<AttributeEvent> events) {
+        long now = System.currentTimeMillis();
+        List<AttributeEvent> stamped = events.stream()
+                .map(event -> Objects.nonNull(event.getTimestamp()) ? event
+                        : new AttributeEvent(event.getRef(), event.getValue(), now))
+                .toList();
+        try {
+            segmentLog.append(objectMapper.writeValueAsBytes(stamped));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Failed to serialize attribute writes", ex);
+        }
+        appendedEvents.add(events.size());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("openremote.spool.events", appendedEvents, LongAdder::doubleValue)
+                .description("Attribute writes handled by the spool")
+                .tag("outcome", "appended")
+                .register(registry);
+        FunctionCounter.builder("openremote.spool.events", drainedEvents, LongAdder::doubleValue)
+                .description("Attribute writes handled by the spool")
+                .tag("outcome", "drained")
+                .register(registry);
+        FunctionCounter.builder("openremote.spool.events", rejectedEvents, LongAdder::doubleValue)
+                .description("Attribute writes handled by the spool")
+                .tag("outcome", "rejected")
+                .register(registry);
+        FunctionCounter.builder("openremote.spool.drain.failures", drainFailures, LongAdder::doubleValue)
+                .description("Drain attempts that failed and will be retried")
+                .register(registry);
+        Gauge.builder("openremote.spool.backlog", this, spool -> spool.segmentLog.backlogBytes())
+                .description("Bytes appended to the spool and not drained yet")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+        Gauge.builder("openremote.spool.segments", this, spool -> spool.segmentLog.segmentCount())
+                .description("Spool segment files on disk")
+                .register(registry);
+    }
+
+    /**
+     * Sends the next records of spooled writes, up to {@code batch-size} writes, to OpenRemote and commits them.
+     *
+     * @return number of writes taken from the spool; 0 if it was empty.
+     * @throws RuntimeException if the writes could not be delivered and must be retried.
+     */
+    int drainOnce() {
+        List<AttributeEvent> events = new ArrayList<>();
+        SegmentLog.Position next = null;
+        while (events.size() < batchSize) {
+            SegmentLog.Batch batch = Objects.isNull(next) ? segmentLog.read(1) : segmentLog.read(next, 1);
+            if (batch.isEmpty()) {
+                break;
+            }
+            List<AttributeEvent> recordEvents = readRecord(batch.records().get(0));
+            if (!events.isEmpty() && events.size() + recordEvents.size() > batchSize) {
+                break;
+            }
+            events.addAll(recordEvents);
+            next = batch.next();
+        }
+        for (int from = 0; from < events.size(); from += batchSize) {
+            send(events.subList(from, Math.min(from + batchSize, events.size())));
+        }
+        if (Objects.nonNull(next)) {
+            segmentLog.commit(next);
+        }
+        return events.size();
+    }
+
+    private List<AttributeEvent> readRecord(byte[] record) {
+        try {
+            return objectMapper.readValue(record, EVENT_LIST);
+        } catch (IOException ex) {
+            log.error("Dropping unreadable spool record of {} bytes: {}", record.length, ex.getMessage());
+            rejectedEvents.increment();
+            return List.of();
+        }
+    }
+
+    private void send(List<AttributeEvent> events) {
+        try {
+            String authHeader = "Bearer " + authService.getToken();
+            List<AttributeWriteResult> results = assetClient.writeAttributeValues(authHeader, events);
+            long rejected = Objects.isNull(results) ? 0
+                    : results.stream().filter(result -> Objects.nonNull(result.getFailure())).count();
+            if (rejected > 0) {
+                log.warn("OpenRemote rejected {} of {} spooled attribute writes", rejected, events.size());
+            }
+            drainedEvents.add(events.size() - rejected);
+            rejectedEvents.add(rejected);
+        } catch (FeignException ex) {
+            if (!isPermanentFailure(ex)) {
+                throw ex;
+            }
+            log.error("Dropping {} spooled attribute writes rejected with HTTP {}: {}",
+                    events.size(), ex.status(), ex.getMessage());
+            rejectedEvents.add(events.size());
+        }
+        events.stream().map(event -> event.getRef().getId()).distinct().forEach(assetCache::invalidate);
+    }
+
+    private void drainLoop() {
+        Duration backoff = retryInitialBackoff;
+        while (running) {
+            try {
+                if (drainOnce() == 0) {
+                    sleep(idlePollInterval);
+                }
+                backoff = retryInitialBackoff;
+            } catch (RuntimeException ex) {
+                if (!running) {
+                    return;
+                }
+                drainFailures.increment();
+                log.warn("Failed to drain attribute write spool, retrying in {}: {}", backoff, ex.getMessage());
+                sleep(backoff);
+                backoff = backoff.multipliedBy(2).compareTo(retryMaxBackoff) > 0 ? retryMaxBackoff
+                        : backoff.multipliedBy(2);
+            }
+        }
+    }
+
+    /**
+     * Client errors mean OpenRemote will never accept the batch; everything else may succeed on retry.
+     */
+    private static boolean isPermanentFailure(FeignException ex) {
+        int status = ex.status();
+        return status >= 400 && status < 500 && status != 401 && status != 403 && status != 408 && status != 429;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package com.tworun.openremoteclientservice.spool;
+
+import com.tworun.openremoteclientservice.exception.SpoolFullException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of byte records, stored in fixed-size memory-mapped segment files.
+ * <p>
+ * Each record is written as {@code int length, int crc32, payload}. A length of {@code -1} marks the end of a
+ * segment whose remaining space was too small for the next record. The read position is kept in a memory-mapped
+ * checkpoint file; {@link #commit(Position)} advances it and deletes the segments before it.
+ * </p>
+ * <p>
+ * Appends and reads are serialized by one lock and only copy bytes, so they never wait on disk I/O unless
+ * {@code syncOnAppend} is set. A segment filled by an append is forced to disk by the next {@link #read}, outside
+ * the lock, so request threads do not wait for it. Records survive a process crash once appended; without {@code syncOnAppend} they
+ * can be lost on power loss until the OS writes the pages back. A record torn by a crash fails its checksum and
+ * ends the recovered log. A record of a full segment that fails its checksum when read, e.g. after the OS lost
+ * some of its pages, is skipped together with the rest of that segment, since its length cannot be trusted either.
+ * </p>
+ */
+@Slf4j
+public final class SegmentLog implements Closeable {
+
+    private static final int HEADER_BYTES = 8;
+    private static final int END_OF_SEGMENT = -1;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final boolean syncOnAppend;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final MappedByteBuffer checkpoint;
+    private Position committed;
+
+    private long writeSegment;
+    private MappedByteBuffer writeBuffer;
+
+    private long readSegment = -1;
+    private MappedByteBuffer readBuffer;
+
+    private final List<MappedByteBuffer> unsyncedSegments = new ArrayList<>();   // Guarded by lock
+
+    /**
+     * Position of a record in the log.
+     *
+     * @param segment Sequence number of the segment file.
+     * @param offset Byte offset of the record within the segment.
+     */
+    public record Position(long segment, int offset) {
+    }
+
+    /**
+     * Records read from the log, and the position after the last one.
+     */
+    public record Batch(List<byte[]> records, Position next) {
+
+        public boolean isEmpty() {
+            return records.isEmpty();
+        }
+    }
+
+    private SegmentLog(Path directory, int segmentSize, int maxSegments, boolean syncOnAppend) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.syncOnAppend = syncOnAppend;
+
+        Files.createDirectories(directory);
+        List<Long> segments = listSegments();
+        Path checkpointFile = directory.resolve(CHECKPOINT_FILE);
+        boolean newCheckpoint = Files.notExists(checkpointFile);
+        checkpoint = map(checkpointFile, 16);
+        committed = newCheckpoint
+                ? new Position(segments.isEmpty() ? 0 : segments.get(0), 0)
+                : new Position(checkpoint.getLong(0), checkpoint.getInt(8));
+
+        for (long segment : segments) {
+            if (segment < committed.segment()) {
+                Files.deleteIfExists(segmentFile(segment));
+            }
+        }
+        writeSegment = segments.isEmpty() ? committed.segment()
+                : Math.max(committed.segment(), segments.get(segments.size() - 1));
+        writeBuffer = map(segmentFile(writeSegment), segmentSize);
+        recoverWritePosition();
+        writeCheckpoint(committed);
+    }
+
+    /**
+     * Opens the log in the given directory, recovering the segments and checkpoint left by a previous run.
+     *
+     * @param directory Directory holding the segment and checkpoint files; created if missing.
+     * @param segmentSize Size of each segment file in bytes.
+     * @param maxSegments Maximum number of segments on disk; appends fail with {@link SpoolFullException} beyond it.
+     * @param syncOnAppend Whether each append is forced to disk before it returns.
+     * @return the opened log.
+     * @throws IOException if the files cannot be created or mapped.
+     */
+    public static SegmentLog open(Path directory, int segmentSize, int maxSegments, boolean syncOnAppend)
+            throws IOException {
+        if (segmentSize < 1024 || maxSegments < 2) {
+            throw new IllegalArgumentException("segmentSize must be at least 1024 bytes and maxSegments at least 2");
+        }
+        return new SegmentLog(directory, segmentSize, maxSegments, syncOnAppend);
+    }
+
+    /**
+     * Appends a record to the end of the log.
+     *
+     * @param payload Record bytes.
+     * @throws SpoolFullException if the record would need more than {@code maxSegments} segments on disk.
+     * @throws IllegalArgumentException if the record does not fit into one segment.
+     */
+    public void append(byte[] payload) {
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes > segmentSize - Integer.BYTES) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes exceeds the segment size");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        lock.lock();
+        try {
+            if (writeBuffer.remaining() < recordBytes) {
+                rollOver();
+            }
+            int offset = writeBuffer.position();
+            writeBuffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+            if (syncOnAppend) {
+                writeBuffer.force(offset, recordBytes);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads records from the committed position on, without moving it.
+     *
+     * @param maxRecords Maximum number of records to return.
+     * @return the records and the position to {@link #commit(Position)} once they are processed.
+     */
+    public Batch read(int maxRecords) {
+        syncFullSegments();
+        lock.lock();
+        try {
+            return readFrom(committed, maxRecords);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads records from a position at or after the committed one, e.g. the end of a batch not committed yet.
+     *
+     * @param from Position returned by an earlier read.
+     * @param maxRecords Maximum number of records to return.
+     * @return the records and the position after the last one.
+     */
+    public Batch read(Position from, int maxRecords) {
+        syncFullSegments();
+        lock.lock();
+        try {
+            return readFrom(from, maxRecords);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Batch readFrom(Position from, int maxRecords) {
+        List<byte[]> records = new ArrayList<>();
+        long segment = from.segment();
+        int offset = from.offset();
+        while (records.size() < maxRecords) {
+            if (segment == writeSegment && offset >= writeBuffer.position()) {
+                break;
+            }
+            MappedByteBuffer buffer = readBuffer(segment);
+            int length = offset + HEADER_BYTES <= segmentSize ? buffer.getInt(offset) : END_OF_SEGMENT;
+            if (length <= 0 || offset + HEADER_BYTES + length > segmentSize) {
+                segment++;
+                offset = 0;
+                continue;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(offset + HEADER_BYTES, payload);
+            if (segment != writeSegment && !hasValidChecksum(buffer, offset, payload)) {
+                log.warn("Spool segment {} has a corrupt record at offset {}, skipping the rest of it", segment,
+                        offset);
+                segment++;
+                offset = 0;
+                continue;
+            }
+            records.add(payload);
+            offset += HEADER_BYTES + length;
+        }
+        return new Batch(records, new Position(segment, offset));
+    }
+
+    /**
+     * Moves the committed position forward and deletes the segments that are fully read.
+     *
+     * @param position Position returned by a read.
+     */
+    public void commit(Position position) {
+        lock.lock();
+        try {
+            long previousSegment = committed.segment();
+            writeCheckpoint(position);
+            committed = position;
+            for (long segment = previousSegment; segment < position.segment(); segment++) {
+                deleteSegment(segment);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bytes appended but not yet committed, including unused space at the end of full segments.
+     */
+    public long backlogBytes() {
+        lock.lock();
+        try {
+            return (writeSegment - committed.segment()) * segmentSize + writeBuffer.position() - committed.offset();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of segment files on disk.
+     */
+    public int segmentCount() {
+        lock.lock();
+        try {
+            return (int) (writeSegment - committed.segment() + 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces the current segment and the checkpoint to disk.
+     */
+    @Override
+    public void close() {
+        syncFullSegments();
+        lock.lock();
+        try {
+            writeBuffer.force();
+            checkpoint.force();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void rollOver() {
+        if (writeSegment - committed.segment() + 1 >= maxSegments) {
+            throw new SpoolFullException("Spool is full: " + maxSegments + " segments of " + segmentSize
+                    + " bytes are waiting to be drained");
+        }
+        if (writeBuffer.remaining() >= Integer.BYTES) {
+            writeBuffer.putInt(END_OF_SEGMENT);
+        }
+        unsyncedSegments.add(writeBuffer);
+        try {
+            MappedByteBuffer next = map(segmentFile(writeSegment + 1), segmentSize);
+            writeSegment++;
+            writeBuffer = next;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to create spool segment " + (writeSegment + 1), ex);
+        }
+        log.debug("Spool rolled over to segment {}", writeSegment);
+    }
+
+    /**
+     * Forces the segments filled since the last call to disk, without holding the lock while doing so.
+     */
+    private void syncFullSegments() {
+        List<MappedByteBuffer> full;
+        lock.lock();
+        try {
+            if (unsyncedSegments.isEmpty()) {
+                return;
+            }
+            full = new ArrayList<>(unsyncedSegments);
+            unsyncedSegments.clear();
+        } finally {
+            lock.unlock();
+        }
+        full.forEach(MappedByteBuffer::force);
+    }
+
+    /**
+     * Finds the end of the valid records in the last segment and clears everything after it,
+     * so a torn record from a crash is overwritten instead of read.
+     */
+    private void recoverWritePosition() {
+        int offset = writeSegment == committed.segment() ? committed.offset() : 0;
+        int records = 0;
+        while (offset + HEADER_BYTES <= segmentSize) {
+            int length = writeBuffer.getInt(offset);
+            if (length == END_OF_SEGMENT) {
+                offset = segmentSize;
+                break;
+            }
+            if (length <= 0 || offset + HEADER_BYTES + length > segmentSize) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            writeBuffer.get(offset + HEADER_BYTES, payload);
+            if (!hasValidChecksum(writeBuffer, offset, payload)) {
+                log.warn("Spool segment {} has a torn record at offset {}, dropping the rest of it", writeSegment, offset);
+                break;
+            }
+            offset += HEADER_BYTES + length;
+            records++;
+        }
+        offset = Math.min(offset, segmentSize);
+        int i = offset;
+        for (; i < segmentSize && i % Long.BYTES != 0; i++) {
+            writeBuffer.put(i, (byte) 0);
+        }
+        for (; i + Long.BYTES <= segmentSize; i += Long.BYTES) {
+            if (writeBuffer.getLong(i) != 0) {                                // Only touch dirty pages
+                writeBuffer.putLong(i, 0);
+            }
+        }
+        for (; i < segmentSize; i++) {
+            writeBuffer.put(i, (byte) 0);
+        }
+        writeBuffer.position(offset);
+        if (records > 0) {
+            log.info("Recovered spool at segment {} offset {}, {} segment(s) to drain", writeSegment, offset,
+                    writeSegment - committed.segment() + 1);
+        }
+    }
+
+    private static boolean hasValidChecksum(MappedByteBuffer buffer, int offset, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue() == buffer.getInt(offset + Integer.BYTES);
+    }
+
+    private MappedByteBuffer readBuffer(long segment) {
+        if (segment == writeSegment) {
+            return writeBuffer;
+        }
+        if (segment != readSegment) {
+            try {
+                readBuffer = map(segmentFile(segment), segmentSize);
+                readSegment = segment;
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to open spool segment " + segment, ex);
+            }
+        }
+        return readBuffer;
+    }
+
+    private void writeCheckpoint(Position position) {
+        checkpoint.putLong(0, position.segment()).putInt(8, position.offset());
+        if (syncOnAppend) {
+            checkpoint.force();
+        }
+    }
+
+    private void deleteSegment(long segment) {
+        if (segment == readSegment) {
+            readSegment = -1;
+            readBuffer = null;
+        }
+        try {
+            Files.deleteIfExists(segmentFile(segment));
+        } catch (IOException ex) {
+            log.warn("Failed to delete drained spool segment {}: {}", segment, ex.getMessage());
+        }
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentFile(long segment) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private static MappedByteBuffer map(Path file, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.tworun.openremoteclientservice.bulkhead;
+
+import com.tworun.openremoteclientservice.exception.AssetNotFoundException;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OperationBulkheadsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OperationBulkheads operationBulkheads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        operationBulkheads = new OperationBulkheads(
+                BulkheadRegistry.of(BulkheadConfig.custom()
+                        .maxConcurrentCalls(1)
+                        .maxWaitDuration(Duration.ZERO)
+                        .build()),
+                ThreadPoolBulkheadRegistry.of(ThreadPoolBulkheadConfig.custom()
+                        .coreThreadPoolSize(1)
+                        .maxThreadPoolSize(1)
+                        .queueCapacity(1)
+                        .build()),
+                meterRegistry);
+        ReflectionTestUtils.setField(operationBulkheads, "enabled", true);
+        ReflectionTestUtils.setField(operationBulkheads, "threadPoolBulkheads", List.of("assetDeleteBulkhead"));
+        operationBulkheads.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        operationBulkheads.shutdown();
+    }
+
+    @Test
+    @DisplayName("A full operation bulkhead should reject its calls while other operations still run")
+    void isolate_rejectsWhenSemaphoreIsFull() throws Throwable {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> slowCreate = CompletableFuture.supplyAsync(() -> {
+            try {
+                return operationBulkheads.isolate(joinPoint("createAsset", () -> {
+                    started.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return "created";
+                }));
+            } catch (Throwable ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        try {
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> operationBulkheads.isolate(joinPoint("createAssets", () -> "batch")))
+                    .isInstanceOf(BulkheadFullException.class);
+            assertThat(operationBulkheads.isolate(joinPoint("getAsset", () -> "asset"))).isEqualTo("asset");
+            assertThat(operationBulkheads.isolate(joinPoint("writeAttribute", () -> "unbounded"))).isEqualTo("unbounded");
+        } finally {
+            release.countDown();
+        }
+
+        assertThat(slowCreate.get(5, TimeUnit.SECONDS)).isEqualTo("created");
+        assertThat(meterRegistry.get("openremote.bulkhead.rejected")
+                .tag("name", "assetCreateBulkhead").tag("type", "semaphore").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("A thread-pool bulkhead should run calls on its own pool and pass their exceptions on unchanged")
+    void isolate_runsOnThreadPool() throws Throwable {
+        Thread caller = Thread.currentThread();
+
+        Object thread = operationBulkheads.isolate(joinPoint("deleteAssets", Thread::currentThread));
+
+        assertThat(thread).isNotSameAs(caller);
+        assertThatThrownBy(() -> operationBulkheads.isolate(joinPoint("deleteSubtree", () -> {
+            throw new AssetNotFoundException("Some asset(s) not found: [id1]");
+        }))).isInstanceOf(AssetNotFoundException.class).hasMessageContaining("id1");
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        Object run() throws Throwable;
+    }
+
+    private static ProceedingJoinPoint joinPoint(String method, Body body) throws Throwable {
+        Signature signature = mock(Signature.class);
+        when(signature.getName()).thenReturn(method);
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.proceed()).thenAnswer(invocation -> body.run());
+        return joinPoint;
+    }
+}
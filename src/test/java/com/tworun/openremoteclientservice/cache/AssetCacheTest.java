@@ -0,0 +1,137 @@
+package com.tworun.openremoteclientservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tworun.openremoteclientservice.dto.AssetResponse;
+import com.tworun.openremoteclientservice.dto.AttributeObject;
+import com.tworun.openremoteclientservice.dto.AttributeRef;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssetCacheTest {
+
+    private AssetCache assetCache;
+
+    @BeforeEach
+    void setUp() {
+        assetCache = new AssetCache(Caffeine.newBuilder().maximumSize(100).recordStats().build(),
+                Caffeine.newBuilder().maximumSize(100).build());
+    }
+
+    @Test
+    @DisplayName("Should return cached asset after put")
+    void put_thenGet() {
+        AssetResponse asset = asset("abc123", 1L);
+
+        assetCache.put(asset);
+
+        assertThat(assetCache.get("abc123")).isSameAs(asset);
+    }
+
+    @Test
+    @DisplayName("Should not overwrite a newer cached version with an older response")
+    void put_olderVersionIgnored() {
+        AssetResponse newer = asset("abc123", 2L);
+        AssetResponse older = asset("abc123", 1L);
+
+        assetCache.put(newer);
+        AssetResponse result = assetCache.put(older);
+
+        assertThat(result).isSameAs(newer);
+        assertThat(assetCache.get("abc123")).isSameAs(newer);
+    }
+
+    @Test
+    @DisplayName("Should replace cached entry with a newer version")
+    void put_newerVersionReplaces() {
+        AssetResponse older = asset("abc123", 1L);
+        AssetResponse newer = asset("abc123", 2L);
+
+        assetCache.put(older);
+        assetCache.put(newer);
+
+        assertThat(assetCache.get("abc123")).isSameAs(newer);
+    }
+
+    @Test
+    @DisplayName("Should remove invalidated assets and record hits and misses")
+    void invalidateAll_removesEntries() {
+        assetCache.put(asset("id1", 1L));
+        assetCache.put(asset("id2", 1L));
+
+        assertThat(assetCache.get("id1")).isNotNull();
+        assetCache.invalidateAll(List.of("id1", "id2"));
+
+        assertThat(assetCache.get("id1")).isNull();
+        assertThat(assetCache.get("id2")).isNull();
+        assertThat(assetCache.stats().hitCount()).isEqualTo(1);
+        assertThat(assetCache.stats().missCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should keep the last known asset after invalidation until the asset is removed")
+    void lastKnown_survivesInvalidation() {
+        AssetResponse asset = asset("id1", 1L);
+        assetCache.put(asset);
+
+        assetCache.invalidate("id1");
+
+        assertThat(assetCache.get("id1")).isNull();
+        assertThat(assetCache.getLastKnown("id1").asset()).isSameAs(asset);
+
+        assetCache.remove(List.of("id1"));
+
+        assertThat(assetCache.getLastKnown("id1")).isNull();
+    }
+
+    @Test
+    @DisplayName("A read started before an attribute event should not replace the updated entry")
+    void put_afterAttributeEventIgnoresOlderRead() {
+        assetCache.put(asset("abc123", 1L, 20, 1000L));
+        AssetResponse inFlightRead = asset("abc123", 1L, 20, 1000L);
+
+        assetCache.applyAttributeValue(new AttributeRef("abc123", "temperature"), 21, 2000L);
+        assetCache.put(inFlightRead);
+
+        assertThat(assetCache.get("abc123").getAttributes().get("temperature").getValue()).isEqualTo(21);
+        assertThat(assetCache.getLastKnown("abc123").asset().getAttributes().get("temperature").getValue())
+                .isEqualTo(21);
+    }
+
+    @Test
+    @DisplayName("A read of an uncached asset completing after it was changed or deleted should not be cached")
+    void put_afterPushedChangeOfUncachedAsset() {
+        assetCache.applyChange(asset("updated", 2L));
+        assetCache.applyDelete("deleted");
+        assetCache.applyAttributeValue(new AttributeRef("written", "temperature"), 21, 2000L);
+
+        assetCache.put(asset("updated", 1L));
+        assetCache.put(asset("deleted", 1L));
+        assetCache.put(asset("written", 1L, 20, 1000L));
+        assetCache.put(asset("later", 1L));
+
+        assertThat(assetCache.get("updated")).isNull();
+        assertThat(assetCache.get("deleted")).isNull();
+        assertThat(assetCache.get("written")).isNull();
+        assertThat(assetCache.get("later")).isNotNull();
+        assertThat(assetCache.put(asset("updated", 2L))).isSameAs(assetCache.get("updated"));
+    }
+
+    private static AssetResponse asset(String id, Long version) {
+        AssetResponse asset = new AssetResponse();
+        asset.setId(id);
+        asset.setVersion(version);
+        return asset;
+    }
+
+    private static AssetResponse asset(String id, Long version, Object temperature, Long timestamp) {
+        AssetResponse asset = asset(id, version);
+        asset.setAttributes(Map.of("temperature", new AttributeObject("temperature", temperature, null, null, timestamp)));
+        return asset;
+    }
+}
@@ -0,0 +1,168 @@
+package com.tworun.openremoteclientservice.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tworun.openremoteclientservice.dto.AssetResponse;
+import com.tworun.openremoteclientservice.dto.AttributeObject;
+import com.tworun.openremoteclientservice.service.AuthService;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.OnMessage;
+import jakarta.websocket.OnOpen;
+import jakarta.websocket.Session;
+import jakarta.websocket.server.ServerEndpoint;
+import org.apache.catalina.Context;
+import org.apache.catalina.servlets.DefaultServlet;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.websocket.server.WsSci;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AssetEventSubscriberTest {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    @Mock
+    private AuthService authService;
+
+    @TempDir
+    Path directory;
+
+    private Tomcat broker;
+    private Cache<String, AssetResponse> assetResponseCache;
+    private AssetCache assetCache;
+    private AssetEventSubscriber subscriber;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        BrokerEndpoint.sessions.clear();
+        broker = new Tomcat();
+        broker.setBaseDir(directory.toString());
+        broker.setPort(0);
+        Context context = broker.addContext("", directory.toString());
+        context.addServletContainerInitializer(new WsSci(), Set.of(BrokerEndpoint.class));
+        Tomcat.addServlet(context, "default", new DefaultServlet());
+        context.addServletMappingDecoded("/", "default");
+        broker.getConnector();
+        broker.start();
+
+        assetResponseCache = Caffeine.newBuilder().expireAfterWrite(TTL).build();
+        assetCache = new AssetCache(assetResponseCache, Caffeine.newBuilder().maximumSize(100).build());
+        when(authService.getToken()).thenReturn("token");
+        subscriber = new AssetEventSubscriber(assetCache, authService, new ObjectMapper());
+        ReflectionTestUtils.setField(subscriber, "url",
+                "ws://localhost:" + broker.getConnector().getLocalPort() + "/websocket/events");
+        ReflectionTestUtils.setField(subscriber, "reconnectInitialBackoff", Duration.ofMillis(50));
+        subscriber.start();
+        await().atMost(Duration.ofSeconds(5)).until(subscriber::isSubscribed);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        subscriber.stop();
+        broker.stop();
+        broker.destroy();
+    }
+
+    @Test
+    @DisplayName("Attribute and asset events should be applied to cached assets")
+    void triggeredEvents_updateCache() throws IOException {
+        assetCache.put(asset("id1", 20, 1000L));
+        assetCache.put(asset("id2", 5, 1000L));
+
+        trigger("attribute", """
+                {"eventType": "attribute", "ref": {"id": "id1", "name": "temperature"}, "value": 21, "timestamp": 2000}
+                """);
+        trigger("asset", """
+                {"eventType": "asset", "cause": "DELETE", "asset": {"id": "id2"}}
+                """);
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            assertThat(assetCache.get("id1").getAttributes().get("temperature").getValue()).isEqualTo(21);
+            assertThat(assetCache.get("id2")).isNull();
+            assertThat(assetCache.getLastKnown("id2")).isNull();
+        });
+    }
+
+    @Test
+    @DisplayName("A dropped stream should fall back to the cache TTL and resubscribe")
+    void droppedStream_fallsBackToTtlAndResubscribes() throws IOException {
+        assertThat(expiresAfter()).isEqualTo(Duration.ofMinutes(10));
+
+        BrokerEndpoint.sessions.get(0).close(new CloseReason(CloseReason.CloseCodes.GOING_AWAY, "restart"));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> BrokerEndpoint.sessions.size() == 2);
+        await().atMost(Duration.ofSeconds(5)).until(subscriber::isSubscribed);
+        assertThat(expiresAfter()).isEqualTo(Duration.ofMinutes(10));
+    }
+
+    @Test
+    @DisplayName("A stream that cannot be reopened should leave the cache on its normal TTL")
+    void brokerDown_keepsTtl() throws Exception {
+        broker.stop();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> !subscriber.isSubscribed());
+        assertThat(expiresAfter()).isEqualTo(TTL);
+    }
+
+    private Duration expiresAfter() {
+        return assetResponseCache.policy().expireAfterWrite().orElseThrow().getExpiresAfter();
+    }
+
+    private static void trigger(String subscription, String event) throws IOException {
+        BrokerEndpoint.sessions.get(BrokerEndpoint.sessions.size() - 1).getBasicRemote().sendText(
+                "TRIGGERED:{\"subscriptionId\": \"asset-cache-" + subscription + "\", \"events\": [" + event + "]}");
+    }
+
+    private static AssetResponse asset(String id, Object temperature, Long timestamp) {
+        AttributeObject attribute = new AttributeObject();
+        attribute.setName("temperature");
+        attribute.setValue(temperature);
+        attribute.setTimestamp(timestamp);
+        AssetResponse asset = new AssetResponse();
+        asset.setId(id);
+        asset.setVersion(1L);
+        asset.setAttributes(Map.of("temperature", attribute));
+        return asset;
+    }
+
+    /**
+     * Stand-in for the OpenRemote event websocket: confirms every subscription.
+     */
+    @ServerEndpoint("/websocket/events")
+    public static class BrokerEndpoint {
+        static final List<Session> sessions = new CopyOnWriteArrayList<>();
+
+        @OnOpen
+        public void onOpen(Session session) {
+            sessions.add(session);
+        }
+
+        @OnMessage
+        public void onMessage(Session session, String message) throws IOException {
+            if (message.startsWith("SUBSCRIBE:")) {
+                session.getBasicRemote().sendText("SUBSCRIBED:" + message.substring("SUBSCRIBE:".length()));
+            }
+        }
+    }
+}
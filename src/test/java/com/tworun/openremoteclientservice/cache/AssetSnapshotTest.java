@@ -0,0 +1,112 @@
+package com.tworun.openremoteclientservice.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tworun.openremoteclientservice.client.AssetClient;
+import com.tworun.openremoteclientservice.dto.AssetResponse;
+import com.tworun.openremoteclientservice.service.AuthService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AssetSnapshotTest {
+
+    @Mock
+    private AssetClient assetClient;
+    @Mock
+    private AuthService authService;
+
+    @TempDir
+    Path directory;
+
+    private AssetCache previousCache;
+    private AssetCache restoredCache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        previousCache = newCache();
+        previousCache.put(asset("id1", 1L));
+        previousCache.put(asset("id2", 1L));
+        previousCache.restore(new LastKnownAsset(asset("old", 1L), Instant.now().minus(Duration.ofHours(1))), false);
+        assertThat(newSnapshot(previousCache).write()).isEqualTo(3);
+        restoredCache = newCache();
+    }
+
+    @Test
+    @DisplayName("Recent assets should be cached again on startup, older ones only kept as last known")
+    void load_restoresAssets() {
+        newSnapshot(restoredCache).load();
+
+        assertThat(restoredCache.get("id1")).isEqualTo(asset("id1", 1L));
+        assertThat(restoredCache.get("id2")).isEqualTo(asset("id2", 1L));
+        assertThat(restoredCache.get("old")).isNull();
+        assertThat(restoredCache.getLastKnown("old").readAt())
+                .isEqualTo(previousCache.getLastKnown("old").readAt().truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    @Test
+    @DisplayName("Restored assets should be replaced by newer versions and evicted if OpenRemote no longer returns them")
+    void revalidate_updatesRestoredAssets() {
+        AssetSnapshot snapshot = newSnapshot(restoredCache);
+        snapshot.load();
+        when(authService.getToken()).thenReturn("token");
+        when(assetClient.queryAssets(eq("Bearer token"),
+                argThat(query -> query.getIds().containsAll(List.of("id1", "id2")))))
+                .thenReturn(List.of(asset("id1", 2L)));
+
+        snapshot.revalidate();
+
+        assertThat(restoredCache.get("id1").getVersion()).isEqualTo(2L);
+        assertThat(restoredCache.get("id2")).isNull();
+        assertThat(restoredCache.getLastKnown("id2")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("A corrupt snapshot record should end the restore")
+    void load_stopsAtCorruptRecord() throws Exception {
+        Path file = directory.resolve("assets.snapshot");
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 2] ^= 0x7F;
+        Files.write(file, bytes);
+
+        newSnapshot(restoredCache).load();
+
+        assertThat(restoredCache.lastKnownAssets()).hasSize(2);
+    }
+
+    private AssetSnapshot newSnapshot(AssetCache assetCache) {
+        AssetSnapshot snapshot = new AssetSnapshot(assetCache, assetClient, authService, new ObjectMapper());
+        ReflectionTestUtils.setField(snapshot, "path", directory.resolve("assets.snapshot"));
+        return snapshot;
+    }
+
+    private static AssetCache newCache() {
+        return new AssetCache(Caffeine.newBuilder().maximumSize(100).build(), Caffeine.newBuilder().maximumSize(100).build());
+    }
+
+    private static AssetResponse asset(String id, Long version) {
+        AssetResponse asset = new AssetResponse();
+        asset.setId(id);
+        asset.setVersion(version);
+        asset.setName("Asset " + id);
+        return asset;
+    }
+}
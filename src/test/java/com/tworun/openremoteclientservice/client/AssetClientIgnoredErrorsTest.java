@@ -0,0 +1,38 @@
+package com.tworun.openremoteclientservice.client;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssetClientIgnoredErrorsTest {
+
+    private final AssetClientIgnoredErrors ignoredErrors = new AssetClientIgnoredErrors();
+
+    @Test
+    @DisplayName("4xx answers other than 429 should not count as circuit breaker failures")
+    void test_ignoresClientErrorsButNotTooManyRequests() {
+        assertThat(ignoredErrors.test(answer(404))).isTrue();
+        assertThat(ignoredErrors.test(answer(400))).isTrue();
+        assertThat(ignoredErrors.test(answer(429))).isFalse();
+        assertThat(ignoredErrors.test(answer(503))).isFalse();
+        assertThat(ignoredErrors.test(new IOException("Connection reset"))).isFalse();
+    }
+
+    private static FeignException answer(int status) {
+        Request request = Request.create(Request.HttpMethod.GET, "/asset/id1", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        return FeignException.errorStatus("AssetClient#getAsset(String)", Response.builder()
+                .status(status)
+                .request(request)
+                .headers(Map.of())
+                .build());
+    }
+}
@@ -1,13 +1,27 @@
 package com.tworun.openremoteclientservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.DoubleNode;
 import com.tworun.openremoteclientservice.config.AssetServiceTestConfig;
+import com.tworun.openremoteclientservice.dto.AssetBatchCreateRequest;
+import com.tworun.openremoteclientservice.dto.AssetBatchItemResult;
+import com.tworun.openremoteclientservice.dto.AssetBatchResponse;
 import com.tworun.openremoteclientservice.dto.AssetCreateRequest;
+import com.tworun.openremoteclientservice.dto.AssetIdsRequest;
+import com.tworun.openremoteclientservice.dto.AssetMultiGetResponse;
 import com.tworun.openremoteclientservice.dto.AssetResponse;
+import com.tworun.openremoteclientservice.dto.AssetSubtreeDeleteRequest;
 import com.tworun.openremoteclientservice.dto.AttributeObject;
+import com.tworun.openremoteclientservice.dto.AttributeRef;
+import com.tworun.openremoteclientservice.dto.AttributeWriteResult;
 import com.tworun.openremoteclientservice.exception.AccessTokenNotFoundException;
 import com.tworun.openremoteclientservice.exception.AssetNotFoundException;
+import com.tworun.openremoteclientservice.exception.AssetPreconditionFailedException;
+import com.tworun.openremoteclientservice.exception.AttributeWriteException;
 import com.tworun.openremoteclientservice.exception.AuthException;
+import com.tworun.openremoteclientservice.exception.ErrorResponse;
+import com.tworun.openremoteclientservice.service.AssetETags;
+import com.tworun.openremoteclientservice.service.AssetRead;
 import com.tworun.openremoteclientservice.service.AssetService;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,9 +31,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Duration;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,14 +44,22 @@ import java.util.Map;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -173,6 +198,51 @@ class AssetControllerTest {
                 .andExpect(jsonPath("$.details", hasItem(containsString("realm"))));
     }
 
+    @Test
+    @DisplayName("Should create assets in batch and return per-asset results")
+    void createAssets_Success() throws Exception {
+        AssetBatchCreateRequest request = new AssetBatchCreateRequest();
+        request.setAssets(List.of(sampleCreateRequest, sampleCreateRequest));
+
+        AssetBatchResponse response = new AssetBatchResponse(List.of(
+                AssetBatchItemResult.created(0, sampleResponse),
+                AssetBatchItemResult.failed(1, new ErrorResponse("ASSET_CREATION_FAILED", "Failed to create asset: boom"))));
+        when(assetService.createAssets(anyList())).thenReturn(response);
+
+        mockMvc.perform(post("/api/assets/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.results[0].asset.id").value("some-id-123"))
+                .andExpect(jsonPath("$.results[1].status").value("FAILED"))
+                .andExpect(jsonPath("$.results[1].error.code").value("ASSET_CREATION_FAILED"));
+    }
+
+    @Test
+    @DisplayName("Should reject the whole batch with 400 BAD REQUEST when one asset is invalid")
+    void createAssets_InvalidItem() throws Exception {
+        clearInvocations(assetService);
+        AssetCreateRequest invalid = new AssetCreateRequest();
+        invalid.setName("");
+        invalid.setType("smart_bulb");
+        invalid.setRealm("tutku-tenant");
+        invalid.setAttributes(sampleAttributes);
+
+        AssetBatchCreateRequest request = new AssetBatchCreateRequest();
+        request.setAssets(List.of(sampleCreateRequest, invalid));
+
+        mockMvc.perform(post("/api/assets/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"))
+                .andExpect(jsonPath("$.details", hasItem(containsString("assets[1].name"))));
+
+        verify(assetService, never()).createAssets(anyList());
+    }
+
     @Test
     @DisplayName("Should return 401 UNAUTHORIZED and error response when AuthException occurs")
     void shouldHandleAuthException() throws Exception {
@@ -223,7 +293,7 @@ class AssetControllerTest {
 
         AssetResponse response = sampleResponse;
 
-        when(assetService.getAsset(assetId)).thenReturn(response);
+        when(assetService.readAsset(assetId)).thenReturn(new AssetRead(response, null));
 
         // Act & Assert
         mockMvc.perform(get("/api/assets/{id}", assetId))
@@ -238,7 +308,7 @@ class AssetControllerTest {
     void shouldReturn404_whenAssetNotFound() throws Exception {
         // Arrange
         String missingId = "not-found-asset";
-        when(assetService.getAsset(missingId))
+        when(assetService.readAsset(missingId))
                 .thenThrow(new AssetNotFoundException("Asset not found with id: " + missingId));
 
         // Act & Assert
@@ -248,6 +318,72 @@ class AssetControllerTest {
                 .andExpect(jsonPath("$.message").value("Asset not found with id: " + missingId));
     }
 
+    @Test
+    @DisplayName("Should answer 304 NOT MODIFIED when If-None-Match holds the asset ETag")
+    void shouldReturn304_whenAssetUnchanged() throws Exception {
+        when(assetService.readAsset("some-id-123")).thenReturn(new AssetRead(sampleResponse, null));
+        String etag = AssetETags.of(sampleResponse);
+
+        mockMvc.perform(get("/api/assets/{id}", "some-id-123"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        mockMvc.perform(get("/api/assets/{id}", "some-id-123").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("Should mark a last known asset served during an outage as stale")
+    void shouldMarkStaleAsset() throws Exception {
+        when(assetService.readAsset("some-id-123")).thenReturn(new AssetRead(sampleResponse, Duration.ofSeconds(42)));
+
+        mockMvc.perform(get("/api/assets/{id}", "some-id-123"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(AssetController.STALE_HEADER, "true"))
+                .andExpect(header().string(HttpHeaders.AGE, "42"))
+                .andExpect(jsonPath("$.id").value("some-id-123"));
+    }
+
+    @Test
+    @DisplayName("Should retrieve many assets by ids and list missing ids")
+    void shouldRetrieveAssetsByIds() throws Exception {
+        when(assetService.getAssets(List.of("some-id-123", "missing-id")))
+                .thenReturn(new AssetMultiGetResponse(List.of(sampleResponse), List.of("missing-id")));
+
+        mockMvc.perform(get("/api/assets").param("ids", "some-id-123,missing-id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.assets[0].id").value("some-id-123"))
+                .andExpect(jsonPath("$.missingIds[0]").value("missing-id"));
+    }
+
+    @Test
+    @DisplayName("Should retrieve many assets by ids passed in the request body")
+    void shouldQueryAssetsByIds() throws Exception {
+        AssetIdsRequest request = new AssetIdsRequest();
+        request.setIds(List.of("some-id-123"));
+        when(assetService.getAssets(List.of("some-id-123")))
+                .thenReturn(new AssetMultiGetResponse(List.of(sampleResponse), List.of()));
+
+        mockMvc.perform(post("/api/assets/query")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.assets[0].id").value("some-id-123"))
+                .andExpect(jsonPath("$.missingIds").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should return 400 BAD REQUEST when too many ids are requested")
+    void shouldRejectTooManyIds() throws Exception {
+        String ids = String.join(",", Collections.nCopies(AssetIdsRequest.MAX_IDS + 1, "id"));
+
+        mockMvc.perform(get("/api/assets").param("ids", ids))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"));
+    }
+
     @Test
     @DisplayName("Should update asset and return 200 OK")
     void updateAsset_success() throws Exception {
@@ -272,7 +408,7 @@ class AssetControllerTest {
         updatedResponse.setRealm("tutku-tenant");
         updatedResponse.setAttributes(attributes);
 
-        when(assetService.updateAsset(eq("abc123"), any(AssetCreateRequest.class))).thenReturn(updatedResponse);
+        when(assetService.updateAsset(eq("abc123"), any(AssetCreateRequest.class), isNull())).thenReturn(updatedResponse);
 
         mockMvc.perform(put("/api/assets/abc123")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -298,7 +434,7 @@ class AssetControllerTest {
         updateRequest.setRealm("tutku-tenant");
         updateRequest.setAttributes(attributes);
 
-        when(assetService.updateAsset(eq("invalid-id"), any(AssetCreateRequest.class)))
+        when(assetService.updateAsset(eq("invalid-id"), any(AssetCreateRequest.class), isNull()))
                 .thenThrow(new AssetNotFoundException("Asset not found with id: invalid-id"));
 
         mockMvc.perform(put("/api/assets/invalid-id")
@@ -309,6 +445,26 @@ class AssetControllerTest {
                 .andExpect(jsonPath("$.message").value("Asset not found with id: invalid-id"));
     }
 
+    @Test
+    @DisplayName("Should return 412 PRECONDITION FAILED when the asset no longer matches If-Match")
+    void updateAsset_preconditionFailed() throws Exception {
+        AssetCreateRequest updateRequest = new AssetCreateRequest();
+        updateRequest.setName("Test");
+        updateRequest.setType("smart_bulb");
+        updateRequest.setRealm("tutku-tenant");
+        updateRequest.setAttributes(Map.of("status", new AttributeObject("status", "on", null, null, null)));
+
+        when(assetService.updateAsset(eq("abc123"), any(AssetCreateRequest.class), eq("\"1-abc\"")))
+                .thenThrow(new AssetPreconditionFailedException("Asset was modified: abc123"));
+
+        mockMvc.perform(put("/api/assets/abc123")
+                        .header(HttpHeaders.IF_MATCH, "\"1-abc\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.code").value("ASSET_MODIFIED"));
+    }
+
     @Test
     @DisplayName("Should return 400 BAD REQUEST when required fields are missing")
     void updateAsset_validationError() throws Exception {
@@ -351,6 +507,90 @@ class AssetControllerTest {
                 .andExpect(jsonPath("$.message").value("Some asset(s) not found: " + ids));
     }
 
+    @Test
+    @DisplayName("Should return 400 Bad Request when a subtree delete has neither parent nor realm")
+    void deleteSubtree_unscoped() throws Exception {
+        clearInvocations(assetService);
+        AssetSubtreeDeleteRequest request = new AssetSubtreeDeleteRequest();
+        request.setTypes(List.of("ThingAsset"));
+
+        mockMvc.perform(delete("/api/assets/subtree")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"))
+                .andExpect(jsonPath("$.details", hasItem(containsString("parentId or realm is required."))));
+
+        verify(assetService, never()).deleteSubtree(any());
+    }
+
+    @Test
+    @DisplayName("Should return 204 No Content when an attribute value is written")
+    void writeAttribute_success() throws Exception {
+        mockMvc.perform(put("/api/assets/id1/attributes/temperature")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("21.5"))
+                .andExpect(status().isNoContent());
+
+        verify(assetService).writeAttribute("id1", "temperature", DoubleNode.valueOf(21.5));
+    }
+
+    @Test
+    @DisplayName("Should return 202 Accepted when the attribute write is buffered by the coalescer")
+    void writeAttribute_deferred() throws Exception {
+        when(assetService.isAttributeWriteDeferred()).thenReturn(true);
+
+        mockMvc.perform(put("/api/assets/id1/attributes/temperature")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("21.5"))
+                .andExpect(status().isAccepted());
+
+        when(assetService.isAttributeWriteDeferred()).thenReturn(false);
+    }
+
+    @Test
+    @DisplayName("Should return 404 Not Found when the attribute to write does not exist")
+    void writeAttribute_attributeNotFound() throws Exception {
+        doThrow(new AttributeWriteException("Failed to write attribute missing of asset id1: ATTRIBUTE_NOT_FOUND",
+                "ATTRIBUTE_NOT_FOUND"))
+                .when(assetService).writeAttribute(eq("id1"), eq("missing"), any());
+
+        mockMvc.perform(put("/api/assets/id1/attributes/missing")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("\"on\""))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("ATTRIBUTE_WRITE_FAILED"));
+    }
+
+    @Test
+    @DisplayName("Should return 200 OK with a result per attribute when many attribute values are written")
+    void writeAttributes_success() throws Exception {
+        List<AttributeWriteResult> results = List.of(
+                new AttributeWriteResult(new AttributeRef("id1", "temperature"), null),
+                new AttributeWriteResult(new AttributeRef("id1", "status"), "INVALID_VALUE"));
+        when(assetService.writeAttributes(eq("id1"), anyMap())).thenReturn(results);
+
+        mockMvc.perform(put("/api/assets/id1/attributes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"temperature\": 21.5, \"status\": \"on\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].ref.name").value("temperature"))
+                .andExpect(jsonPath("$[1].failure").value("INVALID_VALUE"));
+    }
+
+    @Test
+    @DisplayName("Should return 400 Bad Request when an attribute name is invalid")
+    void writeAttributes_invalidName() throws Exception {
+        clearInvocations(assetService);
+
+        mockMvc.perform(put("/api/assets/id1/attributes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bad name\": 1}"))
+                .andExpect(status().isBadRequest());
+
+        verify(assetService, never()).writeAttributes(any(), anyMap());
+    }
+
     /*@Test
     @Order(99)
     @DisplayName("Should return 429 TOO MANY REQUESTS when asset creation rate limit is exceeded")
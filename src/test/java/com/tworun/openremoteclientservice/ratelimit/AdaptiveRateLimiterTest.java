@@ -0,0 +1,122 @@
+package com.tworun.openremoteclientservice.ratelimit;
+
+import feign.FeignException;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AdaptiveRateLimiterTest {
+
+    private static final String LIMITER = "assetRetrievalLimiter";
+
+    private RateLimiterRegistry rateLimiterRegistry;
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveRateLimiter adaptiveRateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiterRegistry = RateLimiterRegistry.of(RateLimiterConfig.custom()
+                .limitForPeriod(10)
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .timeoutDuration(Duration.ZERO)
+                .build());
+        rateLimiterRegistry.rateLimiter(LIMITER);
+        meterRegistry = new SimpleMeterRegistry();
+        adaptiveRateLimiter = new AdaptiveRateLimiter(rateLimiterRegistry, meterRegistry);
+        ReflectionTestUtils.setField(adaptiveRateLimiter, "enabled", true);
+        ReflectionTestUtils.setField(adaptiveRateLimiter, "limiterNames", List.of(LIMITER));
+        // adjust() is called by the tests, the scheduled step must not interfere
+        ReflectionTestUtils.setField(adaptiveRateLimiter, "interval", Duration.ofHours(1));
+        adaptiveRateLimiter.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        adaptiveRateLimiter.shutdown();
+    }
+
+    @Test
+    @DisplayName("A 429 from OpenRemote should cut the limit multiplicatively")
+    void adjust_throttledHalvesLimit() throws Throwable {
+        callUpstream("getAsset", null);
+        assertThatThrownBy(() -> callUpstream("getAsset", feignException(429)))
+                .isInstanceOf(FeignException.class);
+
+        adaptiveRateLimiter.adjust();
+
+        assertThat(limit()).isEqualTo(5);
+        assertThat(meterRegistry.get("openremote.ratelimiter.limit").tag("name", LIMITER).gauge().value())
+                .isEqualTo(5.0);
+    }
+
+    @Test
+    @DisplayName("A high 5xx rate should cut the limit multiplicatively")
+    void adjust_errorsHalveLimit() throws Throwable {
+        assertThatThrownBy(() -> callUpstream("queryAssets", feignException(503)))
+                .isInstanceOf(FeignException.class);
+
+        adaptiveRateLimiter.adjust();
+
+        assertThat(limit()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Healthy calls should raise a saturated limit additively")
+    void adjust_healthySaturatedRaisesLimit() throws Throwable {
+        RateLimiter rateLimiter = rateLimiterRegistry.rateLimiter(LIMITER);
+        IntStream.range(0, 11).forEach(i -> rateLimiter.acquirePermission());
+        callUpstream("getAsset", null);
+
+        adaptiveRateLimiter.adjust();
+
+        assertThat(limit()).isEqualTo(11);
+    }
+
+    @Test
+    @DisplayName("Healthy calls should not raise a limit that is not in use")
+    void adjust_healthyIdleKeepsLimit() throws Throwable {
+        callUpstream("getAsset", null);
+
+        adaptiveRateLimiter.adjust();
+
+        assertThat(limit()).isEqualTo(10);
+    }
+
+    private void callUpstream(String clientMethod, RuntimeException failure) throws Throwable {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        Signature signature = mock(Signature.class);
+        when(signature.getName()).thenReturn(clientMethod);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        if (failure != null) {
+            when(joinPoint.proceed()).thenThrow(failure);
+        }
+        adaptiveRateLimiter.recordUpstreamCall(joinPoint);
+    }
+
+    private static FeignException feignException(int status) {
+        FeignException exception = mock(FeignException.class);
+        when(exception.status()).thenReturn(status);
+        return exception;
+    }
+
+    private int limit() {
+        return rateLimiterRegistry.rateLimiter(LIMITER).getRateLimiterConfig().getLimitForPeriod();
+    }
+}
@@ -0,0 +1,140 @@
+package com.tworun.openremoteclientservice.ratelimit;
+
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClusterRateLimiterTest {
+
+    private static final String LIMITER = "assetRetrievalLimiter";
+
+    private RateLimiterRegistry rateLimiterRegistry;
+    private final List<ClusterRateLimiter> replicas = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        rateLimiterRegistry = RateLimiterRegistry.of(RateLimiterConfig.custom()
+                .limitForPeriod(10)
+                .limitRefreshPeriod(Duration.ofHours(1))
+                .build());
+        rateLimiterRegistry.rateLimiter(LIMITER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        replicas.forEach(ClusterRateLimiter::shutdown);
+    }
+
+    @Test
+    @DisplayName("Replicas sharing a coordinator should together stay within one limit")
+    void limit_boundsAllReplicasTogether() throws Throwable {
+        LocalPermitCoordinator coordinator = new LocalPermitCoordinator(rateLimiterRegistry);
+        ClusterRateLimiter first = replica(coordinator, false);
+        ClusterRateLimiter second = replica(coordinator, false);
+
+        int admitted = 0;
+        int firstAdmitted = 0;
+        for (int i = 0; i < 20; i++) {
+            firstAdmitted += call(first) ? 1 : 0;
+            admitted += call(second) ? 1 : 0;
+        }
+        admitted += firstAdmitted;
+
+        assertThat(firstAdmitted).isPositive();
+        assertThat(admitted).isGreaterThan(firstAdmitted).isLessThanOrEqualTo(10);
+        assertThat(coordinator.lease(LIMITER, 1)).isZero();
+    }
+
+    @Test
+    @DisplayName("A request waiting for a used up budget should not ask the coordinator again before it refills")
+    void limit_budgetUsedUpBacksOff() throws Throwable {
+        PermitCoordinator coordinator = mock(PermitCoordinator.class);
+        when(coordinator.lease(eq(LIMITER), anyInt())).thenReturn(0);
+        ClusterRateLimiter replica = replica(coordinator, false);
+        ReflectionTestUtils.setField(replica, "maxWait", Duration.ofMillis(200));
+
+        assertThat(call(replica)).isFalse();
+        assertThat(call(replica)).isFalse();
+
+        verify(coordinator, times(1)).lease(eq(LIMITER), anyInt());
+    }
+
+    @Test
+    @DisplayName("An unreachable coordinator should reject requests without being asked again right away")
+    void limit_coordinatorDownRejects() throws Throwable {
+        PermitCoordinator coordinator = mock(PermitCoordinator.class);
+        when(coordinator.lease(eq(LIMITER), anyInt())).thenThrow(new IllegalStateException("Connection refused"));
+        ClusterRateLimiter replica = replica(coordinator, false);
+
+        assertThat(call(replica)).isFalse();
+        assertThat(call(replica)).isFalse();
+
+        verify(coordinator, times(1)).lease(eq(LIMITER), anyInt());
+    }
+
+    @Test
+    @DisplayName("With fail-open an unreachable coordinator should leave requests to the local limiter")
+    void limit_coordinatorDownFailsOpen() throws Throwable {
+        PermitCoordinator coordinator = mock(PermitCoordinator.class);
+        when(coordinator.lease(eq(LIMITER), anyInt())).thenThrow(new IllegalStateException("Connection refused"));
+        ClusterRateLimiter replica = replica(coordinator, true);
+
+        assertThat(call(replica)).isTrue();
+    }
+
+    private ClusterRateLimiter replica(PermitCoordinator coordinator, boolean failOpen) {
+        ClusterRateLimiter replica = new ClusterRateLimiter(coordinator, rateLimiterRegistry, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(replica, "enabled", true);
+        ReflectionTestUtils.setField(replica, "limiterNames", List.of(LIMITER));
+        ReflectionTestUtils.setField(replica, "blockSize", 4);
+        ReflectionTestUtils.setField(replica, "maxWait", Duration.ZERO);
+        ReflectionTestUtils.setField(replica, "coordinatorRetryInterval", Duration.ofHours(1));
+        ReflectionTestUtils.setField(replica, "failOpen", failOpen);
+        replica.start();
+        replicas.add(replica);
+        return replica;
+    }
+
+    /**
+     * Calls an endpoint guarded by the limiter.
+     *
+     * @return whether the call was admitted.
+     */
+    private static boolean call(ClusterRateLimiter replica) throws Throwable {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getReturnType()).thenReturn(ResponseEntity.class);
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.proceed()).thenReturn(ResponseEntity.ok().build());
+        io.github.resilience4j.ratelimiter.annotation.RateLimiter annotation =
+                mock(io.github.resilience4j.ratelimiter.annotation.RateLimiter.class);
+        when(annotation.name()).thenReturn(LIMITER);
+        try {
+            replica.limit(joinPoint, annotation);
+            return true;
+        } catch (RequestNotPermitted ex) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.tworun.openremoteclientservice.ratelimit;
+
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class KeyedRateLimiterTest {
+
+    private static final String LIMITER = "assetRetrievalLimiter";
+
+    private RateLimiterRegistry rateLimiterRegistry;
+    private SimpleMeterRegistry meterRegistry;
+    private KeyedRateLimiter keyedRateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("A caller over its share should be rejected while other callers are still admitted")
+    void limit_rejectsCallerOverItsShare() throws Throwable {
+        start(RateLimiterConfig.custom()
+                .limitForPeriod(10)
+                .limitRefreshPeriod(Duration.ofHours(1))
+                .timeoutDuration(Duration.ZERO)
+                .build(), 0.5);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(call("noisy", "10.0.0.1")).isEqualTo(ResponseEntity.ok().build());
+        }
+        assertThatThrownBy(() -> call("noisy", "10.0.0.2")).isInstanceOf(RequestNotPermitted.class);
+
+        assertThat(call("quiet", "10.0.0.1")).isEqualTo(ResponseEntity.ok().build());
+        assertThat(call(null, "10.0.0.1")).isEqualTo(ResponseEntity.ok().build());
+        assertThat(meterRegistry.get("openremote.ratelimiter.keyed.rejected")
+                .tag("name", LIMITER).tag("reason", "caller-limit").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("openremote.ratelimiter.keyed.callers").tag("name", LIMITER).gauge().value())
+                .isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("Waiting requests should get the next permits in fair order, not arrival order")
+    void limit_queuesFairly() throws Exception {
+        start(RateLimiterConfig.custom()
+                .limitForPeriod(1)
+                .limitRefreshPeriod(Duration.ofMillis(300))
+                .timeoutDuration(Duration.ofSeconds(1))
+                .build(), 10);
+        ReflectionTestUtils.setField(keyedRateLimiter, "maxWait", Duration.ofSeconds(5));
+        rateLimiter().acquirePermission();
+        List<String> admitted = Collections.synchronizedList(new ArrayList<>());
+        int admittedBeforeQuiet;
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<?>> calls = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                calls.add(executor.submit(() -> callAndRecord("noisy", admitted)));
+            }
+            awaitQueuedOrAdmitted(4, admitted);
+            calls.add(executor.submit(() -> callAndRecord("quiet", admitted)));
+            awaitQueuedOrAdmitted(5, admitted);
+            admittedBeforeQuiet = admitted.size();
+
+            for (Future<?> call : calls) {
+                call.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(admitted).hasSize(5);
+        // At most one noisy request, already granted its permit while the quiet one was queued, may go before it
+        assertThat(admitted.indexOf("quiet")).isLessThanOrEqualTo(admittedBeforeQuiet + 1).isLessThan(4);
+    }
+
+    @Test
+    @DisplayName("Caller weights should be parsed from apiKey=weight entries")
+    void parseWeights_readsEntries() {
+        assertThat(KeyedRateLimiter.parseWeights(List.of("partner-a=3", " partner-b = 0.5 ", "")))
+                .isEqualTo(Map.of("partner-a", 3.0, "partner-b", 0.5));
+        assertThatThrownBy(() -> KeyedRateLimiter.parseWeights(List.of("partner-a")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void start(RateLimiterConfig config, double keyShare) {
+        rateLimiterRegistry = RateLimiterRegistry.of(config);
+        rateLimiterRegistry.rateLimiter(LIMITER);
+        keyedRateLimiter = new KeyedRateLimiter(rateLimiterRegistry, meterRegistry);
+        ReflectionTestUtils.setField(keyedRateLimiter, "enabled", true);
+        ReflectionTestUtils.setField(keyedRateLimiter, "limiterNames", List.of(LIMITER));
+        ReflectionTestUtils.setField(keyedRateLimiter, "keyShare", keyShare);
+        keyedRateLimiter.start();
+    }
+
+    private void callAndRecord(String apiKey, List<String> admitted) {
+        try {
+            call(apiKey, "10.0.0.1");
+            admitted.add(apiKey);
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Calls an endpoint guarded by the limiter, taking the permit like the {@code @RateLimiter} aspect would.
+     */
+    private Object call(String apiKey, String remoteAddress) throws Throwable {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddress);
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getReturnType()).thenReturn(ResponseEntity.class);
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            RateLimiter.waitForPermission(rateLimiter());
+            return ResponseEntity.ok().build();
+        });
+        io.github.resilience4j.ratelimiter.annotation.RateLimiter annotation =
+                mock(io.github.resilience4j.ratelimiter.annotation.RateLimiter.class);
+        when(annotation.name()).thenReturn(LIMITER);
+        return keyedRateLimiter.limit(joinPoint, annotation);
+    }
+
+    private void awaitQueuedOrAdmitted(int requests, List<String> admitted) {
+        await().atMost(Duration.ofSeconds(5))
+                .pollInterval(Duration.ofMillis(1))
+                .until(() -> queued() + admitted.size() >= requests);
+    }
+
+    private RateLimiter rateLimiter() {
+        return rateLimiterRegistry.rateLimiter(LIMITER);
+    }
+
+    private double queued() {
+        return meterRegistry.get("openremote.ratelimiter.keyed.queued").tag("name", LIMITER).gauge().value();
+    }
+}
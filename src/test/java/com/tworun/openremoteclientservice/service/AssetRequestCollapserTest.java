@@ -0,0 +1,146 @@
+package com.tworun.openremoteclientservice.service;
+
+import com.tworun.openremoteclientservice.client.AssetClient;
+import com.tworun.openremoteclientservice.dto.AssetQuery;
+import com.tworun.openremoteclientservice.dto.AssetResponse;
+import feign.FeignException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AssetRequestCollapserTest {
+
+    private static final String AUTH_HEADER = "Bearer token";
+
+    @Mock
+    private AssetClient assetClient;
+
+    private ExecutorService executor;
+    private AssetRequestCollapser collapser;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        collapser = new AssetRequestCollapser(assetClient, executor, new HedgedAssetReader(assetClient, executor));
+        ReflectionTestUtils.setField(collapser, "window", Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Concurrent requests for the same asset should share one upstream call")
+    void getAsset_sameIdSharesCall() throws Exception {
+        ReflectionTestUtils.setField(collapser, "window", Duration.ZERO);
+        CountDownLatch callStarted = new CountDownLatch(1);
+        CountDownLatch releaseCall = new CountDownLatch(1);
+        AssetResponse asset = asset("id1");
+        when(assetClient.getAsset(AUTH_HEADER, "id1")).thenAnswer(invocation -> {
+            callStarted.countDown();
+            releaseCall.await(5, TimeUnit.SECONDS);
+            return asset;
+        });
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<AssetResponse> first = callers.submit(() -> collapser.getAsset(AUTH_HEADER, "id1"));
+            assertThat(callStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<AssetResponse> second = callers.submit(() -> collapser.getAsset(AUTH_HEADER, "id1"));
+            Thread.sleep(50);
+            releaseCall.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(asset);
+            assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(asset);
+        } finally {
+            callers.shutdownNow();
+        }
+        verify(assetClient, times(1)).getAsset(AUTH_HEADER, "id1");
+    }
+
+    @Test
+    @DisplayName("Requests for different assets within the window should be merged into one query")
+    void getAsset_distinctIdsMergedIntoQuery() throws Exception {
+        ReflectionTestUtils.setField(collapser, "window", Duration.ofMillis(200));
+        CountDownLatch lonelyCallStarted = new CountDownLatch(1);
+        CountDownLatch releaseLonelyCall = new CountDownLatch(1);
+        when(assetClient.getAsset(AUTH_HEADER, "id0")).thenAnswer(invocation -> {
+            lonelyCallStarted.countDown();
+            releaseLonelyCall.await(5, TimeUnit.SECONDS);
+            return asset("id0");
+        });
+        AssetResponse first = asset("id1");
+        AssetResponse second = asset("id2");
+        when(assetClient.queryAssets(eq(AUTH_HEADER), any(AssetQuery.class))).thenReturn(List.of(first, second));
+
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            Future<AssetResponse> lonelyResult = callers.submit(() -> collapser.getAsset(AUTH_HEADER, "id0"));
+            assertThat(lonelyCallStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<AssetResponse> firstResult = callers.submit(() -> collapser.getAsset(AUTH_HEADER, "id1"));
+            Future<AssetResponse> secondResult = callers.submit(() -> collapser.getAsset(AUTH_HEADER, "id2"));
+            Future<AssetResponse> missingResult = callers.submit(() -> collapser.getAsset(AUTH_HEADER, "id3"));
+
+            assertThat(firstResult.get(5, TimeUnit.SECONDS)).isSameAs(first);
+            assertThat(secondResult.get(5, TimeUnit.SECONDS)).isSameAs(second);
+            assertThat(missingResult.get(5, TimeUnit.SECONDS)).isNull();
+            releaseLonelyCall.countDown();
+            assertThat(lonelyResult.get(5, TimeUnit.SECONDS).getId()).isEqualTo("id0");
+        } finally {
+            releaseLonelyCall.countDown();
+            callers.shutdownNow();
+        }
+        verify(assetClient, times(1)).queryAssets(eq(AUTH_HEADER),
+                argThat(query -> query.getIds().containsAll(List.of("id1", "id2", "id3"))));
+        verify(assetClient, never()).getAsset(AUTH_HEADER, "id1");
+    }
+
+    @Test
+    @DisplayName("A read while no other read is in flight should not wait for the window")
+    void getAsset_loneReadSentAtOnce() {
+        ReflectionTestUtils.setField(collapser, "window", Duration.ofSeconds(10));
+        AssetResponse asset = asset("id1");
+        when(assetClient.getAsset(AUTH_HEADER, "id1")).thenReturn(asset);
+
+        assertThat(assertTimeoutPreemptively(Duration.ofSeconds(2), () -> collapser.getAsset(AUTH_HEADER, "id1")))
+                .isSameAs(asset);
+    }
+
+    @Test
+    @DisplayName("Single request should use getAsset and propagate upstream errors")
+    void getAsset_singleRequestPropagatesError() {
+        FeignException error = mock(FeignException.InternalServerError.class);
+        when(assetClient.getAsset(AUTH_HEADER, "id1")).thenThrow(error);
+
+        assertThatThrownBy(() -> collapser.getAsset(AUTH_HEADER, "id1")).isSameAs(error);
+    }
+
+    private static AssetResponse asset(String id) {
+        AssetResponse asset = new AssetResponse();
+        asset.setId(id);
+        return asset;
+    }
+}
@@ -1,23 +1,56 @@
 package com.tworun.openremoteclientservice.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.DoubleNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.tworun.openremoteclientservice.cache.AssetCache;
+import com.tworun.openremoteclientservice.cache.LastKnownAsset;
 import com.tworun.openremoteclientservice.client.AssetClient;
+import com.tworun.openremoteclientservice.config.ExecutorConfig;
+import com.tworun.openremoteclientservice.dto.AssetBatchItemResult;
+import com.tworun.openremoteclientservice.dto.AssetBatchResponse;
 import com.tworun.openremoteclientservice.dto.AssetCreateRequest;
+import com.tworun.openremoteclientservice.dto.AssetMultiGetResponse;
+import com.tworun.openremoteclientservice.dto.AssetQuery;
 import com.tworun.openremoteclientservice.dto.AssetResponse;
+import com.tworun.openremoteclientservice.dto.AssetSubtreeDeleteRequest;
+import com.tworun.openremoteclientservice.dto.AssetSubtreeDeleteResponse;
+import com.tworun.openremoteclientservice.dto.AttributeEvent;
+import com.tworun.openremoteclientservice.dto.AttributeRef;
+import com.tworun.openremoteclientservice.dto.AttributeWriteResult;
 import com.tworun.openremoteclientservice.exception.AssetNotFoundException;
+import com.tworun.openremoteclientservice.exception.AssetPreconditionFailedException;
+import com.tworun.openremoteclientservice.exception.AttributeWriteException;
 import com.tworun.openremoteclientservice.exception.AuthException;
 import feign.FeignException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -28,31 +61,49 @@ class AssetServiceTest {
     private AssetClient assetClient;
     @Mock
     private AuthService authService;
-    @InjectMocks
+    @Mock
+    private AssetCache assetCache;
+    @Mock
+    private Executor assetReadExecutor;
+    @Mock
+    private Executor assetCreateExecutor;
+    @Mock
+    private Executor assetDeleteExecutor;
+    @Mock
+    private AssetRequestCollapser assetRequestCollapser;
+    @Mock
+    private AttributeWriteCoalescer attributeWriteCoalescer;
     private AssetService assetService;
 
+    @BeforeEach
+    void setUp() {
+        assetService = new AssetService(assetClient, authService, assetCache, assetReadExecutor, assetCreateExecutor,
+                assetDeleteExecutor, assetRequestCollapser, attributeWriteCoalescer);
+    }
+
     @Test
     @DisplayName("Should call assetClient with correct params when creating asset")
     void whenCreateAssetCalled_thenAssetClientCalledWithCorrectParams() {
         String fakeToken = "fake-token";
         String fakeHeader = "Bearer " + fakeToken;
         AssetCreateRequest req = new AssetCreateRequest();
+        req.setRealm("building-a");
         AssetResponse expectedResponse = new AssetResponse();
 
-        when(authService.getToken()).thenReturn(fakeToken);
+        when(authService.getToken("building-a")).thenReturn(fakeToken);
         when(assetClient.createAsset(eq(fakeHeader), eq(req))).thenReturn(expectedResponse);
 
         AssetResponse actualResponse = assetService.createAsset(req);
 
         assertEquals(expectedResponse, actualResponse);
-        verify(authService).getToken();
+        verify(authService).getToken("building-a");
         verify(assetClient).createAsset(fakeHeader, req);
     }
 
     @Test
     @DisplayName("Should throw AuthException when AuthService fails to get token")
     void whenAuthServiceFails_thenThrowsException() {
-        when(authService.getToken()).thenThrow(new AuthException("Failed to get access token from AuthClient"));
+        when(authService.getToken(null)).thenThrow(new AuthException("Failed to get access token from AuthClient"));
 
         assertThrows(AuthException.class, () -> assetService.createAsset(new AssetCreateRequest()));
     }
@@ -62,7 +113,7 @@ class AssetServiceTest {
     void whenFeignExceptionOnCreateAsset_thenThrowsRuntimeException() {
         String fakeToken = "token";
         AssetCreateRequest req = new AssetCreateRequest();
-        when(authService.getToken()).thenReturn(fakeToken);
+        when(authService.getToken(null)).thenReturn(fakeToken);
         when(assetClient.createAsset(eq("Bearer " + fakeToken), eq(req)))
                 .thenThrow(mock(FeignException.class));
 
@@ -71,6 +122,66 @@ class AssetServiceTest {
                 .hasMessageContaining("Failed to create asset");
     }
 
+    @Test
+    @DisplayName("Should create batch with one token per realm and report failures per asset")
+    void createAssets_partialFailure() {
+        String token = "token";
+        AssetCreateRequest first = new AssetCreateRequest();
+        first.setName("first");
+        AssetCreateRequest second = new AssetCreateRequest();
+        second.setName("second");
+        AssetResponse created = new AssetResponse();
+        created.setId("id1");
+
+        when(authService.getToken(null)).thenReturn(token);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(assetCreateExecutor).execute(any(Runnable.class));
+        when(assetClient.createAsset("Bearer " + token, first)).thenReturn(created);
+        when(assetClient.createAsset("Bearer " + token, second)).thenThrow(mock(FeignException.class));
+
+        AssetBatchResponse response = assetService.createAssets(List.of(first, second));
+
+        assertThat(response.getTotal()).isEqualTo(2);
+        assertThat(response.getSucceeded()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getResults().get(0).getStatus()).isEqualTo(AssetBatchItemResult.STATUS_CREATED);
+        assertThat(response.getResults().get(0).getAsset()).isSameAs(created);
+        assertThat(response.getResults().get(1).getStatus()).isEqualTo(AssetBatchItemResult.STATUS_FAILED);
+        assertThat(response.getResults().get(1).getError().getMessage()).contains("Failed to create asset");
+        verify(authService, times(1)).getToken(null);
+    }
+
+    @Test
+    @DisplayName("A realm whose token cannot be obtained should fail only its own assets of the batch")
+    void createAssets_realmAuthFailure() {
+        AssetCreateRequest first = new AssetCreateRequest();
+        first.setName("first");
+        AssetCreateRequest second = new AssetCreateRequest();
+        second.setName("second");
+        second.setRealm("building-a");
+        AssetResponse created = new AssetResponse();
+        created.setId("id1");
+
+        when(authService.getToken(null)).thenReturn("token");
+        when(authService.getToken("building-a")).thenThrow(new AuthException("Auth service temporarily unavailable."));
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(assetCreateExecutor).execute(any(Runnable.class));
+        when(assetClient.createAsset("Bearer token", first)).thenReturn(created);
+
+        AssetBatchResponse response = assetService.createAssets(List.of(first, second));
+
+        assertThat(response.getSucceeded()).isEqualTo(1);
+        assertThat(response.getResults().get(0).getAsset()).isSameAs(created);
+        assertThat(response.getResults().get(1).getStatus()).isEqualTo(AssetBatchItemResult.STATUS_FAILED);
+        assertThat(response.getResults().get(1).getError().getMessage())
+                .isEqualTo("Auth service temporarily unavailable.");
+        verify(assetClient, never()).createAsset(any(), eq(second));
+    }
+
     @Test
     @DisplayName("Should return asset when asset exists")
     void getAsset_success() {
@@ -78,12 +189,39 @@ class AssetServiceTest {
         String token = "token";
         AssetResponse mockResponse = new AssetResponse();
         when(authService.getToken()).thenReturn(token);
-        when(assetClient.getAsset("Bearer " + token, assetId)).thenReturn(mockResponse);
+        when(assetRequestCollapser.getAsset("Bearer " + token, assetId)).thenReturn(mockResponse);
 
         AssetResponse result = assetService.getAsset(assetId);
 
         assertThat(result).isNotNull();
-        verify(assetClient, times(1)).getAsset("Bearer " + token, assetId);
+        verify(assetRequestCollapser, times(1)).getAsset("Bearer " + token, assetId);
+    }
+
+    @Test
+    @DisplayName("Should cache asset after retrieving it from assetClient")
+    void getAsset_cachesResponse() {
+        String assetId = "abc123";
+        String token = "token";
+        AssetResponse mockResponse = new AssetResponse();
+        when(authService.getToken()).thenReturn(token);
+        when(assetRequestCollapser.getAsset("Bearer " + token, assetId)).thenReturn(mockResponse);
+
+        assetService.getAsset(assetId);
+
+        verify(assetCache).put(mockResponse);
+    }
+
+    @Test
+    @DisplayName("Should return cached asset without calling assetClient")
+    void getAsset_cacheHit() {
+        String assetId = "abc123";
+        AssetResponse cached = new AssetResponse();
+        when(assetCache.get(assetId)).thenReturn(cached);
+
+        AssetResponse result = assetService.getAsset(assetId);
+
+        assertThat(result).isSameAs(cached);
+        verifyNoInteractions(assetRequestCollapser, authService);
     }
 
     @Test
@@ -93,13 +231,56 @@ class AssetServiceTest {
         String token = "token";
         when(authService.getToken()).thenReturn(token);
         FeignException notFound = mock(FeignException.NotFound.class);
-        when(assetClient.getAsset("Bearer " + token, assetId)).thenThrow(notFound);
+        when(assetRequestCollapser.getAsset("Bearer " + token, assetId)).thenThrow(notFound);
+
+        assertThatThrownBy(() -> assetService.getAsset(assetId))
+                .isInstanceOf(AssetNotFoundException.class)
+                .hasMessageContaining(assetId);
+    }
+
+    @Test
+    @DisplayName("Should throw AssetNotFoundException when collapsed request finds no asset")
+    void getAsset_collapsedNotFound() {
+        String assetId = "notfound";
+        String token = "token";
+        when(authService.getToken()).thenReturn(token);
+        when(assetRequestCollapser.getAsset("Bearer " + token, assetId)).thenReturn(null);
 
         assertThatThrownBy(() -> assetService.getAsset(assetId))
                 .isInstanceOf(AssetNotFoundException.class)
                 .hasMessageContaining(assetId);
     }
 
+    @Test
+    @DisplayName("Should serve the last known asset, marked stale, when OpenRemote fails")
+    void readAsset_upstreamError_servesLastKnown() {
+        AssetResponse lastKnown = new AssetResponse();
+        lastKnown.setId("abc123");
+        FeignException unavailable = mock(FeignException.ServiceUnavailable.class);
+        when(unavailable.status()).thenReturn(503);
+        when(authService.getToken()).thenReturn("token");
+        when(assetRequestCollapser.getAsset("Bearer token", "abc123")).thenThrow(unavailable);
+        when(assetCache.getLastKnown("abc123"))
+                .thenReturn(new LastKnownAsset(lastKnown, Instant.now().minusSeconds(30)));
+
+        AssetRead read = assetService.readAsset("abc123");
+
+        assertThat(read.asset()).isSameAs(lastKnown);
+        assertThat(read.isStale()).isTrue();
+        assertThat(read.staleFor()).isGreaterThanOrEqualTo(Duration.ofSeconds(30));
+    }
+
+    @Test
+    @DisplayName("Should fail fast when the circuit breaker is open and the asset is not known")
+    void readAsset_circuitOpen_withoutLastKnown() {
+        CallNotPermittedException open = CallNotPermittedException.createCallNotPermittedException(
+                CircuitBreaker.ofDefaults("assetClient"));
+        when(authService.getToken()).thenReturn("token");
+        when(assetRequestCollapser.getAsset("Bearer token", "abc123")).thenThrow(open);
+
+        assertThatThrownBy(() -> assetService.readAsset("abc123")).isSameAs(open);
+    }
+
     @Test
     @DisplayName("Should throw RuntimeException when generic FeignException occurs on getAsset")
     void getAsset_feignException() {
@@ -107,13 +288,53 @@ class AssetServiceTest {
         String token = "token";
         when(authService.getToken()).thenReturn(token);
         FeignException genericFeign = mock(FeignException.class);
-        when(assetClient.getAsset("Bearer " + token, assetId)).thenThrow(genericFeign);
+        when(assetRequestCollapser.getAsset("Bearer " + token, assetId)).thenThrow(genericFeign);
 
         assertThatThrownBy(() -> assetService.getAsset(assetId))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Failed to retrieve asset");
     }
 
+    @Test
+    @DisplayName("Should resolve uncached ids with one asset query and report missing ids")
+    void getAssets_usesAssetQuery() {
+        String token = "token";
+        AssetResponse cached = asset("id1");
+        AssetResponse fetched = asset("id2");
+        when(assetCache.get("id1")).thenReturn(cached);
+        when(authService.getToken()).thenReturn(token);
+        when(assetClient.queryAssets("Bearer " + token, AssetQuery.byIds(List.of("id2", "id3"))))
+                .thenReturn(List.of(fetched));
+
+        AssetMultiGetResponse response = assetService.getAssets(List.of("id1", "id2", "id3", "id1"));
+
+        assertThat(response.getAssets()).containsExactly(cached, fetched);
+        assertThat(response.getMissingIds()).containsExactly("id3");
+        verify(assetCache).put(fetched);
+        verify(assetClient, never()).getAsset(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should fall back to single asset calls when asset query fails")
+    void getAssets_fallsBackToSingleGets() {
+        String token = "token";
+        AssetResponse fetched = asset("id1");
+        when(authService.getToken()).thenReturn(token);
+        when(assetClient.queryAssets(eq("Bearer " + token), any(AssetQuery.class)))
+                .thenThrow(mock(FeignException.MethodNotAllowed.class));
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(assetReadExecutor).execute(any(Runnable.class));
+        when(assetClient.getAsset("Bearer " + token, "id1")).thenReturn(fetched);
+        when(assetClient.getAsset("Bearer " + token, "id2")).thenThrow(mock(FeignException.NotFound.class));
+
+        AssetMultiGetResponse response = assetService.getAssets(List.of("id1", "id2"));
+
+        assertThat(response.getAssets()).containsExactly(fetched);
+        assertThat(response.getMissingIds()).containsExactly("id2");
+    }
+
     @Test
     @DisplayName("Should update asset successfully")
     void updateAsset_success() {
@@ -122,7 +343,7 @@ class AssetServiceTest {
         AssetCreateRequest req = new AssetCreateRequest();
         AssetResponse mockResponse = new AssetResponse();
 
-        when(authService.getToken()).thenReturn(token);
+        when(authService.getToken(null)).thenReturn(token);
         when(assetClient.updateAsset("Bearer " + token, assetId, req)).thenReturn(mockResponse);
 
         AssetResponse result = assetService.updateAsset(assetId, req);
@@ -139,7 +360,7 @@ class AssetServiceTest {
         AssetCreateRequest req = new AssetCreateRequest();
         FeignException notFound = mock(FeignException.NotFound.class);
 
-        when(authService.getToken()).thenReturn(token);
+        when(authService.getToken(null)).thenReturn(token);
         when(assetClient.updateAsset("Bearer " + token, assetId, req)).thenThrow(notFound);
 
         assertThatThrownBy(() -> assetService.updateAsset(assetId, req))
@@ -155,7 +376,7 @@ class AssetServiceTest {
         AssetCreateRequest req = new AssetCreateRequest();
         FeignException genericFeign = mock(FeignException.class);
 
-        when(authService.getToken()).thenReturn(token);
+        when(authService.getToken(null)).thenReturn(token);
         when(assetClient.updateAsset("Bearer " + token, assetId, req)).thenThrow(genericFeign);
 
         assertThatThrownBy(() -> assetService.updateAsset(assetId, req))
@@ -163,6 +384,41 @@ class AssetServiceTest {
                 .hasMessageContaining("Failed to update asset");
     }
 
+    @Test
+    @DisplayName("Should update with the current version when the asset matches If-Match")
+    void updateAsset_ifMatch_matches() {
+        AssetCreateRequest req = new AssetCreateRequest();
+        AssetResponse current = new AssetResponse();
+        current.setId("abc123");
+        current.setVersion(4L);
+
+        when(authService.getToken(null)).thenReturn("token");
+        when(assetClient.getAsset("Bearer token", "abc123")).thenReturn(current);
+        when(assetClient.updateAsset("Bearer token", "abc123", req)).thenReturn(new AssetResponse());
+
+        assetService.updateAsset("abc123", req, AssetETags.of(current));
+
+        assertThat(req.getVersion()).isEqualTo(4L);
+        verify(assetClient).updateAsset("Bearer token", "abc123", req);
+    }
+
+    @Test
+    @DisplayName("Should reject the update without sending it when the asset no longer matches If-Match")
+    void updateAsset_ifMatch_modified() {
+        AssetCreateRequest req = new AssetCreateRequest();
+        AssetResponse current = new AssetResponse();
+        current.setId("abc123");
+        current.setVersion(5L);
+
+        when(authService.getToken(null)).thenReturn("token");
+        when(assetClient.getAsset("Bearer token", "abc123")).thenReturn(current);
+
+        assertThatThrownBy(() -> assetService.updateAsset("abc123", req, "\"4-0\""))
+                .isInstanceOf(AssetPreconditionFailedException.class)
+                .hasMessageContaining("abc123");
+        verify(assetClient, never()).updateAsset(any(), any(), any());
+    }
+
     @Test
     @DisplayName("Should delete assets successfully when valid IDs are given")
     void deleteAssets_success() {
@@ -175,6 +431,7 @@ class AssetServiceTest {
 
         verify(authService).getToken();
         verify(assetClient).deleteAssets("Bearer " + token, ids);
+        verify(assetCache).remove(ids);
     }
 
     @Test
@@ -202,4 +459,227 @@ class AssetServiceTest {
 
         assertThrows(RuntimeException.class, () -> assetService.deleteAssets(ids));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should split long id lists into chunks and delete them on the delete executor")
+    void deleteAssets_chunked() {
+        String token = "fake-token";
+        ReflectionTestUtils.setField(assetService, "deleteChunkSize", 2);
+        runDeleteTasksInline();
+        when(authService.getToken()).thenReturn(token);
+        lenient().doThrow(mock(FeignException.BadRequest.class))
+                .when(assetClient).deleteAssets("Bearer " + token, List.of("id5"));
+
+        assertThatThrownBy(() -> assetService.deleteAssets(List.of("id1", "id2", "id3", "id4", "id5", "id1")))
+                .isInstanceOf(AssetNotFoundException.class)
+                .hasMessageContaining("[id5]");
+
+        verify(authService, times(1)).getToken();
+        verify(assetClient).deleteAssets("Bearer " + token, List.of("id1", "id2"));
+        verify(assetClient).deleteAssets("Bearer " + token, List.of("id3", "id4"));
+        verify(assetCache).invalidateAll(List.of("id5"));
+    }
+
+    @Test
+    @DisplayName("Reads should not queue behind a flood of chunked deletes")
+    void getAssets_notQueuedBehindDeletes() {
+        String token = "fake-token";
+        ExecutorConfig executorConfig = new ExecutorConfig();
+        ReflectionTestUtils.setField(executorConfig, "readParallelism", 2);
+        ReflectionTestUtils.setField(executorConfig, "createParallelism", 2);
+        ReflectionTestUtils.setField(executorConfig, "deleteParallelism", 2);
+        ReflectionTestUtils.setField(executorConfig, "queueCapacity", 200);
+        List<ThreadPoolTaskExecutor> executors = List.of(executorConfig.platformAssetReadExecutor(),
+                executorConfig.platformAssetCreateExecutor(), executorConfig.platformAssetDeleteExecutor());
+        executors.forEach(ThreadPoolTaskExecutor::initialize);
+        AssetService service = new AssetService(assetClient, authService, assetCache, executors.get(0),
+                executors.get(1), executors.get(2), assetRequestCollapser, attributeWriteCoalescer);
+        ReflectionTestUtils.setField(service, "deleteChunkSize", 1);
+        ReflectionTestUtils.setField(service, "assetQueryEnabled", false);
+
+        CountDownLatch releaseDeletes = new CountDownLatch(1);
+        when(authService.getToken()).thenReturn(token);
+        doAnswer(invocation -> releaseDeletes.await(10, TimeUnit.SECONDS))
+                .when(assetClient).deleteAssets(eq("Bearer " + token), any());
+        when(assetClient.getAsset("Bearer " + token, "id1")).thenReturn(asset("id1"));
+        List<String> ids = IntStream.range(0, 100).mapToObj(i -> "id" + i).toList();
+        CompletableFuture<Void> deletes = CompletableFuture.runAsync(() -> service.deleteAssets(ids));
+
+        try {
+            await().atMost(Duration.ofSeconds(5)).until(() -> executors.get(2).getQueueSize() == 98);
+            AssetMultiGetResponse response = assertTimeoutPreemptively(Duration.ofSeconds(2),
+                    () -> service.getAssets(List.of("id1")));
+            assertThat(response.getAssets()).extracting(AssetResponse::getId).containsExactly("id1");
+        } finally {
+            releaseDeletes.countDown();
+            deletes.join();
+            executors.forEach(ThreadPoolTaskExecutor::shutdown);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep each chunk's query string within the configured length")
+    void chunkIds_boundsQueryLength() {
+        // Each id adds "assetId=" + 22 chars + "&" = 31 chars
+        List<String> ids = IntStream.range(0, 10).mapToObj(i -> "%022d".formatted(i)).toList();
+
+        List<List<String>> chunks = AssetService.chunkIds(ids, 100, 100);
+
+        assertThat(chunks).hasSize(4);
+        assertThat(chunks.get(0)).hasSize(3);
+        assertThat(chunks.stream().flatMap(List::stream).toList()).isEqualTo(ids);
+    }
+
+    @Test
+    @DisplayName("Should delete a subtree deepest level first and report assets that failed")
+    void deleteSubtree_deepestFirst() {
+        String token = "fake-token";
+        AssetSubtreeDeleteRequest request = new AssetSubtreeDeleteRequest();
+        request.setParentId("root");
+        request.setRealm("building-a");
+        runDeleteTasksInline();
+        when(authService.getToken("building-a")).thenReturn(token);
+        when(assetClient.queryAssets("Bearer " + token, AssetQuery.subtree("root", "building-a", null)))
+                .thenReturn(List.of(asset("child", "child", "root"), asset("grandchild", "grandchild", "child", "root"),
+                        asset("other", "other", "root")));
+        lenient().doThrow(mock(FeignException.InternalServerError.class))
+                .when(assetClient).deleteAssets("Bearer " + token, List.of("child", "other"));
+
+        AssetSubtreeDeleteResponse response = assetService.deleteSubtree(request);
+
+        assertThat(response.getMatched()).isEqualTo(3);
+        assertThat(response.getDeleted()).isEqualTo(1);
+        assertThat(response.getFailedIds()).containsExactly("child", "other");
+        InOrder inOrder = inOrder(assetClient);
+        inOrder.verify(assetClient).deleteAssets("Bearer " + token, List.of("grandchild"));
+        inOrder.verify(assetClient).deleteAssets("Bearer " + token, List.of("child", "other"));
+    }
+
+    @Test
+    @DisplayName("Should keep the ancestors of assets that could not be deleted and finish the subtree delete")
+    void deleteSubtree_keepsAncestorsOfFailedAssets() {
+        String token = "fake-token";
+        AssetSubtreeDeleteRequest request = new AssetSubtreeDeleteRequest();
+        request.setParentId("root");
+        runDeleteTasksInline();
+        when(authService.getToken(null)).thenReturn(token);
+        when(assetClient.queryAssets("Bearer " + token, AssetQuery.subtree("root", null, null)))
+                .thenReturn(List.of(asset("child", "child", "root"), asset("grandchild", "grandchild", "child", "root"),
+                        asset("other", "other", "root"), asset("leaf", "leaf", "other", "root")));
+        doThrow(CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("assetClient")))
+                .when(assetClient).deleteAssets("Bearer " + token, List.of("grandchild", "leaf"));
+
+        AssetSubtreeDeleteResponse response = assetService.deleteSubtree(request);
+
+        assertThat(response.getMatched()).isEqualTo(4);
+        assertThat(response.getDeleted()).isZero();
+        assertThat(response.getFailedIds()).containsExactlyInAnyOrder("grandchild", "leaf", "child", "other");
+        verify(assetClient, times(1)).deleteAssets(any(), any());
+    }
+
+    private void runDeleteTasksInline() {
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(assetDeleteExecutor).execute(any(Runnable.class));
+    }
+
+    private static AssetResponse asset(String id, String... path) {
+        AssetResponse asset = new AssetResponse();
+        asset.setId(id);
+        asset.setPath(List.of(path));
+        return asset;
+    }
+
+    @Test
+    @DisplayName("Should write a single attribute value and invalidate the cached asset")
+    void writeAttribute_success() {
+        String token = "fake-token";
+        when(authService.getToken()).thenReturn(token);
+        when(assetClient.writeAttributeValue("Bearer " + token, "id1", "temperature", DoubleNode.valueOf(21.5)))
+                .thenReturn(new AttributeWriteResult(new AttributeRef("id1", "temperature"), null));
+
+        assertDoesNotThrow(() -> assetService.writeAttribute("id1", "temperature", DoubleNode.valueOf(21.5)));
+
+        verify(assetCache).invalidate("id1");
+    }
+
+    @Test
+    @DisplayName("Should throw AttributeWriteException when OpenRemote rejects the attribute write")
+    void writeAttribute_rejected() {
+        when(authService.getToken()).thenReturn("fake-token");
+        when(assetClient.writeAttributeValue(any(), eq("id1"), eq("missing"), any()))
+                .thenReturn(new AttributeWriteResult(new AttributeRef("id1", "missing"), "ATTRIBUTE_NOT_FOUND"));
+
+        assertThatThrownBy(() -> assetService.writeAttribute("id1", "missing", TextNode.valueOf("on")))
+                .isInstanceOf(AttributeWriteException.class)
+                .hasMessageContaining("ATTRIBUTE_NOT_FOUND")
+                .satisfies(ex -> assertThat(((AttributeWriteException) ex).isNotFound()).isTrue());
+    }
+
+    @Test
+    @DisplayName("Should throw AssetNotFoundException when the asset of the attribute does not exist")
+    void writeAttribute_assetNotFound() {
+        when(authService.getToken()).thenReturn("fake-token");
+        when(assetClient.writeAttributeValue(any(), eq("unknown"), eq("temperature"), any()))
+                .thenReturn(new AttributeWriteResult(new AttributeRef("unknown", "temperature"), "ASSET_NOT_FOUND"));
+
+        assertThrows(AssetNotFoundException.class,
+                () -> assetService.writeAttribute("unknown", "temperature", DoubleNode.valueOf(1)));
+    }
+
+    @Test
+    @DisplayName("Should send one attribute event per value and return the per-attribute results")
+    void writeAttributes_success() {
+        String token = "fake-token";
+        Map<String, JsonNode> values = new LinkedHashMap<>();
+        values.put("temperature", DoubleNode.valueOf(21.5));
+        values.put("status", TextNode.valueOf("on"));
+        List<AttributeWriteResult> results = List.of(
+                new AttributeWriteResult(new AttributeRef("id1", "temperature"), null),
+                new AttributeWriteResult(new AttributeRef("id1", "status"), "INVALID_VALUE"));
+
+        when(authService.getToken()).thenReturn(token);
+        when(assetClient.writeAttributeValues("Bearer " + token, List.of(
+                new AttributeEvent("id1", "temperature", DoubleNode.valueOf(21.5)),
+                new AttributeEvent("id1", "status", TextNode.valueOf("on")))))
+                .thenReturn(results);
+
+        assertThat(assetService.writeAttributes("id1", values)).isEqualTo(results);
+        verify(assetCache).invalidate("id1");
+    }
+
+    @Test
+    @DisplayName("Should buffer the attribute write without calling OpenRemote when the coalescer is enabled")
+    void writeAttribute_coalescedAccepted() {
+        when(attributeWriteCoalescer.isEnabled()).thenReturn(true);
+        when(attributeWriteCoalescer.isAckOnFlush()).thenReturn(false);
+        when(attributeWriteCoalescer.submit("id1", "temperature", DoubleNode.valueOf(21.5)))
+                .thenReturn(new CompletableFuture<>());
+
+        assertDoesNotThrow(() -> assetService.writeAttribute("id1", "temperature", DoubleNode.valueOf(21.5)));
+
+        assertThat(assetService.isAttributeWriteDeferred()).isTrue();
+        verifyNoInteractions(assetClient, authService);
+    }
+
+    @Test
+    @DisplayName("Should wait for the coalescer flush and report its failure when acknowledging on flush")
+    void writeAttribute_coalescedFlushed() {
+        when(attributeWriteCoalescer.isEnabled()).thenReturn(true);
+        when(attributeWriteCoalescer.isAckOnFlush()).thenReturn(true);
+        when(attributeWriteCoalescer.submit("id1", "missing", DoubleNode.valueOf(1)))
+                .thenReturn(CompletableFuture.completedFuture(
+                        new AttributeWriteResult(new AttributeRef("id1", "missing"), "ATTRIBUTE_NOT_FOUND")));
+
+        assertThrows(AttributeWriteException.class,
+                () -> assetService.writeAttribute("id1", "missing", DoubleNode.valueOf(1)));
+        verifyNoInteractions(assetClient);
+    }
+
+    private static AssetResponse asset(String id) {
+        AssetResponse asset = new AssetResponse();
+        asset.setId(id);
+        return asset;
+    }
+}
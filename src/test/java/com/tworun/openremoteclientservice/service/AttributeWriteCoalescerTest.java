@@ -0,0 +1,208 @@
+package com.tworun.openremoteclientservice.service;
+
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.tworun.openremoteclientservice.cache.AssetCache;
+import com.tworun.openremoteclientservice.client.AssetClient;
+import com.tworun.openremoteclientservice.dto.AttributeEvent;
+import com.tworun.openremoteclientservice.dto.AttributeRef;
+import com.tworun.openremoteclientservice.dto.AttributeWriteResult;
+import feign.FeignException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AttributeWriteCoalescerTest {
+
+    @Mock
+    private AssetClient assetClient;
+    @Mock
+    private AuthService authService;
+    @Mock
+    private AssetCache assetCache;
+
+    private AttributeWriteCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new AttributeWriteCoalescer(assetClient, authService, assetCache);
+        ReflectionTestUtils.setField(coalescer, "enabled", true);
+        ReflectionTestUtils.setField(coalescer, "flushInterval", Duration.ofMillis(100));
+        when(authService.getToken()).thenReturn("token");
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    @DisplayName("Repeated writes of the same attribute should send only the latest value")
+    void submit_keepsLatestValue() throws Exception {
+        when(assetClient.writeAttributeValues(eq("Bearer token"), anyList()))
+                .thenAnswer(invocation -> results(invocation.getArgument(1)));
+
+        List<CompletableFuture<AttributeWriteResult>> acknowledgements = List.of(
+                coalescer.submit("id1", "temperature", IntNode.valueOf(1)),
+                coalescer.submit("id1", "temperature", IntNode.valueOf(2)),
+                coalescer.submit("id1", "temperature", IntNode.valueOf(3)),
+                coalescer.submit("id2", "temperature", IntNode.valueOf(4)));
+
+        for (CompletableFuture<AttributeWriteResult> acknowledgement : acknowledgements) {
+            assertThat(acknowledgement.get(5, TimeUnit.SECONDS).getFailure()).isNull();
+        }
+        ArgumentCaptor<List<AttributeEvent>> events = eventsCaptor();
+        verify(assetClient, times(1)).writeAttributeValues(eq("Bearer token"), events.capture());
+        assertThat(events.getValue())
+                .extracting(event -> event.getRef().getId(), event -> event.getValue().intValue())
+                .containsExactlyInAnyOrder(tuple("id1", 3), tuple("id2", 4));
+        verify(assetCache, timeout(1000)).invalidate("id1");
+        verify(assetCache, timeout(1000)).invalidate("id2");
+    }
+
+    @Test
+    @DisplayName("Reaching the size threshold should flush without waiting for the interval")
+    void submit_flushesAtSizeThreshold() throws Exception {
+        ReflectionTestUtils.setField(coalescer, "flushInterval", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(coalescer, "maxBatchSize", 2);
+        when(assetClient.writeAttributeValues(eq("Bearer token"), anyList()))
+                .thenAnswer(invocation -> results(invocation.getArgument(1)));
+
+        CompletableFuture<AttributeWriteResult> first = coalescer.submit("id1", "a", IntNode.valueOf(1));
+        CompletableFuture<AttributeWriteResult> second = coalescer.submit("id1", "b", IntNode.valueOf(2));
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getRef()).isEqualTo(new AttributeRef("id1", "a"));
+        assertThat(second.get(5, TimeUnit.SECONDS).getRef()).isEqualTo(new AttributeRef("id1", "b"));
+    }
+
+    @Test
+    @DisplayName("A failed flush should fail every waiting caller")
+    void flush_failurePropagates() {
+        ReflectionTestUtils.setField(coalescer, "ackMode", AttributeWriteCoalescer.AckMode.FLUSHED);
+        FeignException failure = mock(FeignException.InternalServerError.class);
+        when(assetClient.writeAttributeValues(any(), anyList())).thenThrow(failure);
+
+        CompletableFuture<AttributeWriteResult> first = coalescer.submit("id1", "temperature", IntNode.valueOf(1));
+        CompletableFuture<AttributeWriteResult> second = coalescer.submit("id1", "temperature", IntNode.valueOf(2));
+
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCause(failure);
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCause(failure);
+        verify(assetCache, timeout(1000)).invalidate("id1");
+    }
+
+    @Test
+    @DisplayName("A value acknowledged on acceptance should be retried after a failed flush")
+    void flush_acceptedFailureRetries() throws Exception {
+        FeignException failure = mock(FeignException.InternalServerError.class);
+        when(assetClient.writeAttributeValues(eq("Bearer token"), anyList()))
+                .thenThrow(failure)
+                .thenAnswer(invocation -> results(invocation.getArgument(1)));
+
+        CompletableFuture<AttributeWriteResult> acknowledgement =
+                coalescer.submit("id1", "temperature", IntNode.valueOf(1));
+
+        assertThat(acknowledgement.get(5, TimeUnit.SECONDS).getFailure()).isNull();
+        ArgumentCaptor<List<AttributeEvent>> events = eventsCaptor();
+        verify(assetClient, times(2)).writeAttributeValues(eq("Bearer token"), events.capture());
+        assertThat(events.getAllValues()).allSatisfy(batch -> assertThat(batch)
+                .extracting(event -> event.getValue().intValue())
+                .containsExactly(1));
+    }
+
+    @Test
+    @DisplayName("A value acknowledged on acceptance should be counted as failed once its retries are used up")
+    void flush_acceptedFailureCountedAfterRetries() {
+        ReflectionTestUtils.setField(coalescer, "maxFlushAttempts", 2);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        coalescer.bindTo(registry);
+        when(assetClient.writeAttributeValues(any(), anyList()))
+                .thenThrow(mock(FeignException.InternalServerError.class));
+
+        coalescer.submit("id1", "temperature", IntNode.valueOf(1));
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(
+                registry.get("openremote.coalescer.flushed").tag("outcome", "failed").functionCounter().count())
+                .isEqualTo(1));
+        verify(assetClient, times(2)).writeAttributeValues(any(), anyList());
+    }
+
+    @Test
+    @DisplayName("A value replacing one whose flush failed should get retries of its own")
+    void flush_newerValueGetsOwnAttempts() {
+        ReflectionTestUtils.setField(coalescer, "flushInterval", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(coalescer, "maxFlushAttempts", 2);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        coalescer.bindTo(registry);
+        when(assetClient.writeAttributeValues(eq("Bearer token"), anyList()))
+                .thenThrow(mock(FeignException.InternalServerError.class))
+                .thenThrow(mock(FeignException.InternalServerError.class))
+                .thenAnswer(invocation -> results(invocation.getArgument(1)));
+
+        coalescer.submit("id1", "temperature", IntNode.valueOf(1));
+        coalescer.flush();
+        coalescer.submit("id1", "temperature", IntNode.valueOf(2));
+        coalescer.flush();
+        coalescer.flush();
+
+        ArgumentCaptor<List<AttributeEvent>> events = eventsCaptor();
+        verify(assetClient, times(3)).writeAttributeValues(eq("Bearer token"), events.capture());
+        assertThat(events.getValue()).extracting(event -> event.getValue().intValue()).containsExactly(2);
+        assertThat(registry.get("openremote.coalescer.flushed").tag("outcome", "failed").functionCounter().count())
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("Values OpenRemote rejects should be counted as failed, not flushed")
+    void flush_countsRejectedValuesAsFailed() {
+        ReflectionTestUtils.setField(coalescer, "flushInterval", Duration.ofMinutes(1));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        coalescer.bindTo(registry);
+        when(assetClient.writeAttributeValues(eq("Bearer token"), anyList())).thenReturn(List.of(
+                new AttributeWriteResult(new AttributeRef("id1", "a"), null),
+                new AttributeWriteResult(new AttributeRef("id1", "b"), "ATTRIBUTE_NOT_FOUND")));
+
+        coalescer.submit("id1", "a", IntNode.valueOf(1));
+        coalescer.submit("id1", "b", IntNode.valueOf(2));
+        coalescer.flush();
+
+        assertThat(registry.get("openremote.coalescer.flushed").tag("outcome", "success").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("openremote.coalescer.flushed").tag("outcome", "failed").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    private static List<AttributeWriteResult> results(List<AttributeEvent> events) {
+        return events.stream().map(event -> new AttributeWriteResult(event.getRef(), null)).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<AttributeEvent>> eventsCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+}
@@ -5,16 +5,34 @@ import com.tworun.openremoteclientservice.client.AuthClient;
 import com.tworun.openremoteclientservice.dto.TokenResponse;
 import com.tworun.openremoteclientservice.exception.AccessTokenNotFoundException;
 import com.tworun.openremoteclientservice.exception.AuthException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.util.MultiValueMap;
 
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -24,14 +42,24 @@ class AuthServiceTest {
     @Mock
     private AuthClient authClient;
 
+    @Mock
+    private RealmRegistry realmRegistry;
+
+    private TokenFetcher tokenFetcher;
     private AuthService authService;
 
     @BeforeEach
     void setUp() {
-        authService = spy(new AuthService(authClient));
+        tokenFetcher = new TokenFetcher(authClient, RetryRegistry.ofDefaults(), CircuitBreakerRegistry.ofDefaults());
+        authService = new AuthService(tokenFetcher, realmRegistry);
+
+        ReflectionTestUtils.setField(tokenFetcher, "clientId", "test-client");
+        ReflectionTestUtils.setField(tokenFetcher, "clientSecret", "test-secret");
+    }
 
-        ReflectionTestUtils.setField(authService, "clientId", "test-client");
-        ReflectionTestUtils.setField(authService, "clientSecret", "test-secret");
+    @AfterEach
+    void tearDown() {
+        authService.shutdown();
     }
 
     @Test
@@ -65,12 +93,214 @@ class AuthServiceTest {
     }
 
     @Test
-    @DisplayName("getTokenFallback should throw AuthException with correct message and cause")
-    void getTokenFallback_shouldThrowAuthException() {
+    @DisplayName("Should serve cached token without calling AuthClient again while it is valid")
+    void shouldReturnCachedToken_whenTokenIsStillValid() {
+        TokenResponse tokenResponse = new TokenResponse();
+        tokenResponse.setAccessToken("cached-token");
+        tokenResponse.setExpiresIn(300);
+        when(authClient.getToken(any(MultiValueMap.class))).thenReturn(tokenResponse);
+
+        assertEquals("cached-token", authService.getToken());
+        assertEquals("cached-token", authService.getToken());
+
+        verify(authClient, times(1)).getToken(any(MultiValueMap.class));
+    }
+
+    @Test
+    @DisplayName("Should count cache hits and refreshes and report the token age")
+    void shouldPublishTokenMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        authService.bindTo(registry);
+        assertThat(registry.get("openremote.token.age").timeGauge().value()).isNaN();
+
+        TokenResponse tokenResponse = new TokenResponse();
+        tokenResponse.setAccessToken("cached-token");
+        tokenResponse.setExpiresIn(300);
+        when(authClient.getToken(any(MultiValueMap.class))).thenReturn(tokenResponse);
+
+        authService.getToken();
+        authService.getToken();
+        authService.getToken();
+
+        assertThat(registry.get("openremote.token.cache.hits").functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("openremote.token.refreshes").tag("outcome", "success").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("openremote.token.refreshes").tag("outcome", "failure").functionCounter().count()).isZero();
+        assertThat(registry.get("openremote.token.age").timeGauge().value()).isGreaterThanOrEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("The token should be refreshed in the background at refresh-ratio of its lifetime, before it expires")
+    void shouldRefreshTokenInBackground_atRefreshRatio() {
+        ReflectionTestUtils.setField(authService, "refreshRatio", 0.25);
+        ReflectionTestUtils.setField(authService, "expirySkew", Duration.ZERO);
+        List<Long> fetchedAt = new CopyOnWriteArrayList<>();
+        List<String> fetchThreads = new CopyOnWriteArrayList<>();
+        when(authClient.getToken(any(MultiValueMap.class))).thenAnswer(invocation -> {
+            fetchedAt.add(System.currentTimeMillis());
+            fetchThreads.add(Thread.currentThread().getName());
+            return token("token-" + fetchedAt.size(), 4);
+        });
+
+        assertEquals("token-1", authService.getToken());
+
+        await().atMost(Duration.ofSeconds(3)).until(() -> fetchedAt.size() >= 2);
+        assertThat(fetchedAt.get(1) - fetchedAt.get(0)).isBetween(900L, 4000L);
+        assertThat(fetchThreads.get(1)).startsWith("auth-token-");
+        assertEquals("token-2", authService.getToken());
+        verify(authClient, times(2)).getToken(any(MultiValueMap.class));
+    }
+
+    @Test
+    @DisplayName("A failed background refresh should keep serving the current token and retry after retry-interval")
+    void shouldKeepTokenAndRetry_whenBackgroundRefreshFails() {
+        ReflectionTestUtils.setField(authService, "refreshRatio", 0.1);
+        ReflectionTestUtils.setField(authService, "expirySkew", Duration.ZERO);
+        ReflectionTestUtils.setField(authService, "retryInterval", Duration.ofMillis(500));
+        List<Long> fetchedAt = new CopyOnWriteArrayList<>();
+        when(authClient.getToken(any(MultiValueMap.class))).thenAnswer(invocation -> {
+            fetchedAt.add(System.currentTimeMillis());
+            if (fetchedAt.size() == 2) {
+                throw new AuthException("Auth server unavailable");
+            }
+            return token("token-" + fetchedAt.size(), 5);
+        });
+
+        assertEquals("token-1", authService.getToken());
+        await().atMost(Duration.ofSeconds(3)).until(() -> fetchedAt.size() >= 2);
+        assertEquals("token-1", authService.getToken());
+
+        await().atMost(Duration.ofSeconds(3)).until(() -> fetchedAt.size() >= 3);
+        assertThat(fetchedAt.get(2) - fetchedAt.get(1)).isGreaterThanOrEqualTo(450L);
+        assertEquals("token-3", authService.getToken());
+        verify(authClient, times(3)).getToken(any(MultiValueMap.class));
+    }
+
+    @Test
+    @DisplayName("Concurrent callers without a valid token should share a single refresh")
+    void shouldShareSingleRefresh_whenCalledConcurrently() throws Exception {
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFetch = new CountDownLatch(1);
+        TokenResponse tokenResponse = new TokenResponse();
+        tokenResponse.setAccessToken("shared-token");
+        tokenResponse.setExpiresIn(300);
+        when(authClient.getToken(any(MultiValueMap.class))).thenAnswer(invocation -> {
+            fetchStarted.countDown();
+            releaseFetch.await(5, TimeUnit.SECONDS);
+            return tokenResponse;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> first = executor.submit(() -> authService.getToken());
+            assertTrue(fetchStarted.await(5, TimeUnit.SECONDS));
+            List<Future<String>> others = List.of(
+                    executor.submit(() -> authService.getToken()),
+                    executor.submit(() -> authService.getToken()),
+                    executor.submit(() -> authService.getToken()));
+            releaseFetch.countDown();
+
+            assertEquals("shared-token", first.get(5, TimeUnit.SECONDS));
+            for (Future<String> other : others) {
+                assertEquals("shared-token", other.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(authClient, times(1)).getToken(any(MultiValueMap.class));
+    }
+
+    @Test
+    @DisplayName("A configured realm should get its own token from its Auth server and have its calls routed")
+    void shouldFetchRealmToken_withRealmCredentials() {
+        RealmCredentials credentials = new RealmCredentials("building-a", "realm-client", "realm-secret",
+                "https://or.example/auth/realms/building-a/protocol/openid-connect/token",
+                "https://or.example/api/building-a");
+        when(realmRegistry.find("building-a")).thenReturn(Optional.of(credentials));
+        TokenResponse tokenResponse = new TokenResponse();
+        tokenResponse.setAccessToken("realm-token");
+        tokenResponse.setExpiresIn(300);
+        ArgumentCaptor<MultiValueMap<String, String>> formData = ArgumentCaptor.forClass(MultiValueMap.class);
+        when(authClient.getToken(eq(URI.create(credentials.tokenUrl())), formData.capture())).thenReturn(tokenResponse);
+
+        assertEquals("realm-token", authService.getToken("building-a"));
+        assertEquals("realm-token", authService.getToken("building-a"));
+
+        assertEquals("realm-client", formData.getValue().getFirst("client_id"));
+        assertEquals("realm-secret", formData.getValue().getFirst("client_secret"));
+        verify(authClient, times(1)).getToken(any(URI.class), any(MultiValueMap.class));
+        verify(authClient, never()).getToken(any(MultiValueMap.class));
+        verify(realmRegistry).registerToken("realm-token", credentials);
+    }
+
+    @Test
+    @DisplayName("A background refresh stuck on one realm's Auth server should not hold up another realm's refresh")
+    void shouldRefreshRealmsIndependently_whenOneAuthServerHangs() throws Exception {
+        ReflectionTestUtils.setField(authService, "refreshRatio", 0.1);
+        ReflectionTestUtils.setField(authService, "expirySkew", Duration.ZERO);
+        RealmCredentials slow = realm("slow");
+        RealmCredentials fast = realm("fast");
+        when(realmRegistry.find("slow")).thenReturn(Optional.of(slow));
+        when(realmRegistry.find("fast")).thenReturn(Optional.of(fast));
+        CountDownLatch releaseSlow = new CountDownLatch(1);
+        AtomicInteger slowFetches = new AtomicInteger();
+        AtomicInteger fastFetches = new AtomicInteger();
+        when(authClient.getToken(eq(URI.create(slow.tokenUrl())), any(MultiValueMap.class))).thenAnswer(invocation -> {
+            if (slowFetches.incrementAndGet() > 1) {
+                releaseSlow.await(10, TimeUnit.SECONDS);
+            }
+            return token("slow-" + slowFetches.get(), 2);
+        });
+        when(authClient.getToken(eq(URI.create(fast.tokenUrl())), any(MultiValueMap.class)))
+                .thenAnswer(invocation -> token("fast-" + fastFetches.incrementAndGet(), 2));
+
+        try {
+            assertEquals("slow-1", authService.getToken("slow"));
+            assertEquals("fast-1", authService.getToken("fast"));
+
+            await().atMost(Duration.ofSeconds(5)).until(() -> fastFetches.get() >= 3);
+            assertEquals(2, slowFetches.get());
+        } finally {
+            releaseSlow.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("A realm without credentials should be served with the default token")
+    void shouldReturnDefaultToken_whenRealmIsNotConfigured() {
+        when(realmRegistry.find("unknown")).thenReturn(Optional.empty());
+        TokenResponse tokenResponse = new TokenResponse();
+        tokenResponse.setAccessToken("default-token");
+        tokenResponse.setExpiresIn(300);
+        when(authClient.getToken(any(MultiValueMap.class))).thenReturn(tokenResponse);
+
+        assertEquals("default-token", authService.getToken("unknown"));
+        assertEquals("default-token", authService.getToken());
+
+        verify(authClient, times(1)).getToken(any(MultiValueMap.class));
+        verify(realmRegistry, never()).registerToken(any(), any());
+    }
+
+    private static RealmCredentials realm(String name) {
+        return new RealmCredentials(name, name + "-client", name + "-secret",
+                "https://or.example/auth/realms/" + name + "/protocol/openid-connect/token",
+                "https://or.example/api/" + name);
+    }
+
+    private static TokenResponse token(String accessToken, int expiresInSeconds) {
+        TokenResponse tokenResponse = new TokenResponse();
+        tokenResponse.setAccessToken(accessToken);
+        tokenResponse.setExpiresIn(expiresInSeconds);
+        return tokenResponse;
+    }
+
+    @Test
+    @DisplayName("fetchTokenFallback should throw AuthException with correct message and cause")
+    void fetchTokenFallback_shouldThrowAuthException() {
         RuntimeException originalException = new RuntimeException("Original error from AuthClient");
 
         AuthException thrownException = assertThrows(AuthException.class,
-                () -> ReflectionTestUtils.invokeMethod(authService, "getTokenFallback", originalException)
+                () -> ReflectionTestUtils.invokeMethod(tokenFetcher, "fetchTokenFallback", originalException)
         );
 
         assertThat(thrownException)
@@ -78,4 +308,4 @@ class AuthServiceTest {
                 .hasCauseInstanceOf(RuntimeException.class)
                 .hasCause(originalException);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,145 @@
+package com.tworun.openremoteclientservice.service;
+
+import com.tworun.openremoteclientservice.client.AssetClient;
+import com.tworun.openremoteclientservice.dto.AssetResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HedgedAssetReaderTest {
+
+    private static final String AUTH_HEADER = "Bearer token";
+
+    @Mock
+    private AssetClient assetClient;
+
+    private ExecutorService executor;
+    private HedgedAssetReader reader;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+        reader = new HedgedAssetReader(assetClient, executor);
+        ReflectionTestUtils.setField(reader, "enabled", true);
+        meterRegistry = new SimpleMeterRegistry();
+        reader.bindTo(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reader.shutdown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("A slow read should be hedged and answered by whichever call returns first")
+    void getAsset_hedgeWins() {
+        ReflectionTestUtils.setField(reader, "initialDelay", Duration.ofMillis(20));
+        reader.start();
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        AssetResponse asset = new AssetResponse();
+        asset.setId("id1");
+        when(assetClient.getAsset(AUTH_HEADER, "id1")).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                releaseFirst.await(5, TimeUnit.SECONDS);
+            }
+            return asset;
+        });
+
+        try {
+            assertThat(reader.getAsset(AUTH_HEADER, "id1")).isSameAs(asset);
+        } finally {
+            releaseFirst.countDown();
+        }
+
+        verify(assetClient, times(2)).getAsset(AUTH_HEADER, "id1");
+        assertThat(meterRegistry.get("openremote.hedging.sent").functionCounter().count()).isEqualTo(1);
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(meterRegistry.get("openremote.hedging.won").functionCounter().count()).isEqualTo(1));
+    }
+
+    @Test
+    @DisplayName("Hedges should stop once the hedge budget is used up")
+    void getAsset_budgetCapsHedges() {
+        ReflectionTestUtils.setField(reader, "initialDelay", Duration.ofMillis(1));
+        ReflectionTestUtils.setField(reader, "budget", 0.0);
+        reader.start();
+        when(assetClient.getAsset(AUTH_HEADER, "id1")).thenAnswer(invocation -> {
+            TimeUnit.MILLISECONDS.sleep(20);
+            return new AssetResponse();
+        });
+
+        for (int i = 0; i <= HedgedAssetReader.BUDGET_BURST; i++) {
+            reader.getAsset(AUTH_HEADER, "id1");
+        }
+
+        assertThat(meterRegistry.get("openremote.hedging.sent").functionCounter().count())
+                .isEqualTo(HedgedAssetReader.BUDGET_BURST);
+        assertThat(meterRegistry.get("openremote.hedging.skipped").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Reads should fall back to the caller thread and skip hedges when the executor is full")
+    void getAsset_executorFull() {
+        AtomicInteger accepted = new AtomicInteger();
+        reader = new HedgedAssetReader(assetClient, runnable -> {
+            if (accepted.incrementAndGet() > 1) {
+                throw new RejectedExecutionException("full");
+            }
+            executor.execute(runnable);
+        });
+        ReflectionTestUtils.setField(reader, "enabled", true);
+        ReflectionTestUtils.setField(reader, "initialDelay", Duration.ofMillis(5));
+        reader.bindTo(meterRegistry = new SimpleMeterRegistry());
+        reader.start();
+        AssetResponse asset = new AssetResponse();
+        when(assetClient.getAsset(AUTH_HEADER, "id1")).thenAnswer(invocation -> {
+            TimeUnit.MILLISECONDS.sleep(50);
+            return asset;
+        });
+
+        assertThat(reader.getAsset(AUTH_HEADER, "id1")).isSameAs(asset);
+        assertThat(reader.getAsset(AUTH_HEADER, "id1")).isSameAs(asset);
+
+        verify(assetClient, times(2)).getAsset(AUTH_HEADER, "id1");
+        assertThat(meterRegistry.get("openremote.hedging.sent").functionCounter().count()).isZero();
+        assertThat(meterRegistry.get("openremote.hedging.skipped").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("The hedge delay should follow the configured percentile of recent latencies")
+    void updateDelay_usesPercentile() {
+        reader.start();
+        for (int millis = 1; millis <= 100; millis++) {
+            ReflectionTestUtils.invokeMethod(reader, "recordLatency", TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        reader.updateDelay();
+
+        assertThat(meterRegistry.get("openremote.hedging.delay").timeGauge().value(TimeUnit.MILLISECONDS))
+                .isEqualTo(95.0);
+    }
+}
@@ -0,0 +1,136 @@
+package com.tworun.openremoteclientservice.service;
+
+import com.tworun.openremoteclientservice.cache.AssetCache;
+import com.tworun.openremoteclientservice.client.ReactiveAssetClient;
+import com.tworun.openremoteclientservice.dto.AssetCreateRequest;
+import com.tworun.openremoteclientservice.dto.AssetQuery;
+import com.tworun.openremoteclientservice.dto.AssetResponse;
+import com.tworun.openremoteclientservice.exception.AssetNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveAssetServiceTest {
+
+    @Mock
+    private ReactiveAssetClient reactiveAssetClient;
+    @Mock
+    private ReactiveAuthService reactiveAuthService;
+    @Mock
+    private AssetCache assetCache;
+    @InjectMocks
+    private ReactiveAssetService reactiveAssetService;
+
+    @Test
+    @DisplayName("Should create asset with bearer token and cache the response")
+    void createAsset_success() {
+        AssetCreateRequest req = new AssetCreateRequest();
+        AssetResponse created = asset("abc123");
+        when(reactiveAuthService.getToken()).thenReturn(Mono.just("token"));
+        when(reactiveAssetClient.createAsset("Bearer token", req)).thenReturn(Mono.just(created));
+
+        StepVerifier.create(reactiveAssetService.createAsset(req))
+                .expectNext(created)
+                .verifyComplete();
+
+        verify(assetCache).put(created);
+    }
+
+    @Test
+    @DisplayName("Should serve cached asset without calling OpenRemote")
+    void getAsset_cached() {
+        AssetResponse cached = asset("abc123");
+        when(assetCache.get("abc123")).thenReturn(cached);
+
+        StepVerifier.create(reactiveAssetService.getAsset("abc123"))
+                .expectNext(cached)
+                .verifyComplete();
+
+        verifyNoInteractions(reactiveAssetClient, reactiveAuthService);
+    }
+
+    @Test
+    @DisplayName("Should map upstream 404 to AssetNotFoundException on getAsset")
+    void getAsset_notFound() {
+        when(reactiveAuthService.getToken()).thenReturn(Mono.just("token"));
+        when(reactiveAssetClient.getAsset("Bearer token", "missing"))
+                .thenReturn(Mono.error(WebClientResponseException.create(HttpStatus.NOT_FOUND.value(), "Not Found", null, null, null)));
+
+        StepVerifier.create(reactiveAssetService.getAsset("missing"))
+                .expectErrorSatisfies(ex -> assertThat(ex)
+                        .isInstanceOf(AssetNotFoundException.class)
+                        .hasMessage("Asset not found with id: missing"))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should wrap other upstream errors in RuntimeException on updateAsset")
+    void updateAsset_serverError() {
+        AssetCreateRequest req = new AssetCreateRequest();
+        when(reactiveAuthService.getToken()).thenReturn(Mono.just("token"));
+        when(reactiveAssetClient.updateAsset("Bearer token", "abc123", req))
+                .thenReturn(Mono.error(WebClientResponseException.create(500, "Server Error", null, null, null)));
+
+        StepVerifier.create(reactiveAssetService.updateAsset("abc123", req))
+                .expectErrorSatisfies(ex -> assertThat(ex)
+                        .isNotInstanceOf(AssetNotFoundException.class)
+                        .hasMessageStartingWith("Failed to update asset"))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should combine cached and queried assets and report missing ids")
+    void getAssets_mixed() {
+        AssetResponse cached = asset("id1");
+        AssetResponse fetched = asset("id2");
+        when(assetCache.get("id1")).thenReturn(cached);
+        when(reactiveAuthService.getToken()).thenReturn(Mono.just("token"));
+        when(reactiveAssetClient.queryAssets(eq("Bearer token"), any(AssetQuery.class))).thenReturn(Flux.just(fetched));
+
+        StepVerifier.create(reactiveAssetService.getAssets(List.of("id1", "id2", "id3", "id1")))
+                .assertNext(response -> {
+                    assertThat(response.getAssets()).containsExactly(cached, fetched);
+                    assertThat(response.getMissingIds()).containsExactly("id3");
+                })
+                .verifyComplete();
+
+        verify(reactiveAssetClient).queryAssets("Bearer token", AssetQuery.byIds(List.of("id2", "id3")));
+    }
+
+    @Test
+    @DisplayName("Should map upstream 400 to AssetNotFoundException and invalidate cache on deleteAssets")
+    void deleteAssets_badRequest() {
+        List<String> ids = List.of("id1", "id2");
+        when(reactiveAuthService.getToken()).thenReturn(Mono.just("token"));
+        when(reactiveAssetClient.deleteAssets("Bearer token", ids))
+                .thenReturn(Mono.error(WebClientResponseException.create(400, "Bad Request", null, null, null)));
+
+        StepVerifier.create(reactiveAssetService.deleteAssets(ids))
+                .expectError(AssetNotFoundException.class)
+                .verify();
+
+        verify(assetCache).invalidateAll(ids);
+    }
+
+    private static AssetResponse asset(String id) {
+        AssetResponse asset = new AssetResponse();
+        asset.setId(id);
+        return asset;
+    }
+}
@@ -0,0 +1,153 @@
+package com.tworun.openremoteclientservice.spool;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.tworun.openremoteclientservice.cache.AssetCache;
+import com.tworun.openremoteclientservice.client.AssetClient;
+import com.tworun.openremoteclientservice.dto.AttributeEvent;
+import com.tworun.openremoteclientservice.dto.AttributeWriteResult;
+import com.tworun.openremoteclientservice.service.AuthService;
+import feign.FeignException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AttributeWriteSpoolTest {
+
+    @Mock
+    private AssetClient assetClient;
+    @Mock
+    private AuthService authService;
+    @Mock
+    private AssetCache assetCache;
+
+    @TempDir
+    Path directory;
+
+    private AttributeWriteSpool spool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        spool = newSpool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        spool.stop();
+    }
+
+    @Test
+    @DisplayName("Spooled writes should be sent in append order with their ingest timestamp")
+    void drainOnce_sendsInOrder() {
+        when(authService.getToken()).thenReturn("token");
+        when(assetClient.writeAttributeValues(eq("Bearer token"), anyList()))
+                .thenAnswer(invocation -> success(invocation.getArgument(1)));
+
+        spool.append(List.of(new AttributeEvent("id1", "temperature", IntNode.valueOf(1))));
+        spool.append(List.of(new AttributeEvent("id1", "temperature", IntNode.valueOf(2)),
+                new AttributeEvent("id2", "humidity", IntNode.valueOf(3))));
+
+        assertThat(spool.drainOnce()).isEqualTo(3);
+        assertThat(spool.drainOnce()).isZero();
+
+        ArgumentCaptor<List<AttributeEvent>> events = eventsCaptor();
+        verify(assetClient).writeAttributeValues(eq("Bearer token"), events.capture());
+        assertThat(events.getValue()).extracting(event -> event.getValue().intValue()).containsExactly(1, 2, 3);
+        assertThat(events.getValue()).allSatisfy(event -> assertThat(event.getTimestamp()).isNotNull());
+        verify(assetCache).invalidate("id1");
+        verify(assetCache).invalidate("id2");
+    }
+
+    @Test
+    @DisplayName("A failed drain should keep the writes for the next attempt")
+    void drainOnce_keepsWritesOnFailure() {
+        when(authService.getToken()).thenReturn("token");
+        when(assetClient.writeAttributeValues(eq("Bearer token"), anyList()))
+                .thenThrow(mock(FeignException.ServiceUnavailable.class))
+                .thenAnswer(invocation -> success(invocation.getArgument(1)));
+
+        spool.append(List.of(new AttributeEvent("id1", "temperature", IntNode.valueOf(1))));
+
+        assertThatThrownBy(spool::drainOnce).isInstanceOf(FeignException.class);
+        assertThat(spool.drainOnce()).isEqualTo(1);
+        assertThat(spool.drainOnce()).isZero();
+    }
+
+    @Test
+    @DisplayName("A drain round should take whole records of at most batch-size writes, and a larger record alone")
+    void drainOnce_boundsRoundByWrites() {
+        ReflectionTestUtils.setField(spool, "batchSize", 3);
+        when(authService.getToken()).thenReturn("token");
+        when(assetClient.writeAttributeValues(eq("Bearer token"), anyList()))
+                .thenAnswer(invocation -> success(invocation.getArgument(1)));
+
+        spool.append(events(1, 2));
+        spool.append(events(3, 4));
+        spool.append(events(5, 6, 7, 8, 9));
+
+        assertThat(spool.drainOnce()).isEqualTo(2);
+        assertThat(spool.drainOnce()).isEqualTo(2);
+        assertThat(spool.drainOnce()).isEqualTo(5);
+        assertThat(spool.drainOnce()).isZero();
+
+        ArgumentCaptor<List<AttributeEvent>> events = eventsCaptor();
+        verify(assetClient, times(4)).writeAttributeValues(eq("Bearer token"), events.capture());
+        assertThat(events.getAllValues()).extracting(List::size).containsExactly(2, 2, 3, 2);
+    }
+
+    @Test
+    @DisplayName("Writes not drained before a restart should be drained after it")
+    void start_replaysUndrainedWrites() throws Exception {
+        spool.append(List.of(new AttributeEvent("id1", "temperature", IntNode.valueOf(1))));
+        spool.stop();
+
+        spool = newSpool();
+        when(authService.getToken()).thenReturn("token");
+        when(assetClient.writeAttributeValues(eq("Bearer token"), anyList()))
+                .thenAnswer(invocation -> success(invocation.getArgument(1)));
+
+        assertThat(spool.drainOnce()).isEqualTo(1);
+    }
+
+    private AttributeWriteSpool newSpool() throws Exception {
+        AttributeWriteSpool created = new AttributeWriteSpool(assetClient, authService, assetCache, new ObjectMapper());
+        ReflectionTestUtils.setField(created, "directory", directory);
+        ReflectionTestUtils.setField(created, "segmentSize", DataSize.ofKilobytes(64));
+        created.open();
+        return created;
+    }
+
+    private static List<AttributeEvent> events(int... values) {
+        return Arrays.stream(values)
+                .mapToObj(value -> new AttributeEvent("id1", "temperature", IntNode.valueOf(value)))
+                .toList();
+    }
+
+    private static List<AttributeWriteResult> success(List<AttributeEvent> events) {
+        return events.stream().map(event -> new AttributeWriteResult(event.getRef(), null)).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<AttributeEvent>> eventsCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+}
@@ -0,0 +1,124 @@
+package com.tworun.openremoteclientservice.spool;
+
+import com.tworun.openremoteclientservice.exception.SpoolFullException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SegmentLogTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Records should be read in append order and only once committed")
+    void read_returnsRecordsInOrder() throws IOException {
+        SegmentLog log = SegmentLog.open(directory, SEGMENT_SIZE, 4, false);
+        log.append(bytes("one"));
+        log.append(bytes("two"));
+        log.append(bytes("three"));
+
+        SegmentLog.Batch first = log.read(2);
+        assertThat(strings(first)).containsExactly("one", "two");
+        assertThat(strings(log.read(2))).containsExactly("one", "two");
+
+        log.commit(first.next());
+        assertThat(strings(log.read(10))).containsExactly("three");
+    }
+
+    @Test
+    @DisplayName("Records should span segments, and drained segments should be deleted")
+    void commit_deletesDrainedSegments() throws IOException {
+        SegmentLog log = SegmentLog.open(directory, SEGMENT_SIZE, 4, false);
+        List<String> records = IntStream.range(0, 20).mapToObj(i -> "record-" + i + "-" + "x".repeat(100)).toList();
+        records.forEach(record -> log.append(bytes(record)));
+        assertThat(segmentFiles()).hasSizeGreaterThan(1);
+
+        SegmentLog.Batch batch = log.read(100);
+        assertThat(strings(batch)).containsExactlyElementsOf(records);
+
+        log.commit(batch.next());
+        assertThat(segmentFiles()).hasSize(1);
+        assertThat(log.backlogBytes()).isZero();
+    }
+
+    @Test
+    @DisplayName("Appends should fail instead of blocking once the maximum number of segments is in use")
+    void append_failsWhenFull() throws IOException {
+        SegmentLog log = SegmentLog.open(directory, SEGMENT_SIZE, 2, false);
+        byte[] record = bytes("x".repeat(600));
+        log.append(record);
+        log.append(record);
+
+        assertThatThrownBy(() -> log.append(record)).isInstanceOf(SpoolFullException.class);
+
+        log.commit(log.read(2).next());
+        log.append(record);
+        assertThat(log.read(10).records()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Reopening should resume from the committed position and keep appending after the last record")
+    void open_recoversCommittedAndWritePositions() throws IOException {
+        SegmentLog log = SegmentLog.open(directory, SEGMENT_SIZE, 4, false);
+        log.append(bytes("drained"));
+        log.append(bytes("pending"));
+        log.commit(log.read(1).next());
+        log.close();
+
+        SegmentLog reopened = SegmentLog.open(directory, SEGMENT_SIZE, 4, false);
+        reopened.append(bytes("new"));
+
+        assertThat(strings(reopened.read(10))).containsExactly("pending", "new");
+    }
+
+    @Test
+    @DisplayName("A corrupt record of a full segment should be skipped with the rest of its segment")
+    void read_skipsCorruptRecordsOfFullSegments() throws IOException {
+        SegmentLog log = SegmentLog.open(directory, SEGMENT_SIZE, 4, false);
+        String nextSegment = "y".repeat(200);
+        log.append(bytes("first"));
+        log.append(bytes("x".repeat(900)));
+        log.append(bytes(nextSegment));
+        assertThat(segmentFiles()).hasSize(2);
+        log.close();
+        Path firstSegment = segmentFiles().stream().sorted().findFirst().orElseThrow();
+        byte[] content = Files.readAllBytes(firstSegment);
+        content[8 + "first".length() + 8] ^= 1;                           // Flip a payload bit of the second record
+        Files.write(firstSegment, content);
+
+        SegmentLog reopened = SegmentLog.open(directory, SEGMENT_SIZE, 4, false);
+        SegmentLog.Batch batch = reopened.read(10);
+
+        assertThat(strings(batch)).containsExactly("first", nextSegment);
+        reopened.commit(batch.next());
+        assertThat(reopened.read(10).isEmpty()).isTrue();
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("segment-")).toList();
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> strings(SegmentLog.Batch batch) {
+        return batch.records().stream().map(record -> new String(record, StandardCharsets.UTF_8)).toList();
+    }
+}